@@ -0,0 +1,55 @@
+package com.loja.e_commerce.benchmarks;
+
+import com.loja.e_commerce.dtos.produto.ProdutoResponseDTO;
+import com.loja.e_commerce.models.Categoria;
+import com.loja.e_commerce.models.Produto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Dados fixos dos benchmarks: parecidos com uma página real do catálogo (textos, preço com centavos, imagem)
+final class Amostras {
+
+    private Amostras() {
+    }
+
+    static List<Produto> produtos(int quantidade) {
+        Categoria categoria = new Categoria();
+        categoria.setId(3L);
+        categoria.setNome("Periféricos");
+        categoria.setAtivo(true);
+
+        List<Produto> produtos = new ArrayList<>(quantidade);
+
+        for (int i = 0; i < quantidade; i++) {
+            Produto produto = new Produto();
+            produto.setId((long) i + 1);
+            produto.setNome("Mouse sem fio modelo " + i);
+            produto.setDescricao("Mouse óptico sem fio, 1600 DPI, receptor USB e pilha inclusa");
+            produto.setPreco(new BigDecimal("59.90").add(BigDecimal.valueOf(i)));
+            produto.setEstoque(100 + i);
+            produto.setAtivo(true);
+            produto.setImagemPath(i % 2 == 0 ? "9f86d081884c7d659a2feaa0c55ad015a3bf4f1b2b0b822cd15d6c15b0f00a08.png" : null);
+            produto.setCategoria(categoria);
+            produto.setVersao(2L);
+            produtos.add(produto);
+        }
+
+        return produtos;
+    }
+
+    // Como sai do ProdutoService: com as URLs das miniaturas quando há imagem
+    static List<ProdutoResponseDTO> respostas(int quantidade) {
+        return produtos(quantidade).stream()
+                .map(p -> new ProdutoResponseDTO(
+                        p.getId(), p.getNome(), p.getDescricao(), p.getPreco(), p.getEstoque(), p.getAtivo(),
+                        p.getImagemPath(), p.getCategoria().getNome(), p.getVersao(),
+                        p.getImagemPath() == null ? null : Map.of(
+                                "original", "/imagens/" + p.getImagemPath(),
+                                "150", "/imagens/" + p.getImagemPath().replace(".png", "-150.png"),
+                                "400", "/imagens/" + p.getImagemPath().replace(".png", "-400.png"))))
+                .toList();
+    }
+}
@@ -0,0 +1,78 @@
+package com.loja.e_commerce.benchmarks;
+
+import com.loja.e_commerce.dtos.ApiErrorDTO;
+import com.loja.e_commerce.dtos.produto.ProdutoRequestDTO;
+import com.loja.e_commerce.exceptions.BadRequestException;
+import com.loja.e_commerce.exceptions.GlobalExceptionHandler;
+import com.loja.e_commerce.exceptions.ResourceNotFoundException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.concurrent.TimeUnit;
+
+// Respostas de erro (montadas pelo GlobalExceptionHandler.build): caminho quente em picos de 400/404
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GlobalExceptionHandlerBenchmark {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    private MockHttpServletRequest request;
+    private ResourceNotFoundException naoEncontrado;
+    private BadRequestException requisicaoInvalida;
+    private MethodArgumentNotValidException validacao;
+
+    @Setup
+    public void preparar() throws NoSuchMethodException {
+        request = new MockHttpServletRequest("GET", "/produtos/42");
+        naoEncontrado = new ResourceNotFoundException("Produto não encontrado");
+        requisicaoInvalida = new BadRequestException("Preço mínimo não pode ser maior que o máximo");
+
+        // Cadastro com três campos inválidos
+        BeanPropertyBindingResult erros = new BeanPropertyBindingResult(new ProdutoRequestDTO(), "produtoRequestDTO");
+        erros.rejectValue("nome", "NotBlank", "Nome é obrigatório");
+        erros.rejectValue("preco", "NotNull", "Preço é obrigatório");
+        erros.rejectValue("categoriaId", "NotNull", "Categoria é obrigatória");
+
+        MethodParameter parametro = new MethodParameter(
+                GlobalExceptionHandlerBenchmark.class.getDeclaredMethod("alvo", ProdutoRequestDTO.class), 0);
+        validacao = new MethodArgumentNotValidException(parametro, erros);
+    }
+
+    // Só para existir um MethodParameter do tipo do cadastro
+    @SuppressWarnings("unused")
+    private void alvo(ProdutoRequestDTO dto) {
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiErrorDTO> naoEncontrado() {
+        return handler.handleNotFound(naoEncontrado, request);
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiErrorDTO> requisicaoInvalida() {
+        return handler.handleBadRequest(requisicaoInvalida, request);
+    }
+
+    @Benchmark
+    public ResponseEntity<ApiErrorDTO> errosDeValidacao() {
+        return handler.handleValidation(validacao, request);
+    }
+}
@@ -0,0 +1,70 @@
+package com.loja.e_commerce.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loja.e_commerce.dtos.PageResponseDTO;
+import com.loja.e_commerce.dtos.produto.ProdutoResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Serialização das respostas de leitura, feita a cada requisição que não sai do cache HTTP (ETag)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProdutoJsonBenchmark {
+
+    @Param({"10", "100"})
+    private int tamanho;
+
+    // Mesmo construtor usado pelo Spring Boot para o ObjectMapper da aplicação
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private ProdutoResponseDTO produto;
+    private PageResponseDTO<ProdutoResponseDTO> pagina;
+
+    @Setup
+    public void preparar() {
+        List<ProdutoResponseDTO> respostas = Amostras.respostas(tamanho);
+
+        produto = respostas.get(0);
+        pagina = new PageResponseDTO<>(respostas, 2, tamanho, 10_000L, 10_000 / tamanho);
+    }
+
+    @Benchmark
+    public byte[] produto() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(produto);
+    }
+
+    @Benchmark
+    public byte[] pagina() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(pagina);
+    }
+
+    // Caminho do GET /produtos em NDJSON: uma String por produto
+    @Benchmark
+    public int linhasNdjson() throws JsonProcessingException {
+        int tamanhoTotal = 0;
+
+        for (ProdutoResponseDTO p : pagina.content()) {
+            tamanhoTotal += objectMapper.writeValueAsString(p).length() + 1;
+        }
+
+        return tamanhoTotal;
+    }
+}
@@ -0,0 +1,83 @@
+package com.loja.e_commerce.benchmarks;
+
+import com.loja.e_commerce.dtos.PageResponseDTO;
+import com.loja.e_commerce.dtos.produto.ProdutoResponseDTO;
+import com.loja.e_commerce.mappers.ProdutoMapper;
+import com.loja.e_commerce.models.Produto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Entidade -> DTO e montagem do PageResponseDTO (uma vez por produto/página em toda listagem)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProdutoMapperBenchmark {
+
+    // Tamanho padrão da página e o maior usado pelas vitrines
+    @Param({"10", "100"})
+    private int tamanho;
+
+    private final ProdutoMapper mapper = new ProdutoMapper();
+
+    private Produto produto;
+    private Page<Produto> paginaEntidades;
+    private Page<ProdutoResponseDTO> paginaDtos;
+    private Slice<ProdutoResponseDTO> fatiaDtos;
+
+    @Setup
+    public void preparar() {
+        List<Produto> produtos = Amostras.produtos(tamanho);
+        List<ProdutoResponseDTO> respostas = Amostras.respostas(tamanho);
+        PageRequest pageable = PageRequest.of(2, tamanho);
+
+        produto = produtos.get(0);
+        paginaEntidades = new PageImpl<>(produtos, pageable, 10_000);
+        paginaDtos = new PageImpl<>(respostas, pageable, 10_000);
+        fatiaDtos = new SliceImpl<>(respostas, pageable, true);
+    }
+
+    @Benchmark
+    public ProdutoResponseDTO toResponse() {
+        return mapper.toResponse(produto);
+    }
+
+    @Benchmark
+    public PageResponseDTO<ProdutoResponseDTO> toResponsePage() {
+        return mapper.toResponsePage(paginaEntidades);
+    }
+
+    @Benchmark
+    public PageResponseDTO<ProdutoResponseDTO> pageResponseExata() {
+        return PageResponseDTO.toResponse(paginaDtos);
+    }
+
+    @Benchmark
+    public PageResponseDTO<ProdutoResponseDTO> pageResponseSemContagem() {
+        return PageResponseDTO.toResponse(fatiaDtos);
+    }
+
+    @Benchmark
+    public PageResponseDTO<ProdutoResponseDTO> pageResponseEstimada() {
+        return PageResponseDTO.toResponse(fatiaDtos, 10_000);
+    }
+}
@@ -0,0 +1,100 @@
+package com.loja.e_commerce.benchmarks;
+
+import com.loja.e_commerce.ECommerceApplication;
+import com.loja.e_commerce.models.Produto;
+import com.loja.e_commerce.repositories.specification.ProdutoSpecification;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// Montagem dos predicados da listagem (a mesma composição do ProdutoService.filtros), sem executar SQL.
+// O CriteriaBuilder é o do Hibernate da aplicação: o contexto sobe uma vez por fork, com o H2 dos testes
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProdutoSpecificationBenchmark {
+
+    private ConfigurableApplicationContext contexto;
+    private EntityManager entityManager;
+    private CriteriaBuilder cb;
+
+    @Setup
+    public void subir() {
+        contexto = new SpringApplicationBuilder(ECommerceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--logging.level.root=WARN");
+
+        entityManager = contexto.getBean(EntityManagerFactory.class).createEntityManager();
+        cb = entityManager.getCriteriaBuilder();
+    }
+
+    @TearDown
+    public void descer() {
+        entityManager.close();
+        contexto.close();
+    }
+
+    @Benchmark
+    public Predicate filtrosDaListagem() {
+        Specification<Produto> spec = ProdutoSpecification.ativo()
+                .and(ProdutoSpecification.nomeContem("Mouse"))
+                .and(ProdutoSpecification.precoMin(new BigDecimal("10")))
+                .and(ProdutoSpecification.precoMax(new BigDecimal("200")))
+                .and(ProdutoSpecification.categoriaId(3L));
+
+        return predicado(spec);
+    }
+
+    // Sem filtros: os nulos viram conjunction()
+    @Benchmark
+    public Predicate semFiltros() {
+        Specification<Produto> spec = ProdutoSpecification.ativo()
+                .and(ProdutoSpecification.nomeContem(null))
+                .and(ProdutoSpecification.precoMin(null))
+                .and(ProdutoSpecification.precoMax(null))
+                .and(ProdutoSpecification.categoriaId(null));
+
+        return predicado(spec);
+    }
+
+    @Benchmark
+    public Predicate buscaPorRelevancia() {
+        Specification<Produto> spec = ProdutoSpecification.ativo()
+                .and(ProdutoSpecification.nomeCorresponde("mouse sem fio"))
+                .and(ProdutoSpecification.ordenarPorRelevancia("mouse sem fio"))
+                .and(ProdutoSpecification.categoriaId(3L));
+
+        return predicado(spec);
+    }
+
+    private Predicate predicado(Specification<Produto> spec) {
+        CriteriaQuery<Produto> query = cb.createQuery(Produto.class);
+        Root<Produto> root = query.from(Produto.class);
+
+        return spec.toPredicate(root, query, cb);
+    }
+}
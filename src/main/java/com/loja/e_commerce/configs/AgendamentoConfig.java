@@ -0,0 +1,10 @@
+package com.loja.e_commerce.configs;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Tarefas em segundo plano (@Scheduled), ex.: limpeza das imagens de produtos excluídos em lote
+@Configuration
+@EnableScheduling
+public class AgendamentoConfig {
+}
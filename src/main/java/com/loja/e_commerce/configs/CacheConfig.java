@@ -0,0 +1,71 @@
+package com.loja.e_commerce.configs;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+// Caches em memória (Caffeine), cada um com tamanho máximo e TTL próprios.
+// Hits/misses ficam em /actuator/metrics/cache.gets (recordStats)
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    // Total de produtos por combinação de filtros (modo de contagem ESTIMADA)
+    public static final String PRODUTOS_CONTAGEM = "produtos-contagem";
+
+    // Páginas da busca de produtos por filtros + paginação (TTL curto)
+    public static final String PRODUTOS_BUSCA = "produtos-busca";
+
+    // Lista completa de categorias (GET /categorias)
+    public static final String CATEGORIAS = "categorias";
+
+    // Categoria por id (GET /categorias/{id} e validação de categoria ativa nos produtos)
+    public static final String CATEGORIA = "categoria";
+
+    // Detalhe do produto por id (GET /produtos/{id})
+    public static final String PRODUTO = "produto";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${cache.produtos-contagem.tamanho-maximo:1000}") long contagemTamanho,
+            @Value("${cache.produtos-contagem.ttl:60s}") Duration contagemTtl,
+            @Value("${cache.produtos-busca.tamanho-maximo:5000}") long buscaTamanho,
+            @Value("${cache.produtos-busca.ttl:30s}") Duration buscaTtl,
+            @Value("${cache.categorias.tamanho-maximo:1000}") long categoriasTamanho,
+            @Value("${cache.categorias.ttl:10m}") Duration categoriasTtl,
+            @Value("${cache.produto.tamanho-maximo:10000}") long produtoTamanho,
+            @Value("${cache.produto.ttl:5m}") Duration produtoTtl) {
+
+        SimpleCacheManager manager = new SimpleCacheManager();
+        manager.setCaches(List.of(
+                caffeine(PRODUTOS_CONTAGEM, contagemTamanho, contagemTtl),
+                caffeine(PRODUTOS_BUSCA, buscaTamanho, buscaTtl),
+                caffeine(CATEGORIAS, 1, categoriasTtl),
+                caffeine(CATEGORIA, categoriasTamanho, categoriasTtl),
+                caffeine(PRODUTO, produtoTamanho, produtoTtl)
+        ));
+
+        return manager;
+    }
+
+    private Cache caffeine(String nome, long tamanhoMaximo, Duration ttl) {
+        CaffeineCache cache = new CaffeineCache(nome, Caffeine.newBuilder()
+                .maximumSize(tamanhoMaximo)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+
+        // Dentro de uma transação, put/evict só acontecem depois do commit
+        return new TransactionAwareCacheDecorator(cache);
+    }
+}
@@ -0,0 +1,77 @@
+package com.loja.e_commerce.configs;
+
+import com.loja.e_commerce.services.storage.LocalStorageBackend;
+import com.loja.e_commerce.services.storage.S3StorageBackend;
+import com.loja.e_commerce.services.storage.StorageBackend;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.checksums.RequestChecksumCalculation;
+import software.amazon.awssdk.core.checksums.ResponseChecksumValidation;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.net.URI;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+// storage.tipo=local (padrão): arquivos em storage.upload-dir; storage.tipo=s3: bucket S3 ou compatível
+@Configuration
+public class StorageConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "storage.tipo", havingValue = "local", matchIfMissing = true)
+    public StorageBackend localStorageBackend(@Value("${storage.upload-dir}") String uploadDir) {
+        return new LocalStorageBackend(Paths.get(uploadDir));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "storage.tipo", havingValue = "s3")
+    public StorageBackend s3StorageBackend(
+            @Value("${storage.s3.bucket}") String bucket,
+            @Value("${storage.s3.regiao:us-east-1}") String regiao,
+            @Value("${storage.s3.endpoint:}") String endpoint,
+            @Value("${storage.s3.access-key:}") String accessKey,
+            @Value("${storage.s3.secret-key:}") String secretKey,
+            @Value("${storage.s3.url-validade:1h}") Duration validadeUrl) {
+
+        Region region = Region.of(regiao);
+
+        // Sem chave na configuração: variáveis de ambiente, perfil ~/.aws ou role da máquina
+        AwsCredentialsProvider credenciais = accessKey.isBlank()
+                ? DefaultCredentialsProvider.builder().build()
+                : StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey));
+
+        // Endpoint próprio (MinIO e afins): bucket no caminho da URL em vez de subdomínio
+        S3Configuration s3Config = S3Configuration.builder()
+                .pathStyleAccessEnabled(!endpoint.isBlank())
+                .build();
+
+        var clientBuilder = S3Client.builder()
+                .region(region)
+                .credentialsProvider(credenciais)
+                .serviceConfiguration(s3Config)
+                // Checksums extras só quando a operação exige: nem todo serviço compatível aceita os novos
+                .requestChecksumCalculation(RequestChecksumCalculation.WHEN_REQUIRED)
+                .responseChecksumValidation(ResponseChecksumValidation.WHEN_REQUIRED);
+
+        var presignerBuilder = S3Presigner.builder()
+                .region(region)
+                .credentialsProvider(credenciais)
+                .serviceConfiguration(s3Config);
+
+        if (!endpoint.isBlank()) {
+            clientBuilder.endpointOverride(URI.create(endpoint));
+            presignerBuilder.endpointOverride(URI.create(endpoint));
+        }
+
+        return new S3StorageBackend(clientBuilder.build(), presignerBuilder.build(), bucket, validadeUrl);
+    }
+}
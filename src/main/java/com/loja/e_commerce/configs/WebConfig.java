@@ -0,0 +1,22 @@
+package com.loja.e_commerce.configs;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+@Configuration
+public class WebConfig {
+
+    // ETag forte (hash do corpo) nas leituras do catálogo: com If-None-Match igual responde 304 sem corpo
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> etagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registro =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+
+        registro.addUrlPatterns("/produtos", "/produtos/*", "/categorias", "/categorias/*");
+        registro.setName("etagFilter");
+
+        return registro;
+    }
+}
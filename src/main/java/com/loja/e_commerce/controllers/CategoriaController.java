@@ -1,24 +1,45 @@
 package com.loja.e_commerce.controllers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.loja.e_commerce.docs.CategoriaDoc;
 import com.loja.e_commerce.dtos.categoria.CategoriaRequestDTO;
 import com.loja.e_commerce.dtos.categoria.CategoriaResponseDTO;
 import com.loja.e_commerce.services.CategoriaService;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 
 @RestController
 @RequestMapping("/categorias")
 public class CategoriaController implements CategoriaDoc {
 
+    private static final MediaType NDJSON = new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+
     private final CategoriaService service;
+    private final ObjectMapper objectMapper;
+
+    // Navegador/CDN reaproveita a resposta por max-age e depois revalida pelo ETag
+    private final CacheControl cacheControl;
 
-    public CategoriaController(CategoriaService service) {
+    public CategoriaController(
+            CategoriaService service,
+            ObjectMapper objectMapper,
+            @Value("${http.cache.categorias.max-age:5m}") Duration maxAge) {
         this.service = service;
+        this.objectMapper = objectMapper;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
     }
 
     @PostMapping
@@ -38,12 +59,32 @@ public class CategoriaController implements CategoriaDoc {
     @GetMapping
     @Override
     public ResponseEntity<List<CategoriaResponseDTO>> buscar() {
-        return ResponseEntity.ok(service.buscar());
+        return ResponseEntity.ok().cacheControl(cacheControl).body(service.buscar());
+    }
+
+    // Mesma rota, escolhida pelo Accept: application/x-ndjson (lista já vem do cache, sem ir ao banco)
+    @GetMapping(produces = "application/x-ndjson")
+    @Override
+    public ResponseEntity<StreamingResponseBody> transmitir() {
+        List<CategoriaResponseDTO> categorias = service.buscar();
+
+        StreamingResponseBody corpo = saida -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+
+            for (CategoriaResponseDTO categoria : categorias) {
+                writer.write(objectMapper.writeValueAsString(categoria));
+                writer.write('\n');
+            }
+
+            writer.flush();
+        };
+
+        return ResponseEntity.ok().cacheControl(cacheControl).contentType(NDJSON).body(corpo);
     }
 
     @GetMapping("/{id}")
     @Override
     public ResponseEntity<CategoriaResponseDTO> buscarPorId(@PathVariable Long id) {
-        return ResponseEntity.ok(service.buscarPorId(id));
+        return ResponseEntity.ok().cacheControl(cacheControl).body(service.buscarPorId(id));
     }
 }
\ No newline at end of file
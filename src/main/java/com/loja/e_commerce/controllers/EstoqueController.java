@@ -0,0 +1,54 @@
+package com.loja.e_commerce.controllers;
+
+import com.loja.e_commerce.docs.EstoqueDoc;
+import com.loja.e_commerce.dtos.estoque.ItemReservaDTO;
+import com.loja.e_commerce.dtos.estoque.QuantidadeReservaDTO;
+import com.loja.e_commerce.dtos.estoque.ReservaRequestDTO;
+import com.loja.e_commerce.dtos.estoque.ReservaResponseDTO;
+import com.loja.e_commerce.services.EstoqueService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/produtos")
+public class EstoqueController implements EstoqueDoc {
+
+    private final EstoqueService service;
+
+    public EstoqueController(EstoqueService service) {
+        this.service = service;
+    }
+
+    @PostMapping("/{id}/estoque/reservas")
+    @Override
+    public ResponseEntity<ReservaResponseDTO> reservar(
+            @PathVariable Long id,
+            @RequestBody @Valid QuantidadeReservaDTO dto) {
+
+        ItemReservaDTO item = new ItemReservaDTO(id, dto.getQuantidade());
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(service.reservar(List.of(item)));
+    }
+
+    @PostMapping("/estoque/reservas")
+    @Override
+    public ResponseEntity<ReservaResponseDTO> reservarItens(@RequestBody @Valid ReservaRequestDTO dto) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(service.reservar(dto.getItens()));
+    }
+
+    @PostMapping("/estoque/reservas/{reservaId}/confirmacao")
+    @Override
+    public ResponseEntity<ReservaResponseDTO> confirmar(@PathVariable Long reservaId) {
+        return ResponseEntity.ok(service.confirmar(reservaId));
+    }
+
+    @DeleteMapping("/estoque/reservas/{reservaId}")
+    @Override
+    public ResponseEntity<ReservaResponseDTO> liberar(@PathVariable Long reservaId) {
+        return ResponseEntity.ok(service.liberar(reservaId));
+    }
+}
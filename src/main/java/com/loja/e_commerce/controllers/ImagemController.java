@@ -0,0 +1,220 @@
+package com.loja.e_commerce.controllers;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.loja.e_commerce.docs.ImagemDoc;
+import com.loja.e_commerce.exceptions.ResourceNotFoundException;
+import com.loja.e_commerce.services.ImagemDerivadaService;
+import com.loja.e_commerce.services.storage.StorageBackend;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+@RestController
+@RequestMapping("/imagens")
+public class ImagemController implements ImagemDoc {
+
+    // Só nomes gerados pelo upload (SHA-256 do conteúdo + extensão, ou UUID nas imagens antigas; com ou sem tamanho): nada de "../" nem subpastas
+    private static final Pattern NOME_VALIDO = Pattern.compile("^[\\w-]+\\.(?i:jpe?g|png)$");
+
+    // Atributos do Tomcat para enviar o arquivo com sendfile (do disco direto para o socket, sem passar pela heap)
+    static final String SENDFILE_SUPORTE = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_ARQUIVO = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_INICIO = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_FIM = "org.apache.tomcat.sendfile.end";
+
+    private final ImagemDerivadaService derivadas;
+    private final StorageBackend storage;
+
+    // O nome do arquivo é o hash do conteúdo: o conteúdo de uma URL nunca muda
+    private final CacheControl cacheControl;
+
+    // Redirecionamento para a URL assinada: guardado enquanto a mesma URL continua sendo devolvida
+    private final CacheControl cacheControlRedirecionamento;
+
+    // Miniaturas já conferidas no bucket: só somem junto com o original, quando nenhum produto usa mais a imagem
+    private final Cache<String, Boolean> miniaturasConferidas;
+
+    public ImagemController(
+            ImagemDerivadaService derivadas,
+            StorageBackend storage,
+            @Value("${http.cache.imagens.max-age:365d}") Duration maxAge,
+            @Value("${storage.s3.url-validade:1h}") Duration validadeUrl) {
+
+        this.derivadas = derivadas;
+        this.storage = storage;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic().immutable();
+        this.cacheControlRedirecionamento = CacheControl.maxAge(validadeUrl.dividedBy(2)).cachePrivate();
+        this.miniaturasConferidas = Caffeine.newBuilder()
+                .expireAfterWrite(validadeUrl.dividedBy(2))
+                .maximumSize(10_000)
+                .build();
+    }
+
+    @GetMapping("/{nome}")
+    @Override
+    public void baixar(@PathVariable String nome, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+
+        if (!NOME_VALIDO.matcher(nome).matches()) {
+            throw new ResourceNotFoundException("Imagem não encontrada");
+        }
+
+        // Storage remoto: o cliente baixa direto do bucket, os bytes não passam pela API
+        Optional<URI> urlDireta = storage.urlDireta(nome);
+
+        // No redirecionamento o original não é conferido (seria um HEAD no bucket a cada acesso; se não existir,
+        // o próprio bucket responde 404). Miniaturas sim, porque podem precisar ser geradas, mas uma vez só
+        boolean conferir = urlDireta.isEmpty()
+                || (derivadas.original(nome).isPresent() && miniaturasConferidas.getIfPresent(nome) == null);
+
+        if (conferir && !derivadas.garantir(nome)) {
+            throw new ResourceNotFoundException("Imagem não encontrada");
+        }
+
+        if (urlDireta.isPresent()) {
+            if (conferir) {
+                miniaturasConferidas.put(nome, Boolean.TRUE);
+            }
+
+            response.setStatus(HttpStatus.FOUND.value());
+            response.setHeader(HttpHeaders.LOCATION, urlDireta.get().toString());
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControlRedirecionamento.getHeaderValue());
+            return;
+        }
+
+        Path arquivo = storage.caminhoLocal(nome)
+                .orElseThrow(() -> new ResourceNotFoundException("Imagem não encontrada"));
+
+        long tamanho = Files.size(arquivo);
+        long modificado = Files.getLastModifiedTime(arquivo).toMillis();
+        String etag = "\"" + Long.toHexString(tamanho) + "-" + Long.toHexString(modificado) + "\"";
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        // Responde 304 (If-None-Match / If-Modified-Since) e escreve ETag e Last-Modified
+        if (new ServletWebRequest(request, response).checkNotModified(etag, modificado)) {
+            return;
+        }
+
+        long inicio = 0;
+        long fim = tamanho - 1;
+
+        HttpRange intervalo = intervalo(request, etag, modificado);
+
+        if (intervalo != null) {
+            inicio = intervalo.getRangeStart(tamanho);
+            fim = intervalo.getRangeEnd(tamanho);
+
+            // Começa depois do fim do arquivo
+            if (inicio >= tamanho || inicio > fim) {
+                response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + tamanho);
+                return;
+            }
+
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + inicio + "-" + fim + "/" + tamanho);
+        }
+
+        long quantidade = fim - inicio + 1;
+
+        response.setContentType(MediaTypeFactory.getMediaType(nome).orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setContentLengthLong(quantidade);
+
+        if (HttpMethod.HEAD.matches(request.getMethod()) || quantidade == 0) {
+            return;
+        }
+
+        enviar(arquivo, inicio, quantidade, request, response);
+    }
+
+    // Um único intervalo; vários intervalos ou cabeçalho inválido => arquivo inteiro (permitido pela RFC 9110)
+    private HttpRange intervalo(HttpServletRequest request, String etag, long modificado) {
+        String range = request.getHeader(HttpHeaders.RANGE);
+
+        if (range == null || !ifRangeConfere(request.getHeader(HttpHeaders.IF_RANGE), etag, modificado)) {
+            return null;
+        }
+
+        try {
+            List<HttpRange> intervalos = HttpRange.parseRanges(range);
+            return intervalos.size() == 1 ? intervalos.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // If-Range: só continua de onde parou se o arquivo ainda é o mesmo
+    private boolean ifRangeConfere(String ifRange, String etag, long modificado) {
+        if (ifRange == null) {
+            return true;
+        }
+
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+
+        try {
+            HttpHeaders cabecalho = new HttpHeaders();
+            cabecalho.set(HttpHeaders.IF_RANGE, ifRange);
+            return cabecalho.getFirstDate(HttpHeaders.IF_RANGE) / 1000 == modificado / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private void enviar(Path arquivo, long inicio, long quantidade, HttpServletRequest request,
+                        HttpServletResponse response) throws IOException {
+
+        // Tomcat: o connector envia o trecho do arquivo depois que o controller retorna
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPORTE))) {
+            request.setAttribute(SENDFILE_ARQUIVO, arquivo.toRealPath().toString());
+            request.setAttribute(SENDFILE_INICIO, inicio);
+            request.setAttribute(SENDFILE_FIM, inicio + quantidade);
+            return;
+        }
+
+        // Sem sendfile: copia do FileChannel para a resposta em blocos, sem carregar o arquivo na memória
+        try (FileChannel canal = FileChannel.open(arquivo, StandardOpenOption.READ)) {
+            WritableByteChannel saida = Channels.newChannel(response.getOutputStream());
+            long enviados = 0;
+
+            while (enviados < quantidade) {
+                long transferidos = canal.transferTo(inicio + enviados, quantidade - enviados, saida);
+
+                if (transferidos <= 0) {
+                    break; // arquivo encurtou durante o envio
+                }
+
+                enviados += transferidos;
+            }
+        }
+    }
+}
@@ -1,27 +1,49 @@
 package com.loja.e_commerce.controllers;
 
 import com.loja.e_commerce.docs.ProdutoDoc;
+import com.loja.e_commerce.dtos.CursorPageResponseDTO;
 import com.loja.e_commerce.dtos.PageResponseDTO;
+import com.loja.e_commerce.dtos.produto.ModoContagem;
 import com.loja.e_commerce.dtos.produto.ProdutoFiltrosDTO;
 import com.loja.e_commerce.dtos.produto.ProdutoRequestDTO;
 import com.loja.e_commerce.dtos.produto.ProdutoResponseDTO;
+import com.loja.e_commerce.dtos.produto.ProdutosPorIdsResponseDTO;
+import com.loja.e_commerce.dtos.produto.UploadImagemResponseDTO;
+import com.loja.e_commerce.exceptions.BadRequestException;
+import com.loja.e_commerce.services.ImagemUploadService;
 import com.loja.e_commerce.services.ProdutoService;
+import io.swagger.v3.oas.annotations.Hidden;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
 
 @RestController
 @RequestMapping("/produtos")
 public class ProdutoController implements ProdutoDoc {
 
     private final ProdutoService service;
+    private final ImagemUploadService imagemUpload;
 
-    public ProdutoController(ProdutoService service) {
+    // Navegador/CDN reaproveita a resposta por max-age e depois revalida pelo ETag
+    private final CacheControl cacheControl;
+
+    public ProdutoController(
+            ProdutoService service,
+            ImagemUploadService imagemUpload,
+            @Value("${http.cache.produtos.max-age:60s}") Duration maxAge) {
         this.service = service;
+        this.imagemUpload = imagemUpload;
+        this.cacheControl = CacheControl.maxAge(maxAge).cachePublic();
     }
 
     @PostMapping
@@ -40,11 +62,26 @@ public class ProdutoController implements ProdutoDoc {
         return ResponseEntity.ok(service.atualizar(id, dto));
     }
 
+    // 202: a imagem é processada em segundo plano; o Location aponta para o status do upload
     @PostMapping("/{idProduto}/imagem")
     @Override
-    public ResponseEntity<String> uploadImagem(@PathVariable Long idProduto, @RequestParam MultipartFile imagem) {
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(service.salvarImagem(idProduto, imagem));
+    public ResponseEntity<UploadImagemResponseDTO> uploadImagem(@PathVariable Long idProduto, @RequestParam MultipartFile imagem) {
+        UploadImagemResponseDTO upload = imagemUpload.iniciar(idProduto, imagem);
+
+        URI status = ServletUriComponentsBuilder.fromCurrentRequest()
+                .path("/uploads/{uploadId}")
+                .buildAndExpand(upload.id())
+                .toUri();
+
+        return ResponseEntity.accepted().location(status).body(upload);
+    }
+
+    @GetMapping("/{idProduto}/imagem/uploads/{uploadId}")
+    @Override
+    public ResponseEntity<UploadImagemResponseDTO> statusUploadImagem(@PathVariable Long idProduto, @PathVariable String uploadId) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noStore())
+                .body(imagemUpload.status(idProduto, uploadId));
     }
 
     @DeleteMapping("/{id}")
@@ -61,18 +98,53 @@ public class ProdutoController implements ProdutoDoc {
             @RequestParam(required = false) BigDecimal precoMax,
             @RequestParam(required = false) Long categoriaId,
             @RequestParam(defaultValue = "0") int pagina,
-            @RequestParam(defaultValue = "10") int tamanho
+            @RequestParam(defaultValue = "10") int tamanho,
+            @RequestParam(defaultValue = "EXATA") ModoContagem contagem,
+            @RequestParam(defaultValue = "false") boolean relevancia
+    ) {
+        ProdutoFiltrosDTO dto = new ProdutoFiltrosDTO(
+                nome, precoMin, precoMax, categoriaId, pagina, tamanho, contagem, relevancia
+        );
+
+        return ResponseEntity.ok().cacheControl(cacheControl).body(service.buscar(dto));
+    }
+
+    // Mesma rota, escolhida quando o parâmetro "cursor" é enviado (vazio = primeira página)
+    @GetMapping(params = {"cursor", "!ids"})
+    @Override
+    public ResponseEntity<CursorPageResponseDTO<ProdutoResponseDTO>> buscarPorCursor(
+            @RequestParam(required = false) String nome,
+            @RequestParam(required = false) BigDecimal precoMin,
+            @RequestParam(required = false) BigDecimal precoMax,
+            @RequestParam(required = false) Long categoriaId,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int tamanho,
+            @RequestParam(defaultValue = "false") boolean relevancia
     ) {
         ProdutoFiltrosDTO dto = new ProdutoFiltrosDTO(
-                nome, precoMin, precoMax, categoriaId, pagina, tamanho
+                nome, precoMin, precoMax, categoriaId, null, tamanho, null, relevancia
         );
 
-        return ResponseEntity.ok(service.buscar(dto));
+        return ResponseEntity.ok().cacheControl(cacheControl).body(service.buscarPorCursor(dto, cursor));
+    }
+
+    // Mesma rota, escolhida quando o parâmetro "ids" é enviado: ?ids=1,2,3
+    @GetMapping(params = {"ids", "!cursor"})
+    @Override
+    public ResponseEntity<ProdutosPorIdsResponseDTO> buscarPorIds(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok().cacheControl(cacheControl).body(service.buscarPorIds(ids));
+    }
+
+    // "cursor" e "ids" juntos: 400 em vez de cair na listagem comum ignorando os dois
+    @Hidden
+    @GetMapping(params = {"cursor", "ids"})
+    public ResponseEntity<Void> cursorEIds() {
+        throw new BadRequestException("Use cursor ou ids, não os dois na mesma requisição");
     }
 
     @GetMapping("/{id}")
     @Override
     public ResponseEntity<ProdutoResponseDTO> buscarPorId(@PathVariable Long id) {
-        return ResponseEntity.ok(service.buscarPorId(id));
+        return ResponseEntity.ok().cacheControl(cacheControl).body(service.buscarPorId(id));
     }
 }
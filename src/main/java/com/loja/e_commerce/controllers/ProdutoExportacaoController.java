@@ -0,0 +1,100 @@
+package com.loja.e_commerce.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loja.e_commerce.docs.ProdutoExportacaoDoc;
+import com.loja.e_commerce.dtos.produto.FormatoExportacao;
+import com.loja.e_commerce.dtos.produto.ProdutoFiltrosDTO;
+import com.loja.e_commerce.dtos.produto.ProdutoResponseDTO;
+import com.loja.e_commerce.mappers.ProdutoCsvMapper;
+import com.loja.e_commerce.services.ProdutoService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+@RestController
+@RequestMapping("/produtos/export")
+public class ProdutoExportacaoController implements ProdutoExportacaoDoc {
+
+    private static final MediaType NDJSON = new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+    private static final MediaType CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
+    private final ProdutoService service;
+    private final ProdutoCsvMapper csvMapper;
+    private final ObjectMapper objectMapper;
+
+    public ProdutoExportacaoController(ProdutoService service, ProdutoCsvMapper csvMapper, ObjectMapper objectMapper) {
+        this.service = service;
+        this.csvMapper = csvMapper;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping
+    @Override
+    public ResponseEntity<StreamingResponseBody> exportar(
+            @RequestParam(required = false) String nome,
+            @RequestParam(required = false) BigDecimal precoMin,
+            @RequestParam(required = false) BigDecimal precoMax,
+            @RequestParam(required = false) Long categoriaId,
+            @RequestParam(defaultValue = "NDJSON") FormatoExportacao formato,
+            HttpServletRequest request
+    ) {
+        ProdutoFiltrosDTO dto = new ProdutoFiltrosDTO(
+                nome, precoMin, precoMax, categoriaId, null, null, null, false
+        );
+
+        // Validado antes de começar a resposta: depois do primeiro byte não dá mais para devolver 400
+        service.validarExportacao(dto);
+
+        // Corpo enviado aos poucos: o filtro de ETag não pode guardar tudo em memória para calcular o hash
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+
+        StreamingResponseBody corpo = saida -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+
+            service.exportar(dto, escritor(formato, writer));
+
+            writer.flush();
+        };
+
+        String arquivo = "produtos." + formato.name().toLowerCase();
+
+        return ResponseEntity.ok()
+                .contentType(formato == FormatoExportacao.CSV ? CSV : NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(arquivo).build().toString())
+                .body(corpo);
+    }
+
+    private Consumer<ProdutoResponseDTO> escritor(FormatoExportacao formato, Writer writer) {
+        if (formato == FormatoExportacao.CSV) {
+            csvMapper.escreverCabecalho(writer);
+            return produto -> csvMapper.escrever(writer, produto);
+        }
+
+        return produto -> {
+            try {
+                writer.write(objectMapper.writeValueAsString(produto));
+                writer.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException("Erro ao escrever a exportação", e);
+            }
+        };
+    }
+}
@@ -0,0 +1,49 @@
+package com.loja.e_commerce.controllers;
+
+import com.loja.e_commerce.docs.ProdutoImportacaoDoc;
+import com.loja.e_commerce.dtos.produto.ImportacaoResponseDTO;
+import com.loja.e_commerce.dtos.produto.ProdutoRequestDTO;
+import com.loja.e_commerce.mappers.ProdutoCsvMapper;
+import com.loja.e_commerce.services.ProdutoImportacaoService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+@RestController
+@RequestMapping("/produtos/importacao")
+public class ProdutoImportacaoController implements ProdutoImportacaoDoc {
+
+    private final ProdutoImportacaoService service;
+    private final ProdutoCsvMapper csvMapper;
+
+    public ProdutoImportacaoController(ProdutoImportacaoService service, ProdutoCsvMapper csvMapper) {
+        this.service = service;
+        this.csvMapper = csvMapper;
+    }
+
+    // Sem @Valid: cada linha é validada no service e os erros voltam no relatório
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Override
+    public ResponseEntity<ImportacaoResponseDTO> importarJson(@RequestBody List<ProdutoRequestDTO> produtos) {
+        return ResponseEntity.ok(service.importar(produtos));
+    }
+
+    // Corpo lido direto do request, linha a linha
+    @PostMapping(consumes = "text/csv")
+    @Override
+    public ResponseEntity<ImportacaoResponseDTO> importarCsv(InputStream csv) throws IOException {
+        try (BufferedReader leitor = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8))) {
+            return ResponseEntity.ok(service.importar(csvMapper.ler(leitor)));
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.loja.e_commerce.controllers;
+
+import com.loja.e_commerce.docs.ProdutoLoteDoc;
+import com.loja.e_commerce.dtos.produto.AtualizacaoLoteRequestDTO;
+import com.loja.e_commerce.dtos.produto.OperacaoLoteResponseDTO;
+import com.loja.e_commerce.dtos.produto.ProdutoFiltrosDTO;
+import com.loja.e_commerce.services.ProdutoLoteService;
+import jakarta.validation.Valid;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+
+@RestController
+@RequestMapping("/produtos/lote")
+public class ProdutoLoteController implements ProdutoLoteDoc {
+
+    private final ProdutoLoteService service;
+
+    public ProdutoLoteController(ProdutoLoteService service) {
+        this.service = service;
+    }
+
+    @PatchMapping
+    @Override
+    public ResponseEntity<OperacaoLoteResponseDTO> atualizar(@RequestBody @Valid AtualizacaoLoteRequestDTO dto) {
+        return ResponseEntity.ok(service.atualizar(dto));
+    }
+
+    @DeleteMapping
+    @Override
+    public ResponseEntity<OperacaoLoteResponseDTO> deletar(
+            @RequestParam(required = false) String nome,
+            @RequestParam(required = false) BigDecimal precoMin,
+            @RequestParam(required = false) BigDecimal precoMax,
+            @RequestParam(required = false) Long categoriaId
+    ) {
+        ProdutoFiltrosDTO dto = new ProdutoFiltrosDTO(
+                nome, precoMin, precoMax, categoriaId, null, null, null, false
+        );
+
+        return ResponseEntity.ok(service.deletar(dto));
+    }
+}
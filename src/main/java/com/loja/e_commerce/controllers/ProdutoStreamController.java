@@ -0,0 +1,80 @@
+package com.loja.e_commerce.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loja.e_commerce.docs.ProdutoStreamDoc;
+import com.loja.e_commerce.dtos.produto.ProdutoFiltrosDTO;
+import com.loja.e_commerce.dtos.produto.ProdutoResponseDTO;
+import com.loja.e_commerce.services.ProdutoStreamService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+// Mesma rota de GET /produtos, escolhida pelo Accept: application/x-ndjson
+@RestController
+@RequestMapping("/produtos")
+public class ProdutoStreamController implements ProdutoStreamDoc {
+
+    static final String NDJSON_VALUE = "application/x-ndjson";
+
+    private static final MediaType NDJSON = new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+
+    private final ProdutoStreamService service;
+    private final ObjectMapper objectMapper;
+
+    public ProdutoStreamController(ProdutoStreamService service, ObjectMapper objectMapper) {
+        this.service = service;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping(produces = NDJSON_VALUE)
+    @Override
+    public ResponseEntity<StreamingResponseBody> transmitir(
+            @RequestParam(required = false) String nome,
+            @RequestParam(required = false) BigDecimal precoMin,
+            @RequestParam(required = false) BigDecimal precoMax,
+            @RequestParam(required = false) Long categoriaId,
+            HttpServletRequest request
+    ) {
+        ProdutoFiltrosDTO dto = new ProdutoFiltrosDTO(
+                nome, precoMin, precoMax, categoriaId, null, null, null, false
+        );
+
+        ProdutoStreamService.Transmissao transmissao = service.abrir(dto);
+
+        // Corpo enviado aos poucos: o filtro de ETag não pode guardar tudo em memória para calcular o hash
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+
+        StreamingResponseBody corpo = saida -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(saida, StandardCharsets.UTF_8));
+
+            // Cada lote sai para o cliente assim que é lido
+            transmissao.enviar(lote -> {
+                try {
+                    for (ProdutoResponseDTO produto : lote) {
+                        writer.write(objectMapper.writeValueAsString(produto));
+                        writer.write('\n');
+                    }
+                    writer.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Erro ao escrever os produtos", e);
+                }
+            });
+        };
+
+        return ResponseEntity.ok().contentType(NDJSON).body(corpo);
+    }
+}
@@ -8,6 +8,7 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -63,6 +64,18 @@ public interface CategoriaDoc {
 
     // --------------------------------------------------
 
+    @Operation(
+            summary = "Listar categorias em fluxo (NDJSON)",
+            description = "Mesma rota de GET /categorias, escolhida com `Accept: application/x-ndjson`: "
+                    + "uma categoria por linha"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Categorias, uma por linha"),
+    })
+    ResponseEntity<StreamingResponseBody> transmitir();
+
+    // --------------------------------------------------
+
     @Operation(
             summary = "Buscar categoria por ID",
             description = "Retorna os dados de uma categoria específica"
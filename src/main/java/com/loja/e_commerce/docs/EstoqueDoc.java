@@ -0,0 +1,78 @@
+package com.loja.e_commerce.docs;
+
+import com.loja.e_commerce.dtos.estoque.QuantidadeReservaDTO;
+import com.loja.e_commerce.dtos.estoque.ReservaRequestDTO;
+import com.loja.e_commerce.dtos.estoque.ReservaResponseDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.ResponseEntity;
+
+public interface EstoqueDoc {
+
+    @Operation(
+            summary = "Reservar estoque de um produto",
+            description = "Retira a quantidade do estoque do produto e cria uma reserva pendente"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "Estoque reservado com sucesso",
+                    content = @Content(
+                            schema = @Schema(implementation = ReservaResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos"),
+            @ApiResponse(responseCode = "404", description = "Produto não encontrado"),
+            @ApiResponse(responseCode = "409", description = "Estoque insuficiente ou produto inativo")
+    })
+    ResponseEntity<ReservaResponseDTO> reservar(Long id, QuantidadeReservaDTO dto);
+
+    // --------------------------------------------------
+
+    @Operation(
+            summary = "Reservar estoque de vários produtos",
+            description = "Reserva todos os itens ou nenhum: se um produto não tiver estoque, nada é reservado"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "201",
+                    description = "Estoque reservado com sucesso",
+                    content = @Content(
+                            schema = @Schema(implementation = ReservaResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Dados inválidos"),
+            @ApiResponse(responseCode = "404", description = "Produto não encontrado"),
+            @ApiResponse(responseCode = "409", description = "Estoque insuficiente ou produto inativo")
+    })
+    ResponseEntity<ReservaResponseDTO> reservarItens(ReservaRequestDTO dto);
+
+    // --------------------------------------------------
+
+    @Operation(
+            summary = "Confirmar reserva",
+            description = "Conclui a venda: o estoque reservado não volta mais para o produto"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Reserva confirmada"),
+            @ApiResponse(responseCode = "404", description = "Reserva não encontrada"),
+            @ApiResponse(responseCode = "409", description = "Reserva já foi confirmada ou liberada")
+    })
+    ResponseEntity<ReservaResponseDTO> confirmar(Long reservaId);
+
+    // --------------------------------------------------
+
+    @Operation(
+            summary = "Liberar reserva",
+            description = "Cancela a reserva e devolve as quantidades ao estoque dos produtos"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Reserva liberada"),
+            @ApiResponse(responseCode = "404", description = "Reserva não encontrada"),
+            @ApiResponse(responseCode = "409", description = "Reserva já foi confirmada ou liberada")
+    })
+    ResponseEntity<ReservaResponseDTO> liberar(Long reservaId);
+}
@@ -0,0 +1,38 @@
+package com.loja.e_commerce.docs;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+
+public interface ImagemDoc {
+
+    @Operation(
+            summary = "Baixar imagem",
+            description = "Devolve a imagem original de um produto ou uma miniatura ({nome}-{tamanho}.{ext}). Com storage S3, redireciona (302) para uma URL assinada do bucket. "
+                    + "Miniaturas de tamanhos configurados que ainda não existem são geradas no primeiro acesso. "
+                    + "Aceita Range (um intervalo), If-Range, If-None-Match e If-Modified-Since"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Conteúdo da imagem"),
+            @ApiResponse(responseCode = "206", description = "Trecho pedido no Range"),
+            @ApiResponse(responseCode = "302", description = "Storage S3: download direto pela URL assinada (Location)"),
+            @ApiResponse(responseCode = "304", description = "Imagem não mudou (ETag/Last-Modified)"),
+            @ApiResponse(responseCode = "404", description = "Imagem não encontrada"),
+            @ApiResponse(responseCode = "416", description = "Range fora do tamanho do arquivo")
+    })
+    void baixar(
+            @Parameter(description = "Nome do arquivo, como nas URLs de imagens do produto", example = "3f2a9c1e-150.png")
+            String nome,
+
+            @Parameter(hidden = true)
+            HttpServletRequest request,
+
+            @Parameter(hidden = true)
+            HttpServletResponse response
+    ) throws IOException;
+}
@@ -1,8 +1,12 @@
 package com.loja.e_commerce.docs;
 
+import com.loja.e_commerce.dtos.CursorPageResponseDTO;
 import com.loja.e_commerce.dtos.PageResponseDTO;
+import com.loja.e_commerce.dtos.produto.ModoContagem;
 import com.loja.e_commerce.dtos.produto.ProdutoRequestDTO;
 import com.loja.e_commerce.dtos.produto.ProdutoResponseDTO;
+import com.loja.e_commerce.dtos.produto.ProdutosPorIdsResponseDTO;
+import com.loja.e_commerce.dtos.produto.UploadImagemResponseDTO;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,6 +17,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 public interface ProdutoDoc {
 
@@ -38,7 +43,8 @@ public interface ProdutoDoc {
 
     @Operation(
             summary = "Atualizar um produto",
-            description = "Atualiza os dados de um produto existente pelo ID"
+            description = "Atualiza os dados de um produto existente pelo ID. "
+                    + "Envie a `versao` recebida na leitura para não sobrescrever alterações feitas por outra requisição"
     )
     @ApiResponses({
             @ApiResponse(
@@ -50,7 +56,7 @@ public interface ProdutoDoc {
             ),
             @ApiResponse(responseCode = "400", description = "Dados inválidos ou regra de negócio violada"),
             @ApiResponse(responseCode = "404", description = "Produto ou categoria não encontrada"),
-            @ApiResponse(responseCode = "409", description = "Conflito de dados (ex: duplicidade)"),
+            @ApiResponse(responseCode = "409", description = "Conflito de dados (ex: duplicidade ou versão desatualizada)"),
     })
     ResponseEntity<ProdutoResponseDTO> atualizar(Long id, ProdutoRequestDTO dto);
 
@@ -58,18 +64,40 @@ public interface ProdutoDoc {
 
     @Operation(
             summary = "Salvar imagem de um produto",
-            description = "Faz upload ou substitui a imagem de um produto existente (JPG ou PNG, máximo 2MB)"
+            description = "Recebe a imagem de um produto existente (JPG ou PNG, máximo 2MB) e processa em segundo plano. "
+                    + "A resposta traz o id do upload e o Location para acompanhar o status"
     )
     @ApiResponses({
             @ApiResponse(
-                    responseCode = "200",
-                    description = "Imagem salva com sucesso"
+                    responseCode = "202",
+                    description = "Upload aceito, aguardando processamento",
+                    content = @Content(
+                            schema = @Schema(implementation = UploadImagemResponseDTO.class)
+                    )
             ),
             @ApiResponse(responseCode = "400", description = "Arquivo inválido ou regra de negócios violada"),
-            @ApiResponse(responseCode = "404", description = "Produto encontrado"),
-            @ApiResponse(responseCode = "500", description = "Erro interno ao salvar")
+            @ApiResponse(responseCode = "404", description = "Produto não encontrado"),
+            @ApiResponse(responseCode = "503", description = "Fila de uploads cheia, tente novamente (Retry-After)")
     })
-    ResponseEntity<String> uploadImagem(Long idProduto, MultipartFile imagem);
+    ResponseEntity<UploadImagemResponseDTO> uploadImagem(Long idProduto, MultipartFile imagem);
+
+    // --------------------------------------------------
+
+    @Operation(
+            summary = "Status do upload de imagem",
+            description = "PENDENTE, PROCESSANDO, CONCLUIDO (com a imagemUrl) ou ERRO (com a mensagem)"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Status atual do upload",
+                    content = @Content(
+                            schema = @Schema(implementation = UploadImagemResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "404", description = "Upload não encontrado ou expirado")
+    })
+    ResponseEntity<UploadImagemResponseDTO> statusUploadImagem(Long idProduto, String uploadId);
 
     // --------------------------------------------------
 
@@ -111,7 +139,72 @@ public interface ProdutoDoc {
             int pagina,
 
             @Parameter(description = "Quantidade de produto por página", example = "10")
-            int tamanho
+            int tamanho,
+
+            @Parameter(description = "Cálculo do total: EXATA (COUNT a cada chamada), " +
+                    "NENHUMA (sem total, só hasNext) ou ESTIMADA (total em cache por alguns segundos)",
+                    example = "EXATA")
+            ModoContagem contagem,
+
+            @Parameter(description = "Busca o nome ignorando acentos e erros de digitação, " +
+                    "ordenando pelos mais relevantes", example = "false")
+            boolean relevancia
+    );
+
+    // --------------------------------------------------
+
+    @Operation(
+            summary = "Listar produtos por cursor",
+            description = "Lista produtos com os mesmos filtros, paginando por cursor (keyset) em vez de número de página. " +
+                    "Envie cursor vazio na primeira chamada e depois o nextCursor retornado"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Página de produtos e cursor da próxima página"),
+            @ApiResponse(responseCode = "400", description = "Cursor inválido ou regra de negócio violada")
+    })
+    ResponseEntity<CursorPageResponseDTO<ProdutoResponseDTO>> buscarPorCursor(
+            @Parameter(description = "Nome parcial do produto")
+            String nome,
+
+            @Parameter(description = "Preço mínimo")
+            BigDecimal precoMin,
+
+            @Parameter(description = "Preço máximo")
+            BigDecimal precoMax,
+
+            @Parameter(description = "ID da categoria")
+            Long categoriaId,
+
+            @Parameter(description = "Cursor retornado na página anterior (vazio = primeira página)", example = "")
+            String cursor,
+
+            @Parameter(description = "Quantidade de produto por página", example = "10")
+            int tamanho,
+
+            @Parameter(description = "Não suportado aqui: o cursor segue a ordem de id (true responde 400)", example = "false")
+            boolean relevancia
+    );
+
+    // --------------------------------------------------
+
+    @Operation(
+            summary = "Buscar vários produtos por ID",
+            description = "Retorna os produtos na ordem dos ids informados (até 200) e a lista de ids não encontrados. "
+                    + "Usa o mesmo cache da busca por ID; os que não estão em cache saem em uma única consulta"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Produtos encontrados e ids inexistentes",
+                    content = @Content(
+                            schema = @Schema(implementation = ProdutosPorIdsResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Nenhum id ou mais ids que o permitido")
+    })
+    ResponseEntity<ProdutosPorIdsResponseDTO> buscarPorIds(
+            @Parameter(description = "IDs separados por vírgula", example = "1,2,3")
+            List<Long> ids
     );
 
     // --------------------------------------------------
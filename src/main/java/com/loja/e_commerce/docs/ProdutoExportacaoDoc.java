@@ -0,0 +1,44 @@
+package com.loja.e_commerce.docs;
+
+import com.loja.e_commerce.dtos.produto.FormatoExportacao;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.math.BigDecimal;
+
+public interface ProdutoExportacaoDoc {
+
+    @Operation(
+            summary = "Exportar produtos",
+            description = "Gera o catálogo inteiro (com os mesmos filtros da listagem) em NDJSON ou CSV, "
+                    + "enviado aos poucos enquanto é lido do banco. Substitui percorrer GET /produtos até a última página"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Arquivo com os produtos ordenados por id"),
+            @ApiResponse(responseCode = "400", description = "Regra de negócio violada")
+    })
+    ResponseEntity<StreamingResponseBody> exportar(
+            @Parameter(description = "Nome parcial do produto")
+            String nome,
+
+            @Parameter(description = "Preço mínimo")
+            BigDecimal precoMin,
+
+            @Parameter(description = "Preço máximo")
+            BigDecimal precoMax,
+
+            @Parameter(description = "ID da categoria")
+            Long categoriaId,
+
+            @Parameter(description = "Formato do arquivo: NDJSON (um JSON por linha) ou CSV", example = "NDJSON")
+            FormatoExportacao formato,
+
+            @Parameter(hidden = true)
+            HttpServletRequest request
+    );
+}
@@ -0,0 +1,53 @@
+package com.loja.e_commerce.docs;
+
+import com.loja.e_commerce.dtos.produto.ImportacaoResponseDTO;
+import com.loja.e_commerce.dtos.produto.ProdutoRequestDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.ResponseEntity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+public interface ProdutoImportacaoDoc {
+
+    @Operation(
+            summary = "Importar produtos (JSON)",
+            description = "Recebe um array de produtos no mesmo formato do cadastro. "
+                    + "As linhas válidas são gravadas e as inválidas voltam no relatório de erros"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Relatório da importação",
+                    content = @Content(
+                            schema = @Schema(implementation = ImportacaoResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Corpo da requisição inválido")
+    })
+    ResponseEntity<ImportacaoResponseDTO> importarJson(List<ProdutoRequestDTO> produtos);
+
+    // --------------------------------------------------
+
+    @Operation(
+            summary = "Importar produtos (CSV)",
+            description = "Recebe um CSV com cabeçalho nome,descricao,preco,estoque,ativo,categoriaId. "
+                    + "O arquivo é lido aos poucos e gravado em lotes"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Relatório da importação",
+                    content = @Content(
+                            schema = @Schema(implementation = ImportacaoResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "CSV vazio ou sem as colunas obrigatórias")
+    })
+    ResponseEntity<ImportacaoResponseDTO> importarCsv(InputStream csv) throws IOException;
+}
@@ -0,0 +1,64 @@
+package com.loja.e_commerce.docs;
+
+import com.loja.e_commerce.dtos.produto.AtualizacaoLoteRequestDTO;
+import com.loja.e_commerce.dtos.produto.OperacaoLoteResponseDTO;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+
+public interface ProdutoLoteDoc {
+
+    @Operation(
+            summary = "Atualizar produtos em lote",
+            description = "Ativa/desativa e/ou reajusta o preço (em %) de todos os produtos do filtro com um único UPDATE. "
+                    + "Pelo menos um filtro é obrigatório"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Quantidade de produtos alterados",
+                    content = @Content(
+                            schema = @Schema(implementation = OperacaoLoteResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Sem filtro, sem alteração ou dados inválidos")
+    })
+    ResponseEntity<OperacaoLoteResponseDTO> atualizar(AtualizacaoLoteRequestDTO dto);
+
+    // --------------------------------------------------
+
+    @Operation(
+            summary = "Excluir produtos em lote",
+            description = "Exclui todos os produtos do filtro com um único DELETE. "
+                    + "As imagens são removidas depois, em segundo plano. Pelo menos um filtro é obrigatório"
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Quantidade de produtos excluídos",
+                    content = @Content(
+                            schema = @Schema(implementation = OperacaoLoteResponseDTO.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "400", description = "Sem filtro ou regra de negócio violada")
+    })
+    ResponseEntity<OperacaoLoteResponseDTO> deletar(
+            @Parameter(description = "Nome parcial do produto")
+            String nome,
+
+            @Parameter(description = "Preço mínimo")
+            BigDecimal precoMin,
+
+            @Parameter(description = "Preço máximo")
+            BigDecimal precoMax,
+
+            @Parameter(description = "ID da categoria")
+            Long categoriaId
+    );
+}
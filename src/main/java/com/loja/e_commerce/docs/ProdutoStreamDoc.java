@@ -0,0 +1,41 @@
+package com.loja.e_commerce.docs;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.math.BigDecimal;
+
+public interface ProdutoStreamDoc {
+
+    @Operation(
+            summary = "Listar produtos em fluxo (NDJSON)",
+            description = "Mesma rota e mesmos filtros de GET /produtos, escolhida com `Accept: application/x-ndjson`. "
+                    + "Entrega todos os produtos ativos do filtro, um JSON (ProdutoResponseDTO) por linha, ordenados por id "
+                    + "e enviados em lotes à medida que são lidos. Nenhuma conexão com o banco fica presa entre os lotes"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Produtos, um por linha"),
+            @ApiResponse(responseCode = "400", description = "Regra de negócio violada")
+    })
+    ResponseEntity<StreamingResponseBody> transmitir(
+            @Parameter(description = "Nome parcial do produto")
+            String nome,
+
+            @Parameter(description = "Preço mínimo")
+            BigDecimal precoMin,
+
+            @Parameter(description = "Preço máximo")
+            BigDecimal precoMax,
+
+            @Parameter(description = "ID da categoria")
+            Long categoriaId,
+
+            @Parameter(hidden = true)
+            HttpServletRequest request
+    );
+}
@@ -0,0 +1,12 @@
+package com.loja.e_commerce.dtos;
+
+import java.util.List;
+
+// Página por cursor: não tem número de página nem total, só o cursor da próxima
+public record CursorPageResponseDTO<T>(
+        List<T> content,
+        int size,
+        String nextCursor,
+        boolean hasNext
+) {
+}
@@ -1,15 +1,22 @@
 package com.loja.e_commerce.dtos;
 
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 public record PageResponseDTO<T>(
         List<T> content,
         int page,
         int size,
-        long totalElements,
-        int totalPages
+        Long totalElements, // null quando a contagem foi pulada (modo NENHUMA)
+        Integer totalPages,
+        boolean hasNext,
+        boolean totalEstimado
 ) {
+    public PageResponseDTO(List<T> content, int page, int size, long totalElements, int totalPages) {
+        this(content, page, size, totalElements, totalPages, page + 1 < totalPages, false);
+    }
+
     public static<T> PageResponseDTO<T> toResponse(Page<T> pagina) {
         return new PageResponseDTO<>(
                 pagina.getContent(),
@@ -19,4 +26,33 @@ public record PageResponseDTO<T>(
                 pagina.getTotalPages()
         );
     };
-}
\ No newline at end of file
+
+    // Sem total: o cliente só sabe se existe próxima página
+    public static<T> PageResponseDTO<T> toResponse(Slice<T> fatia) {
+        return new PageResponseDTO<>(
+                fatia.getContent(),
+                fatia.getNumber(),
+                fatia.getSize(),
+                null,
+                null,
+                fatia.hasNext(),
+                false
+        );
+    }
+
+    public static<T> PageResponseDTO<T> toResponse(Slice<T> fatia, long totalEstimado) {
+        // O total em cache pode estar defasado: nunca menor do que o que já foi visto
+        long minimo = fatia.getPageable().getOffset() + fatia.getNumberOfElements() + (fatia.hasNext() ? 1 : 0);
+        long total = Math.max(totalEstimado, minimo);
+
+        return new PageResponseDTO<>(
+                fatia.getContent(),
+                fatia.getNumber(),
+                fatia.getSize(),
+                total,
+                (int) Math.ceil((double) total / fatia.getSize()),
+                fatia.hasNext(),
+                true
+        );
+    }
+}
@@ -0,0 +1,22 @@
+package com.loja.e_commerce.dtos.estoque;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemReservaDTO {
+
+    @NotNull(message = "Produto é obrigatório")
+    private Long produtoId;
+
+    @NotNull(message = "Quantidade é obrigatória")
+    @Positive(message = "Quantidade deve ser maior que zero")
+    private Integer quantidade;
+}
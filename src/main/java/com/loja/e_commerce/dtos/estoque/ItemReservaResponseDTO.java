@@ -0,0 +1,7 @@
+package com.loja.e_commerce.dtos.estoque;
+
+public record ItemReservaResponseDTO(
+        Long produtoId,
+        Integer quantidade
+) {
+}
@@ -0,0 +1,20 @@
+package com.loja.e_commerce.dtos.estoque;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Reserva de um único produto (o id vem da rota)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuantidadeReservaDTO {
+
+    @NotNull(message = "Quantidade é obrigatória")
+    @Positive(message = "Quantidade deve ser maior que zero")
+    private Integer quantidade;
+}
@@ -0,0 +1,20 @@
+package com.loja.e_commerce.dtos.estoque;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservaRequestDTO {
+
+    @NotEmpty(message = "Informe ao menos um item")
+    private List<@Valid ItemReservaDTO> itens;
+}
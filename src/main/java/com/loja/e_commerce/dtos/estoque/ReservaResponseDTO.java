@@ -0,0 +1,14 @@
+package com.loja.e_commerce.dtos.estoque;
+
+import com.loja.e_commerce.models.StatusReserva;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record ReservaResponseDTO(
+        Long id,
+        StatusReserva status,
+        LocalDateTime criadaEm,
+        List<ItemReservaResponseDTO> itens
+) {
+}
@@ -0,0 +1,30 @@
+package com.loja.e_commerce.dtos.produto;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.math.BigDecimal;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AtualizacaoLoteRequestDTO {
+
+    // Mesmos filtros da listagem (nome, faixa de preço, categoria)
+    @NotNull(message = "Filtros são obrigatórios")
+    private ProdutoFiltrosDTO filtros;
+
+    // Ativa ou desativa todos os produtos do filtro
+    private Boolean ativo;
+
+    // Reajuste de preço em %: 10 aumenta 10%, -15 dá 15% de desconto
+    @DecimalMin(value = "-100", inclusive = false, message = "Percentual de preço deve ser maior que -100")
+    @DecimalMax(value = "1000", message = "Percentual de preço deve ser no máximo 1000")
+    private BigDecimal percentualPreco;
+}
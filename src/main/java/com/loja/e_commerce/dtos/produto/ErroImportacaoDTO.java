@@ -0,0 +1,8 @@
+package com.loja.e_commerce.dtos.produto;
+
+public record ErroImportacaoDTO(
+        int linha,
+        String nome,
+        String mensagem
+) {
+}
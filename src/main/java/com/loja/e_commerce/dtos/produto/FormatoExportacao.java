@@ -0,0 +1,11 @@
+package com.loja.e_commerce.dtos.produto;
+
+// Formato do arquivo gerado na exportação do catálogo
+public enum FormatoExportacao {
+
+    // Um JSON por linha (application/x-ndjson)
+    NDJSON,
+
+    // Cabeçalho + uma linha por produto (text/csv)
+    CSV
+}
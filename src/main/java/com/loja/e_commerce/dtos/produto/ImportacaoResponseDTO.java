@@ -0,0 +1,10 @@
+package com.loja.e_commerce.dtos.produto;
+
+import java.util.List;
+
+public record ImportacaoResponseDTO(
+        int totalLinhas,
+        int importados,
+        List<ErroImportacaoDTO> erros
+) {
+}
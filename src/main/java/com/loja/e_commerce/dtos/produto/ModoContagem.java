@@ -0,0 +1,14 @@
+package com.loja.e_commerce.dtos.produto;
+
+// Como o total de produtos é calculado na listagem paginada
+public enum ModoContagem {
+
+    // SELECT COUNT(*) a cada requisição
+    EXATA,
+
+    // Sem COUNT: só informa se existe próxima página (scroll infinito)
+    NENHUMA,
+
+    // COUNT reaproveitado por alguns segundos para a mesma combinação de filtros
+    ESTIMADA
+}
@@ -0,0 +1,6 @@
+package com.loja.e_commerce.dtos.produto;
+
+public record OperacaoLoteResponseDTO(
+        long afetados
+) {
+}
@@ -0,0 +1,8 @@
+package com.loja.e_commerce.dtos.produto;
+
+// Nome + categoria: o que identifica um produto duplicado
+public record ProdutoChaveDTO(
+        String nome,
+        Long categoriaId
+) {
+}
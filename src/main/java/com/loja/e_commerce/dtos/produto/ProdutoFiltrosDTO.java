@@ -19,4 +19,6 @@ public class ProdutoFiltrosDTO {
     private Long categoriaId;
     private Integer pagina;
     private Integer tamanho;
+    private ModoContagem contagem;
+    private Boolean relevancia;
 }
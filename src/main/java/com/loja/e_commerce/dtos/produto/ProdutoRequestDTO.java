@@ -35,4 +35,7 @@ public class ProdutoRequestDTO {
 
     @NotNull(message = "Categoria é obrigatória")
     private Long categoriaId;
+
+    // Versão lida pelo cliente (opcional): se o produto mudou desde então, a atualização é recusada
+    private Long versao;
 }
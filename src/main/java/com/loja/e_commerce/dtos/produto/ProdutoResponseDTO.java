@@ -1,6 +1,7 @@
 package com.loja.e_commerce.dtos.produto;
 
 import java.math.BigDecimal;
+import java.util.Map;
 
 public record ProdutoResponseDTO (
         Long id,
@@ -10,6 +11,18 @@ public record ProdutoResponseDTO (
         Integer estoque,
         Boolean ativo,
         String imagemUrl,
-        String categoria
+        String categoria,
+        Long versao,
+        // URLs da original e das miniaturas por tamanho ({"original": ..., "150": ...}); null sem imagem
+        Map<String, String> imagens
 ) {
+    // Usado pela projeção das consultas e pelo mapper: as URLs são preenchidas no service
+    public ProdutoResponseDTO(Long id, String nome, String descricao, BigDecimal preco, Integer estoque,
+                              Boolean ativo, String imagemUrl, String categoria, Long versao) {
+        this(id, nome, descricao, preco, estoque, ativo, imagemUrl, categoria, versao, null);
+    }
+
+    public ProdutoResponseDTO comImagens(Map<String, String> imagens) {
+        return new ProdutoResponseDTO(id, nome, descricao, preco, estoque, ativo, imagemUrl, categoria, versao, imagens);
+    }
 }
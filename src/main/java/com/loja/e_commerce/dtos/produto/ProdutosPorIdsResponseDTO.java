@@ -0,0 +1,10 @@
+package com.loja.e_commerce.dtos.produto;
+
+import java.util.List;
+
+// Produtos na ordem dos ids pedidos + ids que não existem
+public record ProdutosPorIdsResponseDTO(
+        List<ProdutoResponseDTO> produtos,
+        List<Long> naoEncontrados
+) {
+}
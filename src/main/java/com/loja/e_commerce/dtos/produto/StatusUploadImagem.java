@@ -0,0 +1,17 @@
+package com.loja.e_commerce.dtos.produto;
+
+// Etapas do upload assíncrono de imagem
+public enum StatusUploadImagem {
+
+    // Arquivo recebido, aguardando na fila
+    PENDENTE,
+
+    // Validando o conteúdo e gravando a imagem
+    PROCESSANDO,
+
+    // Imagem gravada e associada ao produto
+    CONCLUIDO,
+
+    // Falhou: o motivo está na mensagem
+    ERRO
+}
@@ -0,0 +1,13 @@
+package com.loja.e_commerce.dtos.produto;
+
+import java.time.LocalDateTime;
+
+public record UploadImagemResponseDTO(
+        String id,
+        Long produtoId,
+        StatusUploadImagem status,
+        String imagemUrl,
+        String mensagem,
+        LocalDateTime atualizadoEm
+) {
+}
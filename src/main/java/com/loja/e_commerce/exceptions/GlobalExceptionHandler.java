@@ -2,8 +2,12 @@ package com.loja.e_commerce.exceptions;
 
 import com.loja.e_commerce.dtos.ApiErrorDTO;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -59,6 +63,20 @@ public class GlobalExceptionHandler {
         );
     }
 
+    // Outra transação alterou o mesmo registro entre a leitura e o UPDATE (@Version)
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiErrorDTO> handleOptimisticLock(
+            OptimisticLockingFailureException ex,
+            HttpServletRequest request) {
+
+        return build(
+                HttpStatus.CONFLICT,
+                "Registro foi alterado por outra requisição, recarregue e tente novamente",
+                request.getRequestURI(),
+                null
+        );
+    }
+
     @ExceptionHandler(BadRequestException.class)
     public ResponseEntity<ApiErrorDTO> handleBadRequest(
             BadRequestException ex,
@@ -72,6 +90,25 @@ public class GlobalExceptionHandler {
         );
     }
 
+    // Fila de processamento cheia: o cliente deve tentar de novo em alguns segundos
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiErrorDTO> handleServiceUnavailable(
+            ServiceUnavailableException ex,
+            HttpServletRequest request) {
+
+        return buildIndisponivel(ex.getMessage(), request.getRequestURI());
+    }
+
+    // Nenhuma conexão livre no pool dentro do spring.datasource.hikari.connection-timeout (ou banco fora do ar).
+    // Com threads virtuais é aqui que a concorrência esbarra: responde 503 em vez de 500
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<ApiErrorDTO> handleSemConexao(
+            CannotCreateTransactionException ex,
+            HttpServletRequest request) {
+
+        return buildIndisponivel("Serviço sobrecarregado, tente novamente em instantes", request.getRequestURI());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiErrorDTO> handleGeneric(
             Exception ex,
@@ -100,7 +137,18 @@ public class GlobalExceptionHandler {
                 validation
         );
 
-        return ResponseEntity.status(status).body(error);
+        // JSON mesmo quando o cliente pediu outro formato (ex.: Accept: application/x-ndjson)
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(error);
+    }
+
+    // 503 com Retry-After: o cliente tenta de novo em alguns segundos em vez de desistir
+    private ResponseEntity<ApiErrorDTO> buildIndisponivel(String message, String path) {
+        ResponseEntity<ApiErrorDTO> resposta = build(HttpStatus.SERVICE_UNAVAILABLE, message, path, null);
+
+        return ResponseEntity.status(resposta.getStatusCode())
+                .headers(resposta.getHeaders())
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(resposta.getBody());
     }
 }
 
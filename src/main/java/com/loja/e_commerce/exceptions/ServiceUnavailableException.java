@@ -0,0 +1,7 @@
+package com.loja.e_commerce.exceptions;
+
+public class ServiceUnavailableException extends RuntimeException {
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
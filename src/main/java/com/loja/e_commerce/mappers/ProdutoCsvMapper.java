@@ -0,0 +1,219 @@
+package com.loja.e_commerce.mappers;
+
+import com.loja.e_commerce.dtos.produto.ProdutoRequestDTO;
+import com.loja.e_commerce.dtos.produto.ProdutoResponseDTO;
+import com.loja.e_commerce.exceptions.BadRequestException;
+import com.loja.e_commerce.services.LinhaImportacao;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Function;
+
+// Lê o CSV da importação linha a linha (sem carregar o arquivo inteiro em memória).
+// Cabeçalho obrigatório: nome,descricao,preco,estoque,ativo,categoriaId (em qualquer ordem).
+// Também escreve o CSV da exportação, um produto por vez
+@Component
+public class ProdutoCsvMapper {
+
+    private static final List<String> COLUNAS_OBRIGATORIAS = List.of("nome", "preco", "estoque", "categoriaId");
+
+    private static final String CABECALHO_EXPORTACAO =
+            "id,nome,descricao,preco,estoque,ativo,imagemUrl,categoria,versao";
+
+    public Iterator<LinhaImportacao> ler(BufferedReader leitor) {
+        Map<String, Integer> colunas = lerCabecalho(leitor);
+
+        return new Iterator<>() {
+            private int numeroLinha = 1; // a linha 1 é o cabeçalho
+            private String proxima = lerLinha(leitor);
+
+            @Override
+            public boolean hasNext() {
+                // Linhas em branco (ex.: no fim do arquivo) são ignoradas
+                while (proxima != null && proxima.isBlank()) {
+                    numeroLinha++;
+                    proxima = lerLinha(leitor);
+                }
+                return proxima != null;
+            }
+
+            @Override
+            public LinhaImportacao next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+
+                numeroLinha++;
+                String atual = proxima;
+                proxima = lerLinha(leitor);
+
+                return toLinha(numeroLinha, separar(atual), colunas);
+            }
+        };
+    }
+
+    public void escreverCabecalho(Writer destino) {
+        escreverLinha(destino, CABECALHO_EXPORTACAO);
+    }
+
+    public void escrever(Writer destino, ProdutoResponseDTO produto) {
+        String linha = String.join(",",
+                campo(produto.id()),
+                campo(produto.nome()),
+                campo(produto.descricao()),
+                campo(produto.preco()),
+                campo(produto.estoque()),
+                campo(produto.ativo()),
+                campo(produto.imagemUrl()),
+                campo(produto.categoria()),
+                campo(produto.versao())
+        );
+
+        escreverLinha(destino, linha);
+    }
+
+    private Map<String, Integer> lerCabecalho(BufferedReader leitor) {
+        String cabecalho = lerLinha(leitor);
+
+        if (cabecalho == null) {
+            throw new BadRequestException("Arquivo CSV vazio");
+        }
+
+        // Remove o BOM que o Excel coloca no início do arquivo
+        List<String> nomes = separar(cabecalho.replace("\uFEFF", ""));
+
+        Map<String, Integer> colunas = new HashMap<>();
+        for (int i = 0; i < nomes.size(); i++) {
+            colunas.put(nomes.get(i).trim(), i);
+        }
+
+        List<String> faltando = COLUNAS_OBRIGATORIAS.stream()
+                .filter(coluna -> !colunas.containsKey(coluna))
+                .toList();
+
+        if (!faltando.isEmpty()) {
+            throw new BadRequestException("Colunas obrigatórias ausentes no CSV: " + faltando);
+        }
+
+        return colunas;
+    }
+
+    private LinhaImportacao toLinha(int numero, List<String> campos, Map<String, Integer> colunas) {
+        try {
+            ProdutoRequestDTO dto = new ProdutoRequestDTO();
+            dto.setNome(texto(campos, colunas, "nome"));
+            dto.setDescricao(texto(campos, colunas, "descricao"));
+            dto.setPreco(numero(campos, colunas, "preco", BigDecimal::new));
+            dto.setEstoque(numero(campos, colunas, "estoque", Integer::valueOf));
+            dto.setCategoriaId(numero(campos, colunas, "categoriaId", Long::valueOf));
+
+            String ativo = texto(campos, colunas, "ativo");
+            dto.setAtivo(ativo == null ? null : Boolean.parseBoolean(ativo.toLowerCase(Locale.ROOT)));
+
+            return LinhaImportacao.valida(numero, dto);
+
+        } catch (IllegalArgumentException e) {
+            return LinhaImportacao.invalida(numero, e.getMessage());
+        }
+    }
+
+    private String texto(List<String> campos, Map<String, Integer> colunas, String coluna) {
+        Integer indice = colunas.get(coluna);
+
+        if (indice == null || indice >= campos.size()) {
+            return null;
+        }
+
+        String valor = campos.get(indice).trim();
+
+        return valor.isEmpty() ? null : valor;
+    }
+
+    private <T> T numero(List<String> campos, Map<String, Integer> colunas, String coluna,
+                         Function<String, T> conversor) {
+        String valor = texto(campos, colunas, coluna);
+
+        if (valor == null) {
+            return null; // obrigatoriedade fica com o Bean Validation
+        }
+
+        try {
+            return conversor.apply(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido na coluna " + coluna + ": " + valor);
+        }
+    }
+
+    // Separa por vírgula respeitando aspas: "Mouse, sem fio" e aspas escapadas ("")
+    static List<String> separar(String linha) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreAspas = false;
+
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+
+            if (entreAspas) {
+                if (c == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+
+        campos.add(campo.toString());
+
+        return campos;
+    }
+
+    // Inverso do separar: aspas só quando o valor tem vírgula, aspas ou quebra de linha
+    static String campo(Object valor) {
+        String texto = Objects.toString(valor, "");
+
+        if (texto.contains(",") || texto.contains("\"") || texto.contains("\n") || texto.contains("\r")) {
+            return "\"" + texto.replace("\"", "\"\"") + "\"";
+        }
+
+        return texto;
+    }
+
+    private static void escreverLinha(Writer destino, String linha) {
+        try {
+            destino.write(linha);
+            destino.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao escrever o CSV", e);
+        }
+    }
+
+    private static String lerLinha(BufferedReader leitor) {
+        try {
+            return leitor.readLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao ler o CSV", e);
+        }
+    }
+}
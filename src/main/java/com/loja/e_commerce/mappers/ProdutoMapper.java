@@ -34,6 +34,11 @@ public class ProdutoMapper {
     }
 
     public ProdutoResponseDTO toResponse(Produto produto) {
+        return toResponse(produto, produto.getCategoria().getNome());
+    }
+
+    // Quando o nome da categoria já é conhecido (cache), evita inicializar o proxy LAZY
+    public ProdutoResponseDTO toResponse(Produto produto, String nomeCategoria) {
         return new ProdutoResponseDTO(
                 produto.getId(),
                 produto.getNome(),
@@ -42,7 +47,8 @@ public class ProdutoMapper {
                 produto.getEstoque(),
                 produto.getAtivo(),
                 produto.getImagemPath(),
-                produto.getCategoria().getNome()
+                nomeCategoria,
+                produto.getVersao()
         );
     }
 
@@ -0,0 +1,27 @@
+package com.loja.e_commerce.mappers;
+
+import com.loja.e_commerce.dtos.estoque.ItemReservaResponseDTO;
+import com.loja.e_commerce.dtos.estoque.ReservaResponseDTO;
+import com.loja.e_commerce.models.ReservaEstoque;
+import com.loja.e_commerce.models.StatusReserva;
+import org.springframework.stereotype.Component;
+
+@Component //Spring cria uma instância e gerencia ela
+public class ReservaMapper {
+
+    public ReservaResponseDTO toResponse(ReservaEstoque reserva) {
+        return toResponse(reserva, reserva.getStatus());
+    }
+
+    // O status é alterado por UPDATE direto no banco: a entidade carregada ainda tem o anterior
+    public ReservaResponseDTO toResponse(ReservaEstoque reserva, StatusReserva status) {
+        return new ReservaResponseDTO(
+                reserva.getId(),
+                status,
+                reserva.getCriadaEm(),
+                reserva.getItens().stream()
+                        .map(item -> new ItemReservaResponseDTO(item.getProdutoId(), item.getQuantidade()))
+                        .toList()
+        );
+    }
+}
@@ -23,4 +23,8 @@ public class Categoria {
 
     @Column(nullable = false)
     private Boolean ativo = true;
+
+    @Version
+    @Column(nullable = false)
+    private Long versao;
 }
@@ -0,0 +1,34 @@
+package com.loja.e_commerce.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "imagens")
+public class Imagem {
+
+    // Nome do arquivo (sha-256 do conteúdo + extensão), o mesmo gravado em produtos.imagem_path
+    @Id
+    private String nome;
+
+    // Produtos que apontam para o arquivo: só muda pelos UPDATEs atômicos do repositório
+    @Column(nullable = false, updatable = false)
+    private Integer referencias;
+
+    @Column(name = "criada_em", nullable = false, updatable = false)
+    private LocalDateTime criadaEm = LocalDateTime.now();
+
+    public Imagem(String nome) {
+        this.nome = nome;
+        this.referencias = 1;
+    }
+}
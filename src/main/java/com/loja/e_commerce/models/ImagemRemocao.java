@@ -0,0 +1,36 @@
+package com.loja.e_commerce.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Arquivo de imagem que ficou sem nenhum produto e espera a limpeza em segundo plano
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "imagens_remocoes")
+public class ImagemRemocao {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, updatable = false)
+    private String nome;
+
+    @Column(nullable = false)
+    private Integer tentativas = 0;
+
+    @Column(name = "criada_em", nullable = false, updatable = false)
+    private LocalDateTime criadaEm = LocalDateTime.now();
+
+    public ImagemRemocao(String nome) {
+        this.nome = nome;
+    }
+}
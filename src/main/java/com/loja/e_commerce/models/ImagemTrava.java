@@ -0,0 +1,21 @@
+package com.loja.e_commerce.models;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// Linha travada (FOR UPDATE) por quem mexe na referência ou no arquivo de uma imagem; só existe para ser travada
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "imagens_travas")
+public class ImagemTrava {
+
+    // hash do nome da imagem módulo a quantidade de linhas
+    @Id
+    private Integer id;
+}
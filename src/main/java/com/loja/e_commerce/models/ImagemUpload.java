@@ -0,0 +1,45 @@
+package com.loja.e_commerce.models;
+
+import com.loja.e_commerce.dtos.produto.StatusUploadImagem;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Upload de imagem aceito (202) e o andamento do processamento em segundo plano
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "imagens_uploads")
+public class ImagemUpload {
+
+    @Id
+    private String id;
+
+    @Column(name = "produto_id", nullable = false, updatable = false)
+    private Long produtoId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StatusUploadImagem status = StatusUploadImagem.PENDENTE;
+
+    @Column(name = "imagem_url")
+    private String imagemUrl;
+
+    @Column(length = 500)
+    private String mensagem;
+
+    @Column(name = "criado_em", nullable = false, updatable = false)
+    private LocalDateTime criadoEm = LocalDateTime.now();
+
+    @Column(name = "atualizado_em", nullable = false)
+    private LocalDateTime atualizadoEm = criadoEm;
+
+    public ImagemUpload(String id, Long produtoId) {
+        this.id = id;
+        this.produtoId = produtoId;
+    }
+}
@@ -16,8 +16,13 @@ import java.math.BigDecimal;
 @Table(name = "produtos")
 public class Produto {
 
+    // Maior preço que cabe na coluna NUMERIC(10, 2)
+    public static final BigDecimal PRECO_MAXIMO = new BigDecimal("99999999.99");
+
+    // Sequência em blocos de 50 (em vez de IDENTITY) para permitir INSERT em batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "produtos_seq")
+    @SequenceGenerator(name = "produtos_seq", sequenceName = "produtos_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -41,4 +46,9 @@ public class Produto {
     @ManyToOne(fetch = FetchType.LAZY) //Trazer relacionamento somente quando necessário
     @JoinColumn(name = "categoria_id", nullable = false)
     private Categoria categoria;
+
+    // UPDATE ... WHERE versao = ?: escrita com versão antiga falha em vez de sobrescrever a outra
+    @Version
+    @Column(nullable = false)
+    private Long versao;
 }
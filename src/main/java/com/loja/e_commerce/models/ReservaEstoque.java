@@ -0,0 +1,36 @@
+package com.loja.e_commerce.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "reservas_estoque")
+public class ReservaEstoque {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Só muda pelo UPDATE condicional do repositório (PENDENTE -> CONFIRMADA/LIBERADA), nunca pelo dirty checking
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20, updatable = false)
+    private StatusReserva status = StatusReserva.PENDENTE;
+
+    @Column(name = "criada_em", nullable = false, updatable = false)
+    private LocalDateTime criadaEm = LocalDateTime.now();
+
+    @ElementCollection
+    @CollectionTable(name = "reservas_estoque_itens", joinColumns = @JoinColumn(name = "reserva_id"))
+    private List<ItemReserva> itens = new ArrayList<>();
+}
@@ -0,0 +1,7 @@
+package com.loja.e_commerce.models;
+
+public enum StatusReserva {
+    PENDENTE,   // estoque separado, aguardando o pagamento
+    CONFIRMADA, // venda concluída, o estoque não volta
+    LIBERADA    // checkout cancelado, o estoque voltou para o produto
+}
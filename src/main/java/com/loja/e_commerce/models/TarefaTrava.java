@@ -0,0 +1,29 @@
+package com.loja.e_commerce.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Tarefa agendada que roda em uma instância por vez: só muda pelos UPDATEs condicionais do repositório
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "tarefas_travas")
+public class TarefaTrava {
+
+    @Id
+    private String nome;
+
+    // Instância que está rodando a tarefa (ou rodou por último)
+    private String dono;
+
+    @Column(name = "travada_ate", nullable = false)
+    private LocalDateTime travadaAte;
+}
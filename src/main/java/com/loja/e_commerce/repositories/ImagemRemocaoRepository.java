@@ -0,0 +1,15 @@
+package com.loja.e_commerce.repositories;
+
+import com.loja.e_commerce.models.ImagemRemocao;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ImagemRemocaoRepository extends JpaRepository<ImagemRemocao, Long> {
+
+    // Mais antigas primeiro, em lotes
+    List<ImagemRemocao> findAllByOrderByIdAsc(Pageable pageable);
+}
@@ -0,0 +1,26 @@
+package com.loja.e_commerce.repositories;
+
+import com.loja.e_commerce.models.Imagem;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ImagemRepository extends JpaRepository<Imagem, String> {
+
+    // Contagem alterada direto no banco (sem ler antes): dois uploads da mesma foto não perdem incremento
+    @Modifying
+    @Query("UPDATE Imagem i SET i.referencias = i.referencias + 1 WHERE i.nome = :nome")
+    int adicionarReferencia(String nome);
+
+    // Exclusão em lote: vários produtos com a mesma imagem saem em um UPDATE só
+    @Modifying
+    @Query("UPDATE Imagem i SET i.referencias = i.referencias - :quantidade WHERE i.nome = :nome")
+    int removerReferencias(String nome, int quantidade);
+
+    // 1 => era a última referência e o arquivo pode ser apagado
+    @Modifying
+    @Query("DELETE FROM Imagem i WHERE i.nome = :nome AND i.referencias <= 0")
+    int removerSemReferencias(String nome);
+}
@@ -0,0 +1,19 @@
+package com.loja.e_commerce.repositories;
+
+import com.loja.e_commerce.models.ImagemTrava;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ImagemTravaRepository extends JpaRepository<ImagemTrava, Integer> {
+
+    // SELECT ... FOR UPDATE: a linha fica travada até o fim da transação, para todas as instâncias
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM ImagemTrava t WHERE t.id = :id")
+    Optional<ImagemTrava> travar(int id);
+}
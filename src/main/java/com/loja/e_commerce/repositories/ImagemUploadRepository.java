@@ -0,0 +1,17 @@
+package com.loja.e_commerce.repositories;
+
+import com.loja.e_commerce.models.ImagemUpload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ImagemUploadRepository extends JpaRepository<ImagemUpload, String> {
+
+    @Modifying
+    @Query("DELETE FROM ImagemUpload u WHERE u.criadoEm < :limite")
+    int removerCriadosAntesDe(LocalDateTime limite);
+}
@@ -0,0 +1,48 @@
+package com.loja.e_commerce.repositories;
+
+import com.loja.e_commerce.dtos.produto.ProdutoResponseDTO;
+import com.loja.e_commerce.models.Produto;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Consultas que devolvem o DTO direto do banco (sem carregar a entidade + proxy da categoria)
+public interface ProdutoConsultaRepository {
+
+    // Detalhe do produto em um único SELECT (JOIN na categoria)
+    Optional<ProdutoResponseDTO> buscarResumo(Long id);
+
+    // Vários produtos em um único SELECT ... WHERE id IN (...) (sem ordem garantida)
+    List<ProdutoResponseDTO> buscarResumosPorIds(Collection<Long> ids);
+
+    Page<ProdutoResponseDTO> buscarResumos(Specification<Produto> spec, Pageable pageable);
+
+    // Página sem COUNT: busca um item a mais só para saber se existe próxima
+    Slice<ProdutoResponseDTO> buscarFatia(Specification<Produto> spec, Pageable pageable);
+
+    long contar(Specification<Produto> spec);
+
+    // Sem OFFSET e sem COUNT: usado na paginação por cursor
+    List<ProdutoResponseDTO> buscarResumos(Specification<Produto> spec, Sort sort, int limite);
+
+    // Cursor do banco lido aos poucos (exportação): precisa de transação aberta e deve ser fechado
+    Stream<ProdutoResponseDTO> percorrerResumos(Specification<Produto> spec, Sort sort);
+
+    // Um único UPDATE para todos os produtos do filtro (sem carregar as entidades).
+    // Campos nulos não são alterados; o preço é multiplicado pelo fator
+    int atualizarEmLote(Specification<Produto> spec, Boolean ativo, BigDecimal fatorPreco);
+
+    // Produtos do filtro cujo preço, multiplicado pelo fator e arredondado, sairia de (0, PRECO_MAXIMO]
+    long contarPrecoForaDaFaixa(Specification<Produto> spec, BigDecimal fatorPreco);
+
+    // Só o caminho das imagens dos produtos do filtro (para limpar os arquivos na exclusão em lote)
+    List<String> buscarImagens(Specification<Produto> spec);
+}
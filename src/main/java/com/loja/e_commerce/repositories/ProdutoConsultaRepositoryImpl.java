@@ -0,0 +1,221 @@
+package com.loja.e_commerce.repositories;
+
+import com.loja.e_commerce.dtos.produto.ProdutoResponseDTO;
+import com.loja.e_commerce.models.Categoria;
+import com.loja.e_commerce.models.Produto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Implementação do fragmento: o Spring Data encontra pelo sufixo "Impl"
+public class ProdutoConsultaRepositoryImpl implements ProdutoConsultaRepository {
+
+    // Linhas buscadas por ida ao banco na exportação (o driver não carrega o resultado inteiro)
+    private static final int TAMANHO_FETCH = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<ProdutoResponseDTO> buscarResumo(Long id) {
+        Specification<Produto> porId = (root, query, cb) -> cb.equal(root.get("id"), id);
+
+        return consultar(porId, Sort.unsorted(), 0, 1).stream().findFirst();
+    }
+
+    @Override
+    public List<ProdutoResponseDTO> buscarResumosPorIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Specification<Produto> porIds = (root, query, cb) -> root.get("id").in(ids);
+
+        return consultar(porIds, Sort.unsorted(), 0, ids.size());
+    }
+
+    @Override
+    public Page<ProdutoResponseDTO> buscarResumos(Specification<Produto> spec, Pageable pageable) {
+        List<ProdutoResponseDTO> conteudo =
+                consultar(spec, pageable.getSort(), (int) pageable.getOffset(), pageable.getPageSize());
+
+        // Só executa o COUNT quando não dá para deduzir o total pela própria página
+        return PageableExecutionUtils.getPage(conteudo, pageable, () -> contar(spec));
+    }
+
+    @Override
+    public Slice<ProdutoResponseDTO> buscarFatia(Specification<Produto> spec, Pageable pageable) {
+        List<ProdutoResponseDTO> resultado =
+                consultar(spec, pageable.getSort(), (int) pageable.getOffset(), pageable.getPageSize() + 1);
+
+        boolean temProxima = resultado.size() > pageable.getPageSize();
+        List<ProdutoResponseDTO> conteudo =
+                temProxima ? resultado.subList(0, pageable.getPageSize()) : resultado;
+
+        return new SliceImpl<>(conteudo, pageable, temProxima);
+    }
+
+    @Override
+    public List<ProdutoResponseDTO> buscarResumos(Specification<Produto> spec, Sort sort, int limite) {
+        return consultar(spec, sort, 0, limite);
+    }
+
+    @Override
+    public Stream<ProdutoResponseDTO> percorrerResumos(Specification<Produto> spec, Sort sort) {
+        // Projeção em DTO: nada entra no contexto de persistência, a memória fica constante
+        return criarConsulta(spec, sort)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, TAMANHO_FETCH)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public int atualizarEmLote(Specification<Produto> spec, Boolean ativo, BigDecimal fatorPreco) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Produto> update = cb.createCriteriaUpdate(Produto.class);
+        Root<Produto> root = update.from(Produto.class);
+
+        if (ativo != null) {
+            update.set(root.<Boolean>get("ativo"), ativo);
+        }
+
+        Predicate predicate = spec.toPredicate(root, cb.createQuery(), cb);
+
+        if (fatorPreco != null) {
+            Expression<BigDecimal> novoPreco = precoReajustado(cb, root, fatorPreco);
+            update.set(root.<BigDecimal>get("preco"), novoPreco);
+
+            // O service já recusou o lote com preço fora da faixa; isto só impede gravar (ou estourar a coluna)
+            // se algum preço mudou entre a conferência e o UPDATE
+            Predicate naFaixa = cb.not(foraDaFaixa(cb, novoPreco));
+            predicate = predicate != null ? cb.and(predicate, naFaixa) : naFaixa;
+        }
+
+        // Mesmo cuidado das reservas de estoque: um PUT com a versão antiga passa a receber 409
+        Path<Long> versao = root.get("versao");
+        update.set(versao, cb.sum(versao, 1L));
+
+        if (predicate != null) {
+            update.where(predicate);
+        }
+
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public long contarPrecoForaDaFaixa(Specification<Produto> spec, BigDecimal fatorPreco) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Produto> root = query.from(Produto.class);
+
+        aplicarFiltros(spec, root, query, cb);
+
+        Predicate foraDaFaixa = foraDaFaixa(cb, precoReajustado(cb, root, fatorPreco));
+        query.select(cb.count(root))
+                .where(query.getRestriction() != null ? cb.and(query.getRestriction(), foraDaFaixa) : foraDaFaixa);
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    // Arredonda para os centavos da coluna NUMERIC(10, 2)
+    private static Expression<BigDecimal> precoReajustado(CriteriaBuilder cb, Root<Produto> root, BigDecimal fator) {
+        return cb.function("round", BigDecimal.class, cb.prod(root.<BigDecimal>get("preco"), fator), cb.literal(2));
+    }
+
+    private static Predicate foraDaFaixa(CriteriaBuilder cb, Expression<BigDecimal> preco) {
+        return cb.or(cb.le(preco, BigDecimal.ZERO), cb.gt(preco, Produto.PRECO_MAXIMO));
+    }
+
+    @Override
+    public List<String> buscarImagens(Specification<Produto> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<String> query = cb.createQuery(String.class);
+        Root<Produto> root = query.from(Produto.class);
+
+        aplicarFiltros(spec, root, query, cb);
+
+        Predicate comImagem = cb.isNotNull(root.get("imagemPath"));
+        query.select(root.get("imagemPath"))
+                .where(query.getRestriction() != null ? cb.and(query.getRestriction(), comImagem) : comImagem);
+
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    private List<ProdutoResponseDTO> consultar(Specification<Produto> spec, Sort sort, int inicio, int limite) {
+        return criarConsulta(spec, sort)
+                .setFirstResult(inicio)
+                .setMaxResults(limite)
+                .getResultList();
+    }
+
+    private TypedQuery<ProdutoResponseDTO> criarConsulta(Specification<Produto> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProdutoResponseDTO> query = cb.createQuery(ProdutoResponseDTO.class);
+        Root<Produto> root = query.from(Produto.class);
+
+        // JOIN na mesma consulta em vez de um SELECT por categoria (N+1)
+        Join<Produto, Categoria> categoria = root.join("categoria");
+
+        query.select(cb.construct(
+                ProdutoResponseDTO.class,
+                root.get("id"),
+                root.get("nome"),
+                root.get("descricao"),
+                root.get("preco"),
+                root.get("estoque"),
+                root.get("ativo"),
+                root.get("imagemPath"),
+                categoria.get("nome"),
+                root.get("versao")
+        ));
+
+        aplicarFiltros(spec, root, query, cb);
+
+        if (sort.isSorted()) {
+            query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        }
+
+        return entityManager.createQuery(query);
+    }
+
+    @Override
+    public long contar(Specification<Produto> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Produto> root = query.from(Produto.class);
+
+        aplicarFiltros(spec, root, query, cb);
+        query.select(cb.count(root));
+
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private void aplicarFiltros(Specification<Produto> spec, Root<Produto> root,
+                                CriteriaQuery<?> query, CriteriaBuilder cb) {
+        if (spec == null) {
+            return;
+        }
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
@@ -1,17 +1,52 @@
 package com.loja.e_commerce.repositories;
 
+import com.loja.e_commerce.dtos.produto.ProdutoChaveDTO;
 import com.loja.e_commerce.models.Produto;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface ProdutoRepository extends JpaRepository<Produto, Long>,
         // Filtros dinâmicos
-        JpaSpecificationExecutor<Produto> {
+        JpaSpecificationExecutor<Produto>,
+        // Listagem com projeção direto no DTO
+        ProdutoConsultaRepository {
 
     Boolean existsByNomeIgnoreCaseAndCategoria_Id(String nome, Long categoria);
 
     Boolean existsByNomeIgnoreCaseAndCategoria_IdAndIdNot(String nome, Long categoria, Long id);
+
+    // Última conferência antes de apagar um arquivo de imagem (índice idx_produtos_imagem_path)
+    boolean existsByImagemPath(String imagemPath);
+
+    // Checagem de duplicados de um lote inteiro em uma consulta (usa o índice categoria_id + upper(nome))
+    @Query("""
+            SELECT new com.loja.e_commerce.dtos.produto.ProdutoChaveDTO(p.nome, p.categoria.id)
+            FROM Produto p
+            WHERE p.categoria.id IN :categoriaIds AND UPPER(p.nome) IN :nomes
+            """)
+    List<ProdutoChaveDTO> buscarExistentes(Collection<Long> categoriaIds, Collection<String> nomes);
+
+    // Um único UPDATE condicional: sem SELECT antes e com o lock da linha só até o commit.
+    // Também incrementa a versão para um PUT com a versão antiga não sobrescrever o estoque
+    @Modifying
+    @Query("""
+            UPDATE Produto p SET p.estoque = p.estoque - :quantidade, p.versao = p.versao + 1
+            WHERE p.id = :id AND p.ativo = true AND p.estoque >= :quantidade
+            """)
+    int reservarEstoque(Long id, int quantidade);
+
+    @Modifying
+    @Query("""
+            UPDATE Produto p SET p.estoque = p.estoque + :quantidade, p.versao = p.versao + 1
+            WHERE p.id = :id
+            """)
+    int devolverEstoque(Long id, int quantidade);
 }
 
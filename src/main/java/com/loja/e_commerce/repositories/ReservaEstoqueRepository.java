@@ -0,0 +1,20 @@
+package com.loja.e_commerce.repositories;
+
+import com.loja.e_commerce.models.ReservaEstoque;
+import com.loja.e_commerce.models.StatusReserva;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ReservaEstoqueRepository extends JpaRepository<ReservaEstoque, Long> {
+
+    // Troca de status atômica: se duas requisições tentarem liberar a mesma reserva, só uma altera a linha
+    @Modifying
+    @Query("""
+            UPDATE ReservaEstoque r SET r.status = :novo
+            WHERE r.id = :id AND r.status = :atual
+            """)
+    int alterarStatus(Long id, StatusReserva atual, StatusReserva novo);
+}
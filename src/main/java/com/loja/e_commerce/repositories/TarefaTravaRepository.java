@@ -0,0 +1,25 @@
+package com.loja.e_commerce.repositories;
+
+import com.loja.e_commerce.models.TarefaTrava;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface TarefaTravaRepository extends JpaRepository<TarefaTrava, String> {
+
+    // 1 => a trava era desta instância ou tinha vencido; UPDATE único, duas instâncias nunca ganham juntas
+    @Modifying
+    @Query("""
+            UPDATE TarefaTrava t SET t.dono = :dono, t.travadaAte = :ate
+            WHERE t.nome = :nome AND (t.travadaAte <= :agora OR t.dono = :dono)
+            """)
+    int adquirir(String nome, String dono, LocalDateTime agora, LocalDateTime ate);
+
+    @Modifying
+    @Query("UPDATE TarefaTrava t SET t.travadaAte = :agora WHERE t.nome = :nome AND t.dono = :dono")
+    int liberar(String nome, String dono, LocalDateTime agora);
+}
@@ -0,0 +1,94 @@
+package com.loja.e_commerce.repositories.specification;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+// Equivalente em Java das funções produto_nome_corresponde/produto_nome_relevancia
+// do PostgreSQL, registradas no H2 via CREATE ALIAS (migração db/migration/h2)
+public final class BuscaNomeH2 {
+
+    // Mesmo limite padrão do operador <% (pg_trgm.word_similarity_threshold)
+    private static final double SIMILARIDADE_MINIMA = 0.6;
+
+    private BuscaNomeH2() {
+    }
+
+    public static Boolean corresponde(String nome, String termo) {
+        if (nome == null || termo == null) {
+            return null; // STRICT: null entra, null sai
+        }
+
+        String[] palavrasTermo = palavras(termo);
+        String[] palavrasNome = palavras(nome);
+
+        if (palavrasTermo.length == 0) {
+            return false;
+        }
+
+        // Todas as palavras do termo aparecem no nome (como prefixo ou parecidas)
+        return Arrays.stream(palavrasTermo)
+                .allMatch(t -> Arrays.stream(palavrasNome)
+                        .anyMatch(n -> n.startsWith(t) || similaridade(t, n) >= SIMILARIDADE_MINIMA));
+    }
+
+    public static Double relevancia(String nome, String termo) {
+        if (nome == null || termo == null) {
+            return null;
+        }
+
+        String[] palavrasTermo = palavras(termo);
+        String[] palavrasNome = palavras(nome);
+
+        if (palavrasTermo.length == 0) {
+            return 0.0;
+        }
+
+        double soma = 0;
+        for (String t : palavrasTermo) {
+            double melhor = 0;
+            for (String n : palavrasNome) {
+                melhor = Math.max(melhor, n.equals(t) ? 1.0 : similaridade(t, n));
+            }
+            soma += melhor;
+        }
+
+        return soma / palavrasTermo.length;
+    }
+
+    // "Café Elétrico" -> ["cafe", "eletrico"]
+    static String[] palavras(String texto) {
+        String semAcento = Normalizer.normalize(texto, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase();
+
+        return Arrays.stream(semAcento.split("[^\\p{Alnum}]+"))
+                .filter(p -> !p.isEmpty())
+                .toArray(String[]::new);
+    }
+
+    // Similaridade de trigramas (mesma ideia do pg_trgm): |A ∩ B| / |A ∪ B|
+    static double similaridade(String a, String b) {
+        Set<String> trigramasA = trigramas(a);
+        Set<String> trigramasB = trigramas(b);
+
+        Set<String> uniao = new HashSet<>(trigramasA);
+        uniao.addAll(trigramasB);
+
+        trigramasA.retainAll(trigramasB);
+
+        return uniao.isEmpty() ? 0 : (double) trigramasA.size() / uniao.size();
+    }
+
+    private static Set<String> trigramas(String palavra) {
+        String comBorda = "  " + palavra + " ";
+        Set<String> trigramas = new HashSet<>();
+
+        for (int i = 0; i + 3 <= comBorda.length(); i++) {
+            trigramas.add(comBorda.substring(i, i + 3));
+        }
+
+        return trigramas;
+    }
+}
@@ -21,6 +21,37 @@ public class ProdutoSpecification {
         };
     }
 
+    // Busca por relevância: sem acento e tolerante a erros de digitação.
+    // No PostgreSQL usa os índices trigram/full-text (migração V2), no H2 a função Java BuscaNomeH2
+    public static Specification<Produto> nomeCorresponde(String termo) {
+        return (root, query, cb) -> {
+            if (termo == null || termo.isBlank()) {
+                return cb.conjunction();
+            }
+
+            return cb.isTrue(cb.function("produto_nome_corresponde", Boolean.class,
+                    root.get("nome"), cb.literal(termo)));
+        };
+    }
+
+    // ORDER BY relevância DESC, id: não filtra nada, só ordena a consulta da página
+    public static Specification<Produto> ordenarPorRelevancia(String termo) {
+        return (root, query, cb) -> {
+            // A consulta de COUNT não precisa (nem pode) ser ordenada
+            boolean consultaDeContagem = Long.class.equals(query.getResultType());
+
+            if (termo != null && !termo.isBlank() && !consultaDeContagem) {
+                query.orderBy(
+                        cb.desc(cb.function("produto_nome_relevancia", Double.class,
+                                root.get("nome"), cb.literal(termo))),
+                        cb.asc(root.get("id"))
+                );
+            }
+
+            return cb.conjunction();
+        };
+    }
+
     //Filtrar apenas pelos ativos
     public static Specification<Produto> ativo() {
         return (root, query, cb) ->
@@ -59,5 +90,16 @@ public class ProdutoSpecification {
             );
         };
     }
+
+    // Paginação por cursor (keyset): WHERE id > ultimoId
+    public static Specification<Produto> idMaiorQue(Long ultimoId) {
+        return (root, query, cb) -> {
+            if (ultimoId == null) {
+                return cb.conjunction(); // primeira página
+            }
+
+            return cb.greaterThan(root.get("id"), ultimoId);
+        };
+    }
 }
 
@@ -1,5 +1,6 @@
 package com.loja.e_commerce.services;
 
+import com.loja.e_commerce.configs.CacheConfig;
 import com.loja.e_commerce.dtos.categoria.CategoriaRequestDTO;
 import com.loja.e_commerce.dtos.categoria.CategoriaResponseDTO;
 import com.loja.e_commerce.exceptions.ConflictException;
@@ -8,6 +9,9 @@ import com.loja.e_commerce.mappers.CategoriaMapper;
 import com.loja.e_commerce.models.Categoria;
 import com.loja.e_commerce.repositories.CategoriaRepository;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -18,12 +22,16 @@ public class CategoriaService {
 
     private final CategoriaRepository repository;
     private final CategoriaMapper mapper;
+    private final ProdutoBuscaCache buscaCache;
 
-    public CategoriaService(CategoriaRepository repository, CategoriaMapper mapper) {
+    public CategoriaService(CategoriaRepository repository, CategoriaMapper mapper, ProdutoBuscaCache buscaCache) {
         this.repository = repository;
         this.mapper = mapper;
+        this.buscaCache = buscaCache;
     }
 
+    // Categoria nova muda a lista, mas não afeta nenhum id já em cache
+    @CacheEvict(cacheNames = CacheConfig.CATEGORIAS, allEntries = true)
     public CategoriaResponseDTO criar(CategoriaRequestDTO dto) {
         if (repository.existsByNomeIgnoreCase(dto.getNome())) {
             log.warn("Tentativa de criar categoria existente: nome={}", dto.getNome());
@@ -39,6 +47,13 @@ public class CategoriaService {
         return mapper.toResponse(categoria);
     }
 
+    // Detalhe e buscas de produto trazem o nome da categoria: saem do cache junto com ela.
+    // Sem índice de produto por categoria no cache, o detalhe é limpo por inteiro (como nas operações em lote)
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CATEGORIAS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.CATEGORIA, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.PRODUTO, allEntries = true)
+    })
     public CategoriaResponseDTO atualizar(Long id, CategoriaRequestDTO dto) {
         Categoria categoria = repository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Categoria não encontrada"));
@@ -51,12 +66,15 @@ public class CategoriaService {
         mapper.toUpdateEntity(categoria, dto);
 
         Categoria categoriaAtualizada = repository.save(categoria);
+        buscaCache.invalidarCategorias(id);
 
         log.info("Categoria atualizada: nome={}", categoriaAtualizada.getNome());
 
         return mapper.toResponse(categoriaAtualizada);
     }
 
+    // Categorias mudam pouco: só vai ao banco quando o cache expira ou é invalidado
+    @Cacheable(cacheNames = CacheConfig.CATEGORIAS, sync = true)
     public List<CategoriaResponseDTO> buscar() {
         log.info("Listando categorias");
 
@@ -67,6 +85,7 @@ public class CategoriaService {
                 .toList();
     }
 
+    @Cacheable(cacheNames = CacheConfig.CATEGORIA, key = "#id", sync = true)
     public CategoriaResponseDTO buscarPorId(Long id) {
         log.info("Buscando categoria por id={}", id);
 
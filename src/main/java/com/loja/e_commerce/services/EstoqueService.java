@@ -0,0 +1,143 @@
+package com.loja.e_commerce.services;
+
+import com.loja.e_commerce.configs.CacheConfig;
+import com.loja.e_commerce.dtos.estoque.ItemReservaDTO;
+import com.loja.e_commerce.dtos.estoque.ReservaResponseDTO;
+import com.loja.e_commerce.exceptions.ConflictException;
+import com.loja.e_commerce.exceptions.ResourceNotFoundException;
+import com.loja.e_commerce.mappers.ReservaMapper;
+import com.loja.e_commerce.models.ItemReserva;
+import com.loja.e_commerce.models.ReservaEstoque;
+import com.loja.e_commerce.models.StatusReserva;
+import com.loja.e_commerce.repositories.ProdutoRepository;
+import com.loja.e_commerce.repositories.ReservaEstoqueRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+// Reserva de estoque para o checkout: cada item é um UPDATE condicional, sem ler o produto antes
+@Slf4j
+@Service
+public class EstoqueService {
+
+    private final ProdutoRepository produtoRepository;
+    private final ReservaEstoqueRepository reservaRepository;
+    private final ReservaMapper mapper;
+    private final CacheManager cacheManager;
+
+    public EstoqueService(
+            ProdutoRepository produtoRepository,
+            ReservaEstoqueRepository reservaRepository,
+            ReservaMapper mapper,
+            CacheManager cacheManager) {
+
+        this.produtoRepository = produtoRepository;
+        this.reservaRepository = reservaRepository;
+        this.mapper = mapper;
+        this.cacheManager = cacheManager;
+    }
+
+    @Transactional //Se um item não tiver estoque, desfaz os que já foram reservados
+    public ReservaResponseDTO reservar(List<ItemReservaDTO> itens) {
+
+        // Produto repetido vira um item só. Ordenar por id faz todas as transações travarem
+        // as linhas na mesma ordem (sem deadlock entre carrinhos com os mesmos produtos)
+        Map<Long, Integer> quantidades = itens.stream()
+                .collect(Collectors.toMap(
+                        ItemReservaDTO::getProdutoId,
+                        ItemReservaDTO::getQuantidade,
+                        Integer::sum,
+                        TreeMap::new
+                ));
+
+        ReservaEstoque reserva = new ReservaEstoque();
+
+        quantidades.forEach((produtoId, quantidade) -> {
+            // UPDATE ... SET estoque = estoque - ? WHERE id = ? AND estoque >= ?
+            if (produtoRepository.reservarEstoque(produtoId, quantidade) == 0) {
+                throw semEstoque(produtoId, quantidade);
+            }
+
+            reserva.getItens().add(new ItemReserva(produtoId, quantidade));
+        });
+
+        ReservaEstoque reservaSalva = reservaRepository.save(reserva);
+
+        removerDoCache(quantidades.keySet());
+
+        log.info("Estoque reservado: reservaId={}, itens={}", reservaSalva.getId(), quantidades);
+
+        return mapper.toResponse(reservaSalva);
+    }
+
+    @Transactional
+    public ReservaResponseDTO confirmar(Long reservaId) {
+        ReservaEstoque reserva = buscarReserva(reservaId);
+
+        alterarStatus(reserva, StatusReserva.CONFIRMADA);
+
+        log.info("Reserva confirmada: reservaId={}", reservaId);
+
+        return mapper.toResponse(reserva, StatusReserva.CONFIRMADA);
+    }
+
+    @Transactional
+    public ReservaResponseDTO liberar(Long reservaId) {
+        ReservaEstoque reserva = buscarReserva(reservaId);
+
+        // Só quem conseguiu mudar o status devolve o estoque (duas liberações simultâneas não devolvem em dobro)
+        alterarStatus(reserva, StatusReserva.LIBERADA);
+
+        reserva.getItens().stream()
+                .sorted(Comparator.comparing(ItemReserva::getProdutoId))
+                .forEach(item -> produtoRepository.devolverEstoque(item.getProdutoId(), item.getQuantidade()));
+
+        removerDoCache(reserva.getItens().stream().map(ItemReserva::getProdutoId).toList());
+
+        log.info("Reserva liberada: reservaId={}", reservaId);
+
+        return mapper.toResponse(reserva, StatusReserva.LIBERADA);
+    }
+
+    private ReservaEstoque buscarReserva(Long reservaId) {
+        return reservaRepository.findById(reservaId)
+                .orElseThrow(() -> new ResourceNotFoundException("Reserva não encontrada"));
+    }
+
+    private void alterarStatus(ReservaEstoque reserva, StatusReserva novo) {
+        if (reservaRepository.alterarStatus(reserva.getId(), StatusReserva.PENDENTE, novo) == 0) {
+            log.warn("Reserva não está mais pendente: reservaId={}, novoStatus={}", reserva.getId(), novo);
+            throw new ConflictException("Reserva já foi confirmada ou liberada");
+        }
+    }
+
+    // Nenhuma linha alterada: o produto não existe, está inativo ou não tem estoque suficiente
+    private RuntimeException semEstoque(Long produtoId, Integer quantidade) {
+        if (!produtoRepository.existsById(produtoId)) {
+            return new ResourceNotFoundException("Produto não encontrado: id=" + produtoId);
+        }
+
+        log.warn("Estoque insuficiente: produtoId={}, quantidade={}", produtoId, quantidade);
+
+        return new ConflictException("Estoque insuficiente ou produto inativo: id=" + produtoId);
+    }
+
+    // Detalhe do produto mostra o estoque: sai do cache depois do commit.
+    // As páginas da listagem não são invalidadas a cada compra (se atualizam pelo TTL curto)
+    private void removerDoCache(Collection<Long> produtoIds) {
+        Cache cache = cacheManager.getCache(CacheConfig.PRODUTO);
+
+        if (cache != null) {
+            produtoIds.forEach(cache::evict);
+        }
+    }
+}
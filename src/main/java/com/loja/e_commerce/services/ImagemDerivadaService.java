@@ -0,0 +1,234 @@
+package com.loja.e_commerce.services;
+
+import com.loja.e_commerce.services.storage.StorageBackend;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Versões reduzidas das imagens (miniaturas), gravadas ao lado da original: abc.png -> abc-150.png, abc-400.png.
+// Geradas no upload e, se faltarem (imagem antiga ou tamanho novo na configuração), no primeiro acesso
+@Slf4j
+@Service
+public class ImagemDerivadaService {
+
+    // Base da URL pública das imagens (GET /imagens/{nome})
+    public static final String URL_IMAGENS = "/imagens/";
+
+    // Só o formato que nomeDerivada produz (tamanho sem zeros à esquerda); quem decide se é mesmo uma derivada
+    // é a lista de tamanhos: UUIDs antigos também terminam em "-<dígitos>" (ex.: ...-446655440000.png)
+    private static final Pattern NOME_DERIVADA = Pattern.compile("^([\\w-]+)-([1-9]\\d{0,8})\\.(jpe?g|png)$", Pattern.CASE_INSENSITIVE);
+
+    // Evita decodificar imagens enormes (um PNG de 2MB pode ter centenas de megapixels)
+    private static final long MAXIMO_PIXELS = 40_000_000L;
+
+    private final StorageBackend storage;
+    private final Path diretorioTemporario;
+    private final List<Integer> tamanhos;
+
+    // Gerações sob demanda em andamento nesta instância, por nome da derivada
+    private final ConcurrentHashMap<String, CompletableFuture<Boolean>> geracoes = new ConcurrentHashMap<>();
+
+    public ImagemDerivadaService(
+            StorageBackend storage,
+            @Value("${storage.upload-dir}") String uploadDir,
+            @Value("${imagens.derivadas.tamanhos:150,400}") List<Integer> tamanhos) {
+
+        this.storage = storage;
+        // Mesma pasta temporária dos uploads (no disco local, o move final é só um rename)
+        this.diretorioTemporario = Paths.get(uploadDir).resolve(".tmp");
+        this.tamanhos = List.copyOf(tamanhos);
+    }
+
+    // {"original": "/imagens/abc.png", "150": "/imagens/abc-150.png", ...}
+    public Map<String, String> urls(String nomeOriginal) {
+        Map<String, String> urls = new LinkedHashMap<>();
+        urls.put("original", URL_IMAGENS + nomeOriginal);
+
+        for (int tamanho : tamanhos) {
+            urls.put(String.valueOf(tamanho), URL_IMAGENS + nomeDerivada(nomeOriginal, tamanho));
+        }
+
+        return Collections.unmodifiableMap(urls);
+    }
+
+    // Chamado no upload: falhar aqui não invalida a imagem, a derivada é gerada depois no primeiro acesso
+    public void gerar(String nomeOriginal) {
+        try {
+            BufferedImage original = ler(nomeOriginal);
+
+            for (int tamanho : tamanhos) {
+                gravar(original, nomeOriginal, tamanho);
+            }
+
+            log.info("Derivadas geradas: imagem={}, tamanhos={}", nomeOriginal, tamanhos);
+
+        } catch (IOException | RuntimeException e) {
+            log.warn("Não foi possível gerar as derivadas de {}: {}", nomeOriginal, e.getMessage());
+        }
+    }
+
+    // Arquivo pedido em GET /imagens/{nome}: se for uma derivada que ainda não existe, gera na hora.
+    // false => não existe (nem dá para gerar)
+    public boolean garantir(String nome) {
+        try {
+            if (storage.existe(nome)) {
+                return true;
+            }
+
+            Matcher derivada = NOME_DERIVADA.matcher(nome);
+            if (!derivada.matches()) {
+                return false;
+            }
+
+            int tamanho = Integer.parseInt(derivada.group(2));
+            String nomeOriginal = derivada.group(1) + "." + derivada.group(3);
+
+            if (!tamanhos.contains(tamanho) || !storage.existe(nomeOriginal)) {
+                return false;
+            }
+
+            // Uma geração por nome: quem pedir a mesma miniatura enquanto ela é gerada espera o resultado
+            // em vez de decodificar o original de novo
+            CompletableFuture<Boolean> geracao = new CompletableFuture<>();
+            CompletableFuture<Boolean> emAndamento = geracoes.putIfAbsent(nome, geracao);
+
+            if (emAndamento != null) {
+                return emAndamento.join();
+            }
+
+            try {
+                geracao.complete(gerarSobDemanda(nome, nomeOriginal, tamanho));
+            } catch (IOException | RuntimeException e) {
+                geracao.complete(false);
+                throw e;
+            } finally {
+                geracoes.remove(nome, geracao);
+            }
+
+            return geracao.join();
+
+        } catch (IOException | RuntimeException e) {
+            log.warn("Não foi possível obter a imagem {}: {}", nome, e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean gerarSobDemanda(String nome, String nomeOriginal, int tamanho) throws IOException {
+        // Quem gerou antes pode ter terminado entre a primeira conferência e a entrada em "geracoes"
+        if (storage.existe(nome)) {
+            return true;
+        }
+
+        log.info("Gerando derivada sob demanda: {}", nome);
+        gravar(ler(nomeOriginal), nomeOriginal, tamanho);
+
+        return true;
+    }
+
+    public void deletar(String nomeOriginal) {
+        for (int tamanho : tamanhos) {
+            try {
+                storage.remover(nomeDerivada(nomeOriginal, tamanho));
+            } catch (IOException e) {
+                log.error("Erro ao deletar a derivada {} de {}", tamanho, nomeOriginal, e);
+            }
+        }
+    }
+
+    // abc-150.png -> abc.png; vazio se o nome não é de uma derivada de um dos tamanhos configurados
+    public Optional<String> original(String nome) {
+        Matcher m = NOME_DERIVADA.matcher(nome);
+
+        if (!m.matches() || !tamanhos.contains(Integer.parseInt(m.group(2)))) {
+            return Optional.empty();
+        }
+
+        return Optional.of(m.group(1) + "." + m.group(3));
+    }
+
+    static String nomeDerivada(String nomeOriginal, int tamanho) {
+        int ponto = nomeOriginal.lastIndexOf('.');
+
+        return nomeOriginal.substring(0, ponto) + "-" + tamanho + nomeOriginal.substring(ponto);
+    }
+
+    private BufferedImage ler(String nome) throws IOException {
+        try (InputStream arquivo = storage.abrir(nome);
+             ImageInputStream entrada = ImageIO.createImageInputStream(arquivo)) {
+            Iterator<ImageReader> leitores = ImageIO.getImageReaders(entrada);
+
+            if (entrada == null || !leitores.hasNext()) {
+                throw new IOException("formato de imagem não suportado");
+            }
+
+            ImageReader leitor = leitores.next();
+            try {
+                leitor.setInput(entrada);
+
+                // Confere o tamanho pelo cabeçalho antes de decodificar os pixels
+                if ((long) leitor.getWidth(0) * leitor.getHeight(0) > MAXIMO_PIXELS) {
+                    throw new IOException("imagem grande demais para gerar derivadas");
+                }
+
+                return leitor.read(0);
+            } finally {
+                leitor.dispose();
+            }
+        }
+    }
+
+    // Cabe em um quadrado de "tamanho" px mantendo a proporção (nunca aumenta a imagem)
+    private void gravar(BufferedImage original, String nomeOriginal, int tamanho) throws IOException {
+        double escala = Math.min(1.0, (double) tamanho / Math.max(original.getWidth(), original.getHeight()));
+        int largura = Math.max(1, (int) Math.round(original.getWidth() * escala));
+        int altura = Math.max(1, (int) Math.round(original.getHeight() * escala));
+
+        // PNG mantém a transparência; JPEG não tem canal alfa
+        boolean png = nomeOriginal.toLowerCase(Locale.ROOT).endsWith(".png");
+
+        BufferedImage reduzida = new BufferedImage(largura, altura,
+                png ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+
+        Graphics2D g = reduzida.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(original, 0, 0, largura, altura, null);
+        } finally {
+            g.dispose();
+        }
+
+        // Grava em temporário e só então publica: quem pedir a mesma derivada ao mesmo tempo nunca lê um arquivo pela metade
+        Path temporario = Files.createTempFile(Files.createDirectories(diretorioTemporario), "derivada-", ".tmp");
+        try {
+            ImageIO.write(reduzida, png ? "png" : "jpg", temporario.toFile());
+
+            storage.gravar(nomeDerivada(nomeOriginal, tamanho), temporario);
+        } finally {
+            Files.deleteIfExists(temporario);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.loja.e_commerce.services;
+
+import com.loja.e_commerce.models.ImagemRemocao;
+import com.loja.e_commerce.repositories.ImagemRemocaoRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+
+// Processa em segundo plano, em lotes, a fila de arquivos sem referência (tabela imagens_remocoes):
+// a requisição não espera o disco e um arquivo com erro não desfaz nada no banco.
+// Roda em uma instância por vez (tarefas_travas); cada arquivo ainda é conferido sob a trava dele
+@Slf4j
+@Service
+public class ImagemLimpezaService {
+
+    private static final String TAREFA = "imagens-limpeza";
+
+    private final ImagemRemocaoRepository remocaoRepository;
+    private final ImagemStorageService imagemStorage;
+    private final TarefaTravaService tarefas;
+    private final int tamanhoLote;
+    private final int tentativasMaximas;
+    private final Duration duracaoTrava;
+
+    public ImagemLimpezaService(
+            ImagemRemocaoRepository remocaoRepository,
+            ImagemStorageService imagemStorage,
+            TarefaTravaService tarefas,
+            @Value("${imagens.limpeza.tamanho-lote:100}") int tamanhoLote,
+            @Value("${imagens.limpeza.tentativas-maximas:5}") int tentativasMaximas,
+            @Value("${imagens.limpeza.duracao-trava:5m}") Duration duracaoTrava) {
+
+        this.remocaoRepository = remocaoRepository;
+        this.imagemStorage = imagemStorage;
+        this.tarefas = tarefas;
+        this.tamanhoLote = tamanhoLote;
+        this.tentativasMaximas = tentativasMaximas;
+        this.duracaoTrava = duracaoTrava;
+    }
+
+    @Scheduled(fixedDelayString = "${imagens.limpeza.intervalo:10s}")
+    public int processar() {
+        if (!tarefas.adquirir(TAREFA, duracaoTrava)) {
+            return 0;
+        }
+
+        try {
+            return processarLote();
+        } finally {
+            tarefas.liberar(TAREFA);
+        }
+    }
+
+    private int processarLote() {
+        List<ImagemRemocao> lote = remocaoRepository.findAllByOrderByIdAsc(PageRequest.of(0, tamanhoLote));
+
+        for (ImagemRemocao remocao : lote) {
+            try {
+                imagemStorage.removerSeSemReferencias(remocao.getNome());
+                remocaoRepository.delete(remocao);
+
+            } catch (RuntimeException e) {
+                remocao.setTentativas(remocao.getTentativas() + 1);
+
+                if (remocao.getTentativas() >= tentativasMaximas) {
+                    // Sai da fila: se o arquivo continuar lá, a reconciliação remove depois
+                    log.error("Desistindo de remover a imagem {} após {} tentativas",
+                            remocao.getNome(), remocao.getTentativas(), e);
+                    remocaoRepository.delete(remocao);
+                } else {
+                    log.warn("Falha ao remover a imagem {} (tentativa {}): {}",
+                            remocao.getNome(), remocao.getTentativas(), e.getMessage());
+                    remocaoRepository.save(remocao);
+                }
+            }
+        }
+
+        if (!lote.isEmpty()) {
+            log.info("Limpeza de imagens: processadas={}", lote.size());
+        }
+
+        return lote.size();
+    }
+
+    public long pendentes() {
+        return remocaoRepository.count();
+    }
+}
@@ -0,0 +1,145 @@
+package com.loja.e_commerce.services;
+
+import com.loja.e_commerce.services.storage.StorageBackend;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+// Rede de segurança da fila de remoção: de tempos em tempos percorre o storage e apaga arquivos que
+// nenhum produto usa (fila descartada, queda no meio da limpeza, arquivos de antes da contagem de referências)
+// e temporários de uploads que nunca terminaram. Roda em uma instância por vez (tarefas_travas);
+// se a trava vencer no meio, outra instância repete o trabalho, mas cada arquivo é conferido sob a trava dele
+@Slf4j
+@Service
+public class ImagemReconciliacaoService {
+
+    private static final String TAREFA = "imagens-reconciliacao";
+
+    // Mesmo formato aceito em GET /imagens/{nome}: qualquer outro arquivo no storage não é da API
+    private static final Pattern NOME_IMAGEM = Pattern.compile("^[\\w-]+\\.(?i:jpe?g|png)$");
+
+    private final StorageBackend storage;
+    private final ImagemStorageService imagemStorage;
+    private final ImagemDerivadaService derivadas;
+    private final TarefaTravaService tarefas;
+    private final Path diretorioTemporario;
+    private final Duration idadeTemporarios;
+    private final Duration duracaoTrava;
+
+    public ImagemReconciliacaoService(
+            StorageBackend storage,
+            ImagemStorageService imagemStorage,
+            ImagemDerivadaService derivadas,
+            TarefaTravaService tarefas,
+            @Value("${storage.upload-dir}") String uploadDir,
+            @Value("${imagens.reconciliacao.idade-temporarios:1d}") Duration idadeTemporarios,
+            @Value("${imagens.reconciliacao.duracao-trava:1h}") Duration duracaoTrava) {
+
+        this.storage = storage;
+        this.imagemStorage = imagemStorage;
+        this.derivadas = derivadas;
+        this.tarefas = tarefas;
+        this.diretorioTemporario = Paths.get(uploadDir).resolve(".tmp");
+        this.idadeTemporarios = idadeTemporarios;
+        this.duracaoTrava = duracaoTrava;
+    }
+
+    @Scheduled(
+            initialDelayString = "${imagens.reconciliacao.intervalo:6h}",
+            fixedDelayString = "${imagens.reconciliacao.intervalo:6h}")
+    public int reconciliar() {
+        if (!tarefas.adquirir(TAREFA, duracaoTrava)) {
+            return 0;
+        }
+
+        try {
+            return reconciliarStorage();
+        } finally {
+            tarefas.liberar(TAREFA);
+        }
+    }
+
+    private int reconciliarStorage() {
+        int verificados = 0;
+        int removidos = 0;
+
+        try (Stream<String> nomes = storage.listar()) {
+            Iterator<String> iterator = nomes.iterator();
+
+            while (iterator.hasNext()) {
+                String nome = iterator.next();
+
+                if (!NOME_IMAGEM.matcher(nome).matches()) {
+                    continue;
+                }
+
+                Optional<String> original = derivadas.original(nome);
+
+                // Miniatura com original no storage: a decisão é tomada quando o próprio original for verificado
+                if (original.isPresent() && storage.existe(original.get())) {
+                    continue;
+                }
+
+                verificados++;
+
+                try {
+                    // Miniatura órfã: remover o original (que já não existe) leva as miniaturas junto
+                    if (imagemStorage.removerSeSemReferencias(original.orElse(nome))) {
+                        removidos++;
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Reconciliação: não foi possível verificar a imagem {}: {}", nome, e.getMessage());
+                }
+            }
+
+        } catch (IOException | RuntimeException e) {
+            log.error("Reconciliação de imagens interrompida", e);
+        }
+
+        int temporarios = limparTemporarios();
+
+        log.info("Reconciliação de imagens: verificados={}, removidos={}, temporarios={}",
+                verificados, removidos, temporarios);
+
+        return removidos;
+    }
+
+    // Uploads recebidos que nunca foram processados (ex.: instância parou antes)
+    private int limparTemporarios() {
+        if (!Files.isDirectory(diretorioTemporario)) {
+            return 0;
+        }
+
+        Instant limite = Instant.now().minus(idadeTemporarios);
+        int removidos = 0;
+
+        try (Stream<Path> arquivos = Files.list(diretorioTemporario)) {
+            for (Path arquivo : (Iterable<Path>) arquivos::iterator) {
+                try {
+                    if (Files.getLastModifiedTime(arquivo).toInstant().isBefore(limite)
+                            && Files.deleteIfExists(arquivo)) {
+                        removidos++;
+                    }
+                } catch (IOException e) {
+                    log.warn("Não foi possível remover o temporário {}: {}", arquivo, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.error("Erro ao listar os temporários em {}", diretorioTemporario, e);
+        }
+
+        return removidos;
+    }
+}
@@ -1,71 +1,323 @@
 package com.loja.e_commerce.services;
 
 import com.loja.e_commerce.exceptions.BadRequestException;
+import com.loja.e_commerce.models.Imagem;
+import com.loja.e_commerce.models.ImagemRemocao;
+import com.loja.e_commerce.repositories.ImagemRemocaoRepository;
+import com.loja.e_commerce.repositories.ImagemRepository;
+import com.loja.e_commerce.repositories.ImagemTravaRepository;
+import com.loja.e_commerce.repositories.ProdutoRepository;
+import com.loja.e_commerce.services.storage.StorageBackend;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.UUID;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class ImagemStorageService {
 
+    // Assinatura do início do arquivo: o Content-Type enviado pelo cliente não é confiável
+    private static final byte[] ASSINATURA_JPEG = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+    private static final byte[] ASSINATURA_PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
     @Value("${storage.upload-dir}")
     private String uploadDir;
 
-    public String salvar(MultipartFile file, String imagemAntiga) {
+    // Mesmo arquivo => mesma linha de imagens_travas (migração V9), travada com SELECT ... FOR UPDATE:
+    // a limpeza (apaga o arquivo) e um upload do mesmo conteúdo (reaproveita o arquivo) nunca se cruzam,
+    // nem entre instâncias da aplicação com o storage compartilhado (S3)
+    private static final int QUANTIDADE_TRAVAS = 1024;
+
+    private final StorageBackend storage;
+    private final ImagemDerivadaService derivadas;
+    private final ImagemRepository imagemRepository;
+    private final ImagemRemocaoRepository remocaoRepository;
+    private final ProdutoRepository produtoRepository;
+    private final ImagemTravaRepository travaRepository;
+    // Entra na transação de quem chamou (ou abre uma)
+    private final TransactionTemplate transacao;
+    // Transação própria: segura a trava do arquivo até confirmar
+    private final TransactionTemplate transacaoPropria;
+
+    public ImagemStorageService(
+            StorageBackend storage,
+            ImagemDerivadaService derivadas,
+            ImagemRepository imagemRepository,
+            ImagemRemocaoRepository remocaoRepository,
+            ProdutoRepository produtoRepository,
+            ImagemTravaRepository travaRepository,
+            PlatformTransactionManager transactionManager) {
+
+        this.storage = storage;
+        this.derivadas = derivadas;
+        this.imagemRepository = imagemRepository;
+        this.remocaoRepository = remocaoRepository;
+        this.produtoRepository = produtoRepository;
+        this.travaRepository = travaRepository;
+        this.transacao = new TransactionTemplate(transactionManager);
+        this.transacaoPropria = new TransactionTemplate(transactionManager);
+        this.transacaoPropria.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Copia o corpo do upload para um arquivo temporário (antes de a requisição terminar e o multipart sumir).
+    // Fica dentro do diretório de uploads para o move final ser só um rename (no S3, é de onde sai o envio)
+    public Path receber(MultipartFile file) {
         validarImagem(file);
 
-        String nomeOriginal = file.getOriginalFilename();
-        String extensao = nomeOriginal.substring(nomeOriginal.lastIndexOf("."));
-        String novoNome = UUID.randomUUID() + extensao;
+        try {
+            Path diretorioTemporario = Files.createDirectories(Paths.get(uploadDir).resolve(".tmp"));
+            Path temporario = Files.createTempFile(diretorioTemporario, "upload-", ".tmp");
+
+            try (InputStream entrada = file.getInputStream();
+                 ReadableByteChannel origem = Channels.newChannel(entrada);
+                 FileChannel destino = FileChannel.open(temporario, StandardOpenOption.WRITE)) {
+
+                long copiados = 0;
+                long transferidos;
+
+                while ((transferidos = destino.transferFrom(origem, copiados, Long.MAX_VALUE)) > 0) {
+                    copiados += transferidos;
+                }
+            }
+
+            log.info("Upload recebido em arquivo temporário: {}", temporario.getFileName());
+
+            return temporario;
+
+        } catch (IOException e) {
+            log.error("Erro ao receber o upload: {}", file.getOriginalFilename(), e);
+            throw new RuntimeException("Erro ao receber imagem", e);
+        }
+    }
+
+    // Nome pelo conteúdo (sha-256): a mesma foto enviada para vários produtos é gravada uma vez só
+    // e cada produto que aponta para ela conta uma referência
+    public String salvar(Path temporario) {
+        String extensao = extensaoPeloConteudo(temporario);
+        String nome = hash(temporario) + extensao;
+        boolean novo;
 
         try {
-            //Converte a String do appProperties para Path
-            Path diretorio = Paths.get(uploadDir);
+            novo = Boolean.TRUE.equals(transacaoPropria.execute(status -> {
+                travar(nome);
+
+                // Referência primeiro: com ela tomada (e a trava), nenhuma limpeza apaga o arquivo,
+                // então o que o storage responder agora continua valendo até o fim
+                if (imagemRepository.adicionarReferencia(nome) == 0) {
+                    imagemRepository.save(new Imagem(nome));
+                }
 
-            // cria o diretório se não existir e não lança erro se já existir
-            Files.createDirectories(diretorio);
+                // Conteúdo já no storage: nenhuma escrita, só mais uma referência.
+                // Faltando (mesmo com a referência já contada), grava
+                if (existe(nome)) {
+                    apagar(temporario);
+                    return false;
+                }
 
-            // remove imagem antiga se existir
-            if (imagemAntiga != null) {
-                deletar(imagemAntiga);
-                log.warn("Imagem antiga removida: {}", imagemAntiga);
+                // Se a gravação falhar, a referência volta junto com a transação; se a confirmação falhar
+                // depois de gravar, o arquivo fica sem referência e a reconciliação remove
+                gravar(nome, temporario);
+                return true;
+            }));
+
+        } catch (UncheckedIOException e) {
+            log.error("Erro ao salvar a imagem: {}", nome, e);
+            throw new RuntimeException("Erro ao salvar imagem", e.getCause());
+        }
+
+        // Se a transação de quem chamou voltar (ex.: produto não foi salvo), a referência tomada aqui é devolvida
+        devolverSeVoltar(nome);
+
+        if (novo) {
+            log.info("Imagem salva: {}", nome);
+
+            // Miniaturas já na hora do upload (se falhar, são geradas no primeiro acesso)
+            derivadas.gerar(nome);
+        } else {
+            log.info("Imagem já existente reaproveitada: {}", nome);
+        }
+
+        return nome;
+    }
+
+    // Tira a referência na transação de quem chamou (junto com a exclusão/troca da imagem do produto).
+    // Arquivo que ficou sem nenhuma vai para a fila de remoção gravada na mesma transação:
+    // se ela voltar, nada é apagado; se confirmar, a limpeza em segundo plano apaga o arquivo
+    public void liberar(String nome) {
+        liberar(List.of(nome));
+    }
+
+    public void liberar(Collection<String> nomes) {
+        if (nomes.isEmpty()) {
+            return;
+        }
+
+        // Vários produtos com a mesma imagem: uma alteração só por arquivo
+        Map<String, Long> quantidades = nomes.stream()
+                .collect(Collectors.groupingBy(Function.identity(), LinkedHashMap::new, Collectors.counting()));
+
+        transacao.executeWithoutResult(status -> quantidades.forEach((nome, quantidade) -> {
+            // Sem registro na tabela: arquivo que nenhum produto conta, também vai para a fila
+            boolean semRegistro = imagemRepository.removerReferencias(nome, quantidade.intValue()) == 0;
+
+            if (semRegistro || imagemRepository.removerSemReferencias(nome) > 0) {
+                remocaoRepository.save(new ImagemRemocao(nome));
+                log.info("Imagem sem referências, agendada para remoção: {}", nome);
             }
+        }));
+    }
+
+    // Apaga o arquivo (e as miniaturas) se nenhum produto usa. Conferência e remoção sob a trava do arquivo:
+    // um upload do mesmo conteúdo (em qualquer instância) entre o agendamento e a limpeza volta a
+    // referenciá-lo e o arquivo fica
+    public boolean removerSeSemReferencias(String nome) {
+        try {
+            return Boolean.TRUE.equals(transacaoPropria.execute(status -> {
+                travar(nome);
+
+                if (imagemRepository.existsById(nome) || produtoRepository.existsByImagemPath(nome)) {
+                    log.info("Imagem voltou a ser usada, mantida: {}", nome);
+                    return false;
+                }
 
-            // Cria novo path diretório + novo nome imagem
-            Path caminhoCompleto = diretorio.resolve(novoNome);
+                remover(nome);
+                derivadas.deletar(nome);
+                log.warn("Imagem removida: {}", nome);
 
-            // salva a imagem no disco
-            file.transferTo(caminhoCompleto);
+                return true;
+            }));
 
-            log.info("Imagem salva: {}", novoNome);
+        } catch (UncheckedIOException e) {
+            log.error("Erro ao deletar a imagem: {}", nome, e);
+            throw new RuntimeException("Erro ao deletar imagem", e.getCause());
+        }
+    }
+
+    private void devolverSeVoltar(String nome) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    log.warn("Transação desfeita, devolvendo a referência da imagem: {}", nome);
+                    transacaoPropria.executeWithoutResult(s -> liberar(nome));
+                }
+            }
+        });
+    }
 
-            return novoNome;
+    // String.hashCode é o mesmo em toda JVM: todas as instâncias travam a mesma linha para o mesmo arquivo
+    private void travar(String nome) {
+        travaRepository.travar(Math.floorMod(nome.hashCode(), QUANTIDADE_TRAVAS))
+                .orElseThrow(() -> new IllegalStateException("Trava de imagem não encontrada: " + nome));
+    }
 
+    // Operações do storage dentro das transações (lambdas): IOException sai como UncheckedIOException
+    private boolean existe(String nome) {
+        try {
+            return storage.existe(nome);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void gravar(String nome, Path arquivo) {
+        try {
+            storage.gravar(nome, arquivo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void remover(String nome) {
+        try {
+            storage.remover(nome);
         } catch (IOException e) {
-            log.error("Erro ao salvar a imagem: {}", novoNome, e);
-            throw new RuntimeException("Erro ao salvar imagem", e);
+            throw new UncheckedIOException(e);
         }
     }
 
-    public void deletar(String nomeArquivo) {
+    private static void apagar(Path arquivo) {
         try {
-            Path caminho = Paths.get(uploadDir).resolve(nomeArquivo);
-            Files.deleteIfExists(caminho);
-            log.warn("Imagem removida: {}", nomeArquivo);
+            Files.deleteIfExists(arquivo);
         } catch (IOException e) {
-            log.error("Erro ao deletar a imagem: {}", nomeArquivo, e);
-            throw new RuntimeException("Erro ao deletar imagem", e);
+            throw new UncheckedIOException(e);
         }
     }
 
+    // Lido em blocos: o arquivo inteiro nunca fica na memória
+    private String hash(Path arquivo) {
+        try (InputStream entrada = Files.newInputStream(arquivo)) {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            byte[] bloco = new byte[64 * 1024];
+            int lidos;
+
+            while ((lidos = entrada.read(bloco)) != -1) {
+                sha256.update(bloco, 0, lidos);
+            }
+
+            return HexFormat.of().formatHex(sha256.digest());
+
+        } catch (IOException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Erro ao ler imagem", e);
+        }
+    }
+
+    private String extensaoPeloConteudo(Path arquivo) {
+        byte[] inicio;
+
+        try (InputStream entrada = Files.newInputStream(arquivo)) {
+            inicio = entrada.readNBytes(ASSINATURA_PNG.length);
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao ler imagem", e);
+        }
+
+        if (comecaCom(inicio, ASSINATURA_JPEG)) {
+            return ".jpg";
+        }
+
+        if (comecaCom(inicio, ASSINATURA_PNG)) {
+            return ".png";
+        }
+
+        throw new BadRequestException("Conteúdo do arquivo não é uma imagem JPG ou PNG");
+    }
+
+    private static boolean comecaCom(byte[] conteudo, byte[] assinatura) {
+        return conteudo.length >= assinatura.length
+                && Arrays.equals(conteudo, 0, assinatura.length, assinatura, 0, assinatura.length);
+    }
+
     private void validarImagem(MultipartFile imagem) {
         if (imagem == null || imagem.isEmpty()) {
             throw new BadRequestException("Arquivo de imagem é obrigatório");
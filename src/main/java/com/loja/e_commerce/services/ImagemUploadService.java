@@ -0,0 +1,207 @@
+package com.loja.e_commerce.services;
+
+import com.loja.e_commerce.dtos.produto.StatusUploadImagem;
+import com.loja.e_commerce.dtos.produto.UploadImagemResponseDTO;
+import com.loja.e_commerce.exceptions.BadRequestException;
+import com.loja.e_commerce.exceptions.ResourceNotFoundException;
+import com.loja.e_commerce.exceptions.ServiceUnavailableException;
+import com.loja.e_commerce.models.ImagemUpload;
+import com.loja.e_commerce.repositories.ImagemUploadRepository;
+import com.loja.e_commerce.repositories.ProdutoRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+// Upload de imagem em duas etapas: a requisição só grava o corpo em um arquivo temporário e responde 202;
+// validação do conteúdo, move e UPDATE do produto rodam no pool dedicado (fila limitada).
+// O status fica na tabela imagens_uploads: qualquer instância responde a consulta, mesmo depois de um restart
+@Slf4j
+@Service
+public class ImagemUploadService {
+
+    private final ProdutoRepository produtoRepository;
+    private final ProdutoService produtoService;
+    private final ImagemStorageService imagemStorage;
+    private final ImagemUploadRepository uploadRepository;
+    private final ThreadPoolTaskExecutor executor;
+
+    // Status consultado pelo cliente; depois disso é removido
+    private final Duration statusTtl;
+
+    // Sem terminar depois desse tempo, a instância que processava caiu: o temporário estava no disco dela
+    private final Duration tempoMaximo;
+
+    public ImagemUploadService(
+            ProdutoRepository produtoRepository,
+            ProdutoService produtoService,
+            ImagemStorageService imagemStorage,
+            ImagemUploadRepository uploadRepository,
+            @Value("${imagens.upload.threads:2}") int threads,
+            @Value("${imagens.upload.fila:50}") int fila,
+            @Value("${imagens.upload.status-ttl:1h}") Duration statusTtl,
+            @Value("${imagens.upload.tempo-maximo:15m}") Duration tempoMaximo) {
+
+        this.produtoRepository = produtoRepository;
+        this.produtoService = produtoService;
+        this.imagemStorage = imagemStorage;
+        this.uploadRepository = uploadRepository;
+        this.executor = criarExecutor(threads, fila);
+        this.statusTtl = statusTtl;
+        this.tempoMaximo = tempoMaximo;
+    }
+
+    public UploadImagemResponseDTO iniciar(Long idProduto, MultipartFile arquivo) {
+        // Erros simples respondem na hora (404/400), sem ocupar a fila
+        if (!produtoRepository.existsById(idProduto)) {
+            throw new ResourceNotFoundException("Produto não encontrado");
+        }
+
+        Path temporario = imagemStorage.receber(arquivo);
+
+        UploadImagemResponseDTO upload;
+
+        try {
+            // Montada antes de entrar na fila: a resposta 202 é sempre PENDENTE
+            upload = resposta(uploadRepository.save(new ImagemUpload(UUID.randomUUID().toString(), idProduto)));
+        } catch (RuntimeException e) {
+            apagar(temporario);
+            throw e;
+        }
+
+        try {
+            executor.execute(() -> processar(upload.id(), idProduto, temporario));
+        } catch (TaskRejectedException e) {
+            uploadRepository.deleteById(upload.id());
+            apagar(temporario);
+
+            log.warn("Fila de uploads cheia, upload recusado: produto={}", idProduto);
+            throw new ServiceUnavailableException("Muitos uploads em andamento, tente novamente em instantes");
+        }
+
+        log.info("Upload de imagem aceito: id={}, produto={}", upload.id(), idProduto);
+
+        return upload;
+    }
+
+    public UploadImagemResponseDTO status(Long idProduto, String uploadId) {
+        ImagemUpload upload = uploadRepository.findById(uploadId)
+                .filter(u -> u.getProdutoId().equals(idProduto))
+                .filter(u -> u.getCriadoEm().isAfter(LocalDateTime.now().minus(statusTtl)))
+                .orElseThrow(() -> new ResourceNotFoundException("Upload não encontrado"));
+
+        boolean emAndamento = upload.getStatus() == StatusUploadImagem.PENDENTE
+                || upload.getStatus() == StatusUploadImagem.PROCESSANDO;
+
+        if (emAndamento && upload.getAtualizadoEm().isBefore(LocalDateTime.now().minus(tempoMaximo))) {
+            return new UploadImagemResponseDTO(upload.getId(), upload.getProdutoId(), StatusUploadImagem.ERRO,
+                    null, "Upload interrompido, envie a imagem novamente", upload.getAtualizadoEm());
+        }
+
+        return resposta(upload);
+    }
+
+    // Status vencidos não são mais consultados; com várias instâncias o DELETE só repete em vão
+    @Scheduled(
+            initialDelayString = "${imagens.upload.limpeza-intervalo:10m}",
+            fixedDelayString = "${imagens.upload.limpeza-intervalo:10m}")
+    @Transactional
+    public int removerVencidos() {
+        int removidos = uploadRepository.removerCriadosAntesDe(LocalDateTime.now().minus(statusTtl));
+
+        if (removidos > 0) {
+            log.info("Status de upload vencidos removidos: {}", removidos);
+        }
+
+        return removidos;
+    }
+
+    private void processar(String uploadId, Long idProduto, Path temporario) {
+        atualizar(uploadId, StatusUploadImagem.PROCESSANDO, null, null);
+
+        StatusUploadImagem status = StatusUploadImagem.ERRO;
+        String imagemUrl = null;
+        String mensagem = null;
+
+        try {
+            imagemUrl = produtoService.salvarImagem(idProduto, temporario);
+            status = StatusUploadImagem.CONCLUIDO;
+
+        } catch (BadRequestException | ResourceNotFoundException e) {
+            log.warn("Upload de imagem recusado: id={}, produto={}, motivo={}", uploadId, idProduto, e.getMessage());
+            mensagem = e.getMessage();
+
+        } catch (Exception e) {
+            log.error("Erro ao processar upload de imagem: id={}, produto={}", uploadId, idProduto, e);
+            mensagem = "Erro interno ao salvar imagem";
+        }
+
+        // Já movido quando deu certo; em caso de erro não pode sobrar no disco.
+        // O status final só aparece depois da limpeza
+        apagar(temporario);
+        atualizar(uploadId, status, imagemUrl, mensagem);
+    }
+
+    // Pool próprio (não é bean para não substituir o executor padrão do Spring MVC).
+    // Fila limitada: com ela cheia o upload é recusado (503) em vez de acumular arquivos sem limite.
+    // Fica em threads de plataforma mesmo com spring.threads.virtual.enabled: hash e miniaturas gastam CPU,
+    // e o número de threads é justamente o limite de uploads processados ao mesmo tempo
+    private static ThreadPoolTaskExecutor criarExecutor(int threads, int fila) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(fila);
+        executor.setThreadNamePrefix("imagem-upload-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+
+        return executor;
+    }
+
+    // Termina os uploads já aceitos antes de desligar
+    @PreDestroy
+    void encerrar() {
+        executor.shutdown();
+    }
+
+    private void atualizar(String uploadId, StatusUploadImagem status, String imagemUrl, String mensagem) {
+        try {
+            uploadRepository.findById(uploadId).ifPresent(upload -> {
+                upload.setStatus(status);
+                upload.setImagemUrl(imagemUrl);
+                upload.setMensagem(mensagem);
+                upload.setAtualizadoEm(LocalDateTime.now());
+                uploadRepository.save(upload);
+            });
+        } catch (RuntimeException e) {
+            // A imagem já foi (ou não) salva; só o status fica para trás e vira "interrompido" depois do tempo máximo
+            log.error("Erro ao atualizar o status do upload {} para {}", uploadId, status, e);
+        }
+    }
+
+    private static UploadImagemResponseDTO resposta(ImagemUpload upload) {
+        return new UploadImagemResponseDTO(upload.getId(), upload.getProdutoId(), upload.getStatus(),
+                upload.getImagemUrl(), upload.getMensagem(), upload.getAtualizadoEm());
+    }
+
+    private void apagar(Path temporario) {
+        try {
+            Files.deleteIfExists(temporario);
+        } catch (IOException e) {
+            log.error("Erro ao apagar arquivo temporário de upload: {}", temporario, e);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.loja.e_commerce.services;
+
+import com.loja.e_commerce.dtos.produto.ProdutoRequestDTO;
+
+// Uma linha do arquivo importado: o produto lido ou o erro de leitura (ex.: preço que não é número)
+public record LinhaImportacao(
+        int linha,
+        ProdutoRequestDTO produto,
+        String erro
+) {
+    public static LinhaImportacao valida(int linha, ProdutoRequestDTO produto) {
+        return new LinhaImportacao(linha, produto, null);
+    }
+
+    public static LinhaImportacao invalida(int linha, String erro) {
+        return new LinhaImportacao(linha, null, erro);
+    }
+}
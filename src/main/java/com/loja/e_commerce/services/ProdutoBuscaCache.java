@@ -0,0 +1,140 @@
+package com.loja.e_commerce.services;
+
+import com.loja.e_commerce.configs.CacheConfig;
+import com.loja.e_commerce.dtos.PageResponseDTO;
+import com.loja.e_commerce.dtos.produto.ProdutoFiltrosDTO;
+import com.loja.e_commerce.dtos.produto.ProdutoResponseDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+// Resultados da busca de produtos (páginas e totais) em cache por combinação de filtros,
+// e leitura em lote do cache de detalhe por id.
+// Qualquer escrita em produto invalida as entradas da categoria afetada e as sem filtro de categoria
+@Slf4j
+@Component
+public class ProdutoBuscaCache {
+
+    private final CacheManager cacheManager;
+
+    public ProdutoBuscaCache(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    // Com o cache frio, só uma requisição por chave executa a busca; as outras esperam o resultado
+    public PageResponseDTO<ProdutoResponseDTO> pagina(
+            ProdutoFiltrosDTO dto, Supplier<PageResponseDTO<ProdutoResponseDTO>> busca) {
+
+        return cache(CacheConfig.PRODUTOS_BUSCA).get(ProdutoPaginaChave.de(dto), busca::get);
+    }
+
+    // COUNT exato guardado por alguns segundos (TTL do cache) para a mesma combinação de filtros
+    public long contagem(ProdutoFiltrosDTO dto, Supplier<Long> contagem) {
+        Long total = cache(CacheConfig.PRODUTOS_CONTAGEM).get(ProdutoBuscaChave.de(dto), contagem::get);
+
+        return total != null ? total : 0;
+    }
+
+    // Detalhes por id no mesmo cache do GET /produtos/{id}: só os ids ausentes vão ao banco (uma consulta)
+    public Map<Long, ProdutoResponseDTO> detalhes(
+            Collection<Long> ids, Function<Collection<Long>, List<ProdutoResponseDTO>> buscaFaltantes) {
+
+        Cache cache = cache(CacheConfig.PRODUTO);
+        Map<Long, ProdutoResponseDTO> encontrados = new HashMap<>();
+        List<Long> faltantes = new ArrayList<>();
+
+        for (Long id : ids) {
+            ProdutoResponseDTO produto = cache.get(id, ProdutoResponseDTO.class);
+
+            if (produto != null) {
+                encontrados.put(id, produto);
+            } else {
+                faltantes.add(id);
+            }
+        }
+
+        if (!faltantes.isEmpty()) {
+            for (ProdutoResponseDTO produto : buscaFaltantes.apply(faltantes)) {
+                cache.put(produto.id(), produto);
+                encontrados.put(produto.id(), produto);
+            }
+        }
+
+        log.debug("Detalhes de produtos: ids={}, do cache={}", ids.size(), ids.size() - faltantes.size());
+
+        return encontrados;
+    }
+
+    // Dentro de uma transação, só remove depois do commit (antes disso a busca ainda veria o dado antigo)
+    public void invalidarCategorias(Long... categoriaIds) {
+        Set<Long> ids = Arrays.stream(categoriaIds)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        depoisDoCommit(() -> remover(ids));
+    }
+
+    // Escritas em lote sem filtro de categoria podem afetar qualquer busca
+    public void invalidarTudo() {
+        depoisDoCommit(() -> {
+            cache(CacheConfig.PRODUTOS_BUSCA).clear();
+            cache(CacheConfig.PRODUTOS_CONTAGEM).clear();
+
+            log.debug("Cache da busca de produtos invalidado por completo");
+        });
+    }
+
+    private void depoisDoCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+
+    private void remover(Set<Long> categoriaIds) {
+        // Busca sem categoria inclui produtos de todas as categorias
+        Predicate<ProdutoBuscaChave> afetada =
+                filtros -> filtros.categoriaId() == null || categoriaIds.contains(filtros.categoriaId());
+
+        removerSe(CacheConfig.PRODUTOS_BUSCA, chave -> afetada.test(((ProdutoPaginaChave) chave).filtros()));
+        removerSe(CacheConfig.PRODUTOS_CONTAGEM, chave -> afetada.test((ProdutoBuscaChave) chave));
+
+        log.debug("Cache da busca de produtos invalidado: categorias={}", categoriaIds);
+    }
+
+    private void removerSe(String nome, Predicate<Object> afetada) {
+        Cache cache = cache(nome);
+
+        if (cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            caffeine.asMap().keySet().removeIf(afetada);
+        } else {
+            cache.clear();
+        }
+    }
+
+    private Cache cache(String nome) {
+        return Objects.requireNonNull(cacheManager.getCache(nome), nome);
+    }
+}
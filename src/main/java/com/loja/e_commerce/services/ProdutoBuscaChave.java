@@ -0,0 +1,34 @@
+package com.loja.e_commerce.services;
+
+import com.loja.e_commerce.dtos.produto.ProdutoFiltrosDTO;
+
+import java.math.BigDecimal;
+
+// Filtros normalizados para servir de chave de cache ("Mouse" e "mouse", 10 e 10.00 viram a mesma chave)
+public record ProdutoBuscaChave(
+        String nome,
+        BigDecimal precoMin,
+        BigDecimal precoMax,
+        Long categoriaId,
+        boolean relevancia
+) {
+    public static ProdutoBuscaChave de(ProdutoFiltrosDTO dto) {
+        return new ProdutoBuscaChave(
+                normalizar(dto.getNome()),
+                normalizar(dto.getPrecoMin()),
+                normalizar(dto.getPrecoMax()),
+                dto.getCategoriaId(),
+                Boolean.TRUE.equals(dto.getRelevancia())
+        );
+    }
+
+    // Mesma regra do ProdutoSpecification.nomeContem: vazio não filtra e a busca ignora maiúsculas
+    private static String normalizar(String nome) {
+        return nome == null || nome.isBlank() ? null : nome.toLowerCase();
+    }
+
+    // BigDecimal.equals compara a escala também
+    private static BigDecimal normalizar(BigDecimal valor) {
+        return valor == null ? null : valor.stripTrailingZeros();
+    }
+}
@@ -0,0 +1,233 @@
+package com.loja.e_commerce.services;
+
+import com.loja.e_commerce.dtos.produto.ErroImportacaoDTO;
+import com.loja.e_commerce.dtos.produto.ImportacaoResponseDTO;
+import com.loja.e_commerce.dtos.produto.ProdutoChaveDTO;
+import com.loja.e_commerce.dtos.produto.ProdutoRequestDTO;
+import com.loja.e_commerce.mappers.ProdutoMapper;
+import com.loja.e_commerce.models.Categoria;
+import com.loja.e_commerce.models.Produto;
+import com.loja.e_commerce.repositories.CategoriaRepository;
+import com.loja.e_commerce.repositories.ProdutoRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Importação em massa: valida em memória, resolve categorias e duplicados com uma consulta por lote
+// e grava cada lote em uma transação com INSERTs em batch (hibernate.jdbc.batch_size)
+@Slf4j
+@Service
+public class ProdutoImportacaoService {
+
+    private final ProdutoRepository produtoRepository;
+    private final CategoriaRepository categoriaRepository;
+    private final ProdutoMapper mapper;
+    private final ProdutoBuscaCache buscaCache;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoLote;
+
+    public ProdutoImportacaoService(
+            ProdutoRepository produtoRepository,
+            CategoriaRepository categoriaRepository,
+            ProdutoMapper mapper,
+            ProdutoBuscaCache buscaCache,
+            Validator validator,
+            PlatformTransactionManager transactionManager,
+            @Value("${importacao.produtos.tamanho-lote:500}") int tamanhoLote) {
+
+        this.produtoRepository = produtoRepository;
+        this.categoriaRepository = categoriaRepository;
+        this.mapper = mapper;
+        this.buscaCache = buscaCache;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    public ImportacaoResponseDTO importar(List<ProdutoRequestDTO> produtos) {
+        List<LinhaImportacao> linhas = new ArrayList<>(produtos.size());
+
+        for (int i = 0; i < produtos.size(); i++) {
+            ProdutoRequestDTO produto = produtos.get(i);
+
+            // [{...}, null]: erro da linha, como qualquer outra linha mal formada
+            linhas.add(produto == null
+                    ? LinhaImportacao.invalida(i + 1, "Linha sem produto")
+                    : LinhaImportacao.valida(i + 1, produto));
+        }
+
+        return importar(linhas.iterator());
+    }
+
+    // Consome as linhas aos poucos (CSV é lido sob demanda): no máximo um lote em memória
+    public ImportacaoResponseDTO importar(Iterator<LinhaImportacao> linhas) {
+        Importacao importacao = new Importacao();
+        List<LinhaImportacao> lote = new ArrayList<>(tamanhoLote);
+
+        while (linhas.hasNext()) {
+            lote.add(linhas.next());
+
+            if (lote.size() == tamanhoLote) {
+                importarLote(lote, importacao);
+                lote.clear();
+            }
+        }
+
+        if (!lote.isEmpty()) {
+            importarLote(lote, importacao);
+        }
+
+        log.info("Importação de produtos concluída: linhas={}, importados={}, erros={}",
+                importacao.totalLinhas, importacao.importados, importacao.erros.size());
+
+        importacao.erros.sort(Comparator.comparingInt(ErroImportacaoDTO::linha));
+
+        return new ImportacaoResponseDTO(importacao.totalLinhas, importacao.importados, importacao.erros);
+    }
+
+    private void importarLote(List<LinhaImportacao> lote, Importacao importacao) {
+        importacao.totalLinhas += lote.size();
+
+        List<LinhaImportacao> candidatas = new ArrayList<>();
+
+        for (LinhaImportacao linha : lote) {
+            String erro = linha.erro() != null ? linha.erro() : validar(linha.produto());
+
+            if (erro != null) {
+                importacao.erro(linha, erro);
+            } else {
+                candidatas.add(linha);
+            }
+        }
+
+        if (candidatas.isEmpty()) {
+            return;
+        }
+
+        // Erros de categoria/duplicidade só entram no relatório se o lote for gravado
+        List<ErroImportacaoDTO> errosLote = new ArrayList<>();
+
+        try {
+            List<Produto> gravados = transactionTemplate.execute(status -> gravar(candidatas, importacao, errosLote));
+
+            importacao.importados += gravados.size();
+            importacao.erros.addAll(errosLote);
+
+            buscaCache.invalidarCategorias(gravados.stream()
+                    .map(produto -> produto.getCategoria().getId())
+                    .distinct()
+                    .toArray(Long[]::new));
+
+        } catch (DataAccessException e) {
+            // Falha inesperada no banco: o lote inteiro volta, os outros lotes seguem
+            log.error("Erro ao gravar lote da importação", e);
+            candidatas.forEach(linha -> importacao.erro(linha, "Erro ao gravar o lote desta linha"));
+        }
+    }
+
+    private List<Produto> gravar(List<LinhaImportacao> candidatas, Importacao importacao,
+                                 List<ErroImportacaoDTO> erros) {
+        Set<Long> categoriaIds = candidatas.stream()
+                .map(linha -> linha.produto().getCategoriaId())
+                .collect(Collectors.toSet());
+
+        // 1 SELECT para todas as categorias do lote
+        Map<Long, Categoria> categorias = categoriaRepository.findAllById(categoriaIds).stream()
+                .collect(Collectors.toMap(Categoria::getId, Function.identity()));
+
+        // 1 SELECT para todos os nomes do lote que já existem nessas categorias
+        Set<String> nomes = candidatas.stream()
+                .map(linha -> linha.produto().getNome().toUpperCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+
+        Set<String> existentes = produtoRepository.buscarExistentes(categorias.keySet(), nomes).stream()
+                .map(this::chave)
+                .collect(Collectors.toSet());
+
+        List<Produto> produtos = new ArrayList<>();
+        Set<String> gravadosNoLote = new HashSet<>();
+
+        for (LinhaImportacao linha : candidatas) {
+            ProdutoRequestDTO dto = linha.produto();
+            Categoria categoria = categorias.get(dto.getCategoriaId());
+            String chave = chave(new ProdutoChaveDTO(dto.getNome(), dto.getCategoriaId()));
+
+            if (categoria == null) {
+                erros.add(erro(linha, "Categoria não encontrada"));
+            } else if (!categoria.getAtivo()) {
+                erros.add(erro(linha, "Categoria inativa"));
+            } else if (existentes.contains(chave)) {
+                erros.add(erro(linha, "Produto já existe nessa categoria"));
+            } else if (importacao.chavesImportadas.contains(chave) || !gravadosNoLote.add(chave)) {
+                erros.add(erro(linha, "Produto repetido no arquivo"));
+            } else {
+                // Sem "ativo" no arquivo: o produto entra ativo (coluna não aceita nulo)
+                if (dto.getAtivo() == null) {
+                    dto.setAtivo(true);
+                }
+                produtos.add(mapper.toEntity(dto, categoria));
+            }
+        }
+
+        // Ids já reservados pela sequência: os INSERTs saem em batch no commit
+        List<Produto> gravados = produtoRepository.saveAll(produtos);
+
+        // Só vale para os próximos lotes se este for gravado
+        importacao.chavesImportadas.addAll(gravadosNoLote);
+
+        return gravados;
+    }
+
+    private String validar(ProdutoRequestDTO dto) {
+        Set<ConstraintViolation<ProdutoRequestDTO>> violacoes = validator.validate(dto);
+
+        if (violacoes.isEmpty()) {
+            return null;
+        }
+
+        return violacoes.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static ErroImportacaoDTO erro(LinhaImportacao linha, String mensagem) {
+        String nome = linha.produto() != null ? linha.produto().getNome() : null;
+
+        return new ErroImportacaoDTO(linha.linha(), nome, mensagem);
+    }
+
+    // Mesma regra do existsByNomeIgnoreCaseAndCategoria_Id: nome sem diferenciar maiúsculas
+    private String chave(ProdutoChaveDTO produto) {
+        return produto.categoriaId() + ":" + produto.nome().toUpperCase(Locale.ROOT);
+    }
+
+    // Estado acumulado entre os lotes
+    private static class Importacao {
+        private int totalLinhas;
+        private int importados;
+        private final List<ErroImportacaoDTO> erros = new ArrayList<>();
+        private final Set<String> chavesImportadas = new HashSet<>();
+
+        private void erro(LinhaImportacao linha, String mensagem) {
+            erros.add(ProdutoImportacaoService.erro(linha, mensagem));
+        }
+    }
+}
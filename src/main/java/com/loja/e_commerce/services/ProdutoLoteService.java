@@ -0,0 +1,143 @@
+package com.loja.e_commerce.services;
+
+import com.loja.e_commerce.configs.CacheConfig;
+import com.loja.e_commerce.dtos.produto.AtualizacaoLoteRequestDTO;
+import com.loja.e_commerce.dtos.produto.OperacaoLoteResponseDTO;
+import com.loja.e_commerce.dtos.produto.ProdutoFiltrosDTO;
+import com.loja.e_commerce.exceptions.BadRequestException;
+import com.loja.e_commerce.models.Produto;
+import com.loja.e_commerce.repositories.ProdutoRepository;
+import com.loja.e_commerce.repositories.specification.ProdutoSpecification;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.List;
+
+// Alterações em massa por filtro: um UPDATE/DELETE só, em vez de um atualizar/deletar por produto
+@Slf4j
+@Service
+public class ProdutoLoteService {
+
+    private static final BigDecimal CEM = BigDecimal.valueOf(100);
+
+    // Reajuste máximo em um lote (11x o preço)
+    private static final BigDecimal PERCENTUAL_MAXIMO = BigDecimal.valueOf(1000);
+
+    // Com fator >= 0.5 o menor preço (0.01) ainda arredonda para 0.01
+    private static final BigDecimal FATOR_MINIMO_SEGURO = new BigDecimal("0.5");
+
+    private final ProdutoRepository produtoRepository;
+    private final ProdutoBuscaCache buscaCache;
+    private final ImagemStorageService imagemStorage;
+
+    public ProdutoLoteService(
+            ProdutoRepository produtoRepository,
+            ProdutoBuscaCache buscaCache,
+            ImagemStorageService imagemStorage) {
+
+        this.produtoRepository = produtoRepository;
+        this.buscaCache = buscaCache;
+        this.imagemStorage = imagemStorage;
+    }
+
+    // Os ids afetados não são carregados: o cache de detalhe é esvaziado inteiro (após o commit)
+    @CacheEvict(cacheNames = CacheConfig.PRODUTO, allEntries = true)
+    @Transactional
+    public OperacaoLoteResponseDTO atualizar(AtualizacaoLoteRequestDTO dto) {
+        ProdutoFiltrosDTO filtros = dto.getFiltros();
+
+        if (dto.getAtivo() == null && dto.getPercentualPreco() == null) {
+            throw new BadRequestException("Informe ao menos uma alteração (ativo ou percentualPreco)");
+        }
+
+        BigDecimal percentual = dto.getPercentualPreco();
+
+        if (percentual != null && (percentual.compareTo(CEM.negate()) <= 0 || percentual.compareTo(PERCENTUAL_MAXIMO) > 0)) {
+            throw new BadRequestException("Percentual de preço deve ser maior que -100 e no máximo " + PERCENTUAL_MAXIMO);
+        }
+
+        Specification<Produto> spec = filtros(filtros);
+
+        // 10% => preco * 1.10
+        BigDecimal fatorPreco = percentual == null ? null
+                : BigDecimal.ONE.add(percentual.divide(CEM, MathContext.DECIMAL64));
+
+        // Só um aumento estoura NUMERIC(10, 2) e só um desconto acima de 50% leva 0.01 a 0.00:
+        // entre os dois, nenhum preço sai da faixa e o lote continua sendo um UPDATE só
+        boolean podeSairDaFaixa = fatorPreco != null
+                && (fatorPreco.compareTo(BigDecimal.ONE) > 0 || fatorPreco.compareTo(FATOR_MINIMO_SEGURO) < 0);
+
+        if (podeSairDaFaixa) {
+            long foraDaFaixa = produtoRepository.contarPrecoForaDaFaixa(spec, fatorPreco);
+
+            if (foraDaFaixa > 0) {
+                throw new BadRequestException(foraDaFaixa + " produto(s) ficariam com preço fora da faixa permitida"
+                        + " (maior que zero e até " + Produto.PRECO_MAXIMO + ")");
+            }
+        }
+
+        int afetados = produtoRepository.atualizarEmLote(spec, dto.getAtivo(), fatorPreco);
+
+        invalidarBuscas(filtros);
+
+        log.info("Atualização em lote: filtros={}, ativo={}, percentualPreco={}, afetados={}",
+                filtros, dto.getAtivo(), dto.getPercentualPreco(), afetados);
+
+        return new OperacaoLoteResponseDTO(afetados);
+    }
+
+    @CacheEvict(cacheNames = CacheConfig.PRODUTO, allEntries = true)
+    @Transactional
+    public OperacaoLoteResponseDTO deletar(ProdutoFiltrosDTO filtros) {
+        Specification<Produto> spec = filtros(filtros);
+
+        // Uma consulta só para as imagens (uma linha por produto); os arquivos que ficarem sem
+        // nenhum produto entram na fila de remoção nesta mesma transação e saem em segundo plano
+        List<String> imagens = produtoRepository.buscarImagens(spec);
+
+        long afetados = produtoRepository.delete(spec);
+
+        imagemStorage.liberar(imagens);
+        invalidarBuscas(filtros);
+
+        log.warn("Exclusão em lote: filtros={}, afetados={}, imagens={}", filtros, afetados, imagens.size());
+
+        return new OperacaoLoteResponseDTO(afetados);
+    }
+
+    // Sem o filtro de ativos da listagem: o lote alcança também os produtos já desativados
+    private Specification<Produto> filtros(ProdutoFiltrosDTO dto) {
+        validarFiltros(dto);
+
+        return ProdutoSpecification.nomeContem(dto.getNome())
+                .and(ProdutoSpecification.precoMin(dto.getPrecoMin()))
+                .and(ProdutoSpecification.precoMax(dto.getPrecoMax()))
+                .and(ProdutoSpecification.categoriaId(dto.getCategoriaId()));
+    }
+
+    private void validarFiltros(ProdutoFiltrosDTO dto) {
+        // Evita alterar/excluir o catálogo inteiro por engano
+        if ((dto.getNome() == null || dto.getNome().isBlank()) && dto.getPrecoMin() == null
+                && dto.getPrecoMax() == null && dto.getCategoriaId() == null) {
+            throw new BadRequestException("Informe ao menos um filtro (nome, precoMin, precoMax ou categoriaId)");
+        }
+
+        if (dto.getPrecoMin() != null && dto.getPrecoMax() != null &&
+                dto.getPrecoMin().compareTo(dto.getPrecoMax()) > 0) {
+            throw new BadRequestException("Preço mínimo não pode ser maior que o máximo");
+        }
+    }
+
+    private void invalidarBuscas(ProdutoFiltrosDTO filtros) {
+        if (filtros.getCategoriaId() != null) {
+            buscaCache.invalidarCategorias(filtros.getCategoriaId());
+        } else {
+            buscaCache.invalidarTudo();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.loja.e_commerce.services;
+
+import com.loja.e_commerce.dtos.produto.ModoContagem;
+import com.loja.e_commerce.dtos.produto.ProdutoFiltrosDTO;
+
+// Chave de uma página da busca: filtros normalizados + paginação + modo de contagem
+public record ProdutoPaginaChave(
+        ProdutoBuscaChave filtros,
+        Integer pagina,
+        Integer tamanho,
+        ModoContagem contagem
+) {
+    public static ProdutoPaginaChave de(ProdutoFiltrosDTO dto) {
+        return new ProdutoPaginaChave(
+                ProdutoBuscaChave.de(dto),
+                dto.getPagina(),
+                dto.getTamanho(),
+                dto.getContagem() != null ? dto.getContagem() : ModoContagem.EXATA
+        );
+    }
+}
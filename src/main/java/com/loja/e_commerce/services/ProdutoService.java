@@ -1,9 +1,14 @@
 package com.loja.e_commerce.services;
 
+import com.loja.e_commerce.configs.CacheConfig;
+import com.loja.e_commerce.dtos.CursorPageResponseDTO;
 import com.loja.e_commerce.dtos.PageResponseDTO;
+import com.loja.e_commerce.dtos.categoria.CategoriaResponseDTO;
+import com.loja.e_commerce.dtos.produto.ModoContagem;
 import com.loja.e_commerce.dtos.produto.ProdutoFiltrosDTO;
 import com.loja.e_commerce.dtos.produto.ProdutoRequestDTO;
 import com.loja.e_commerce.dtos.produto.ProdutoResponseDTO;
+import com.loja.e_commerce.dtos.produto.ProdutosPorIdsResponseDTO;
 import com.loja.e_commerce.exceptions.BadRequestException;
 import com.loja.e_commerce.exceptions.ConflictException;
 import com.loja.e_commerce.exceptions.ResourceNotFoundException;
@@ -14,43 +19,71 @@ import com.loja.e_commerce.repositories.CategoriaRepository;
 import com.loja.e_commerce.repositories.ProdutoRepository;
 import com.loja.e_commerce.repositories.specification.ProdutoSpecification;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 public class ProdutoService {
 
+    // Limite do GET /produtos?ids= (tamanho do IN e da resposta)
+    static final int MAXIMO_IDS = 200;
+
     private final ProdutoRepository produtoRepository;
     private final CategoriaRepository categoriaRepository;
+    private final CategoriaService categoriaService;
     private final ProdutoMapper mapper;
     private final ImagemStorageService imagemStorage;
+    private final ProdutoBuscaCache buscaCache;
+    private final ImagemDerivadaService imagemDerivadas;
 
     //Injeção de dependência
     public ProdutoService(
             ProdutoRepository produtoRepository,
             CategoriaRepository categoriaRepository,
+            CategoriaService categoriaService,
             ProdutoMapper mapper,
-            ImagemStorageService imagemStorage) {
+            ImagemStorageService imagemStorage,
+            ProdutoBuscaCache buscaCache,
+            ImagemDerivadaService imagemDerivadas) {
 
         this.produtoRepository = produtoRepository;
         this.categoriaRepository = categoriaRepository;
+        this.categoriaService = categoriaService;
         this.mapper = mapper;
         this.imagemStorage = imagemStorage;
+        this.buscaCache = buscaCache;
+        this.imagemDerivadas = imagemDerivadas;
     }
 
     @Transactional //Se algo quebrar não salva (Rollback)
     public ProdutoResponseDTO criar(ProdutoRequestDTO dto) {
 
-        Categoria categoria = categoriaRepository.findById(dto.getCategoriaId())
-                .orElseThrow(() -> new ResourceNotFoundException("Categoria não encontrada"));
+        CategoriaResponseDTO categoria = categoriaService.buscarPorId(dto.getCategoriaId());
 
-        if (!categoria.getAtivo()) {
+        if (!categoria.ativo()) {
             log.warn("Tentativa de criar produto em categoria inativa: categoriaId={}",
                     dto.getCategoriaId());
             throw new BadRequestException("Categoria inativa");
@@ -62,26 +95,36 @@ public class ProdutoService {
         }
 
         //Mapeando para entidade
-        Produto produto = mapper.toEntity(dto, categoria);
+        Produto produto = mapper.toEntity(dto, referenciaCategoria(dto.getCategoriaId()));
 
         Produto produtoSalvo = produtoRepository.save(produto);
 
         log.info("Produto criado: nome={}, categoriaId={}",
-                produtoSalvo.getNome(), produtoSalvo.getCategoria().getId());
+                produtoSalvo.getNome(), dto.getCategoriaId());
 
-        return mapper.toResponse(produtoSalvo);
+        buscaCache.invalidarCategorias(dto.getCategoriaId());
+
+        return mapper.toResponse(produtoSalvo, categoria.nome());
     }
 
+    // Atualiza o cache com a resposta nova (aplicado só depois do commit)
+    @CachePut(cacheNames = CacheConfig.PRODUTO, key = "#id")
     @Transactional //Se algo quebrar não salva (Rollback)
     public ProdutoResponseDTO atualizar(Long id, ProdutoRequestDTO dto) {
 
         Produto produto = produtoRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado"));
 
-        Categoria categoria = categoriaRepository.findById(dto.getCategoriaId())
-                .orElseThrow(() -> new ResourceNotFoundException("Categoria não encontrada"));
+        // Cliente editou uma versão antiga: recusa em vez de sobrescrever (ex.: estoque) a alteração de outro
+        if (dto.getVersao() != null && !dto.getVersao().equals(produto.getVersao())) {
+            log.warn("Atualização com versão desatualizada: id={}, versaoEnviada={}, versaoAtual={}",
+                    id, dto.getVersao(), produto.getVersao());
+            throw new ConflictException("Produto foi alterado por outra requisição, recarregue e tente novamente");
+        }
+
+        CategoriaResponseDTO categoria = categoriaService.buscarPorId(dto.getCategoriaId());
 
-        if (!categoria.getAtivo()) {
+        if (!categoria.ativo()) {
             log.warn("Tentativa de atualizar produto em categoria inativa: categoriaId={}",
                     dto.getCategoriaId());
             throw new BadRequestException("Categoria inativa");
@@ -92,16 +135,24 @@ public class ProdutoService {
             throw new ConflictException("Produto já existe nessa categoria");
         }
 
+        // getId no proxy LAZY não dispara SELECT
+        Long categoriaAnteriorId = produto.getCategoria().getId();
+
         //Altera a referência produto trazida do repositório
-        mapper.toUpdateEntity(produto, dto, categoria);
+        mapper.toUpdateEntity(produto, dto, referenciaCategoria(dto.getCategoriaId()));
 
-        Produto produtoAtualizado = produtoRepository.save(produto);
+        // Flush já aqui: confere a versão no UPDATE e devolve a versão nova na resposta
+        Produto produtoAtualizado = produtoRepository.saveAndFlush(produto);
 
         log.info("Produto atualizado: id={}", produtoAtualizado.getId());
 
-        return mapper.toResponse(produtoAtualizado);
+        // Produto pode ter trocado de categoria: as duas listagens mudam
+        buscaCache.invalidarCategorias(categoriaAnteriorId, dto.getCategoriaId());
+
+        return comImagens(mapper.toResponse(produtoAtualizado, categoria.nome()));
     }
 
+    @Transactional(readOnly = true)
     public PageResponseDTO<ProdutoResponseDTO> buscar(ProdutoFiltrosDTO dto) {
         log.info("Buscando produtos com filtros: {}", dto);
 
@@ -110,29 +161,140 @@ public class ProdutoService {
         //Em sql: LIMIT size OFFSET (page * size)
         Pageable pageable = PageRequest.of(dto.getPagina(), dto.getTamanho());
 
-        //Aplicando os filtros de busca
-        Specification<Produto> spec =
-                ProdutoSpecification.ativo()
-                        .and(ProdutoSpecification.nomeContem(dto.getNome()))
-                        .and(ProdutoSpecification.precoMin(dto.getPrecoMin()))
-                        .and(ProdutoSpecification.precoMax(dto.getPrecoMax()))
-                        .and(ProdutoSpecification.categoriaId(dto.getCategoriaId()));
+        Specification<Produto> spec = filtros(dto);
+        ModoContagem contagem = dto.getContagem() != null ? dto.getContagem() : ModoContagem.EXATA;
+
+        // Combinações repetidas (vitrine de categoria, faixas de preço) saem do cache sem ir ao banco
+        return buscaCache.pagina(dto, () -> switch (contagem) {
+            // Projeção com JOIN na categoria: quantidade fixa de SQL por página
+            case EXATA -> PageResponseDTO.toResponse(
+                    produtoRepository.buscarResumos(spec, pageable).map(this::comImagens));
+
+            case NENHUMA -> PageResponseDTO.toResponse(
+                    produtoRepository.buscarFatia(spec, pageable).map(this::comImagens));
+
+            case ESTIMADA -> {
+                Slice<ProdutoResponseDTO> fatia = produtoRepository.buscarFatia(spec, pageable).map(this::comImagens);
+                long total = buscaCache.contagem(dto, () -> produtoRepository.contar(spec));
+                yield PageResponseDTO.toResponse(fatia, total);
+            }
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponseDTO<ProdutoResponseDTO> buscarPorCursor(ProdutoFiltrosDTO dto, String cursor) {
+        log.info("Buscando produtos por cursor: cursor={}, filtros={}", cursor, dto);
+
+        validarFiltros(dto);
+
+        // Keyset por id: a ordem por relevância se perderia sem aviso
+        if (Boolean.TRUE.equals(dto.getRelevancia())) {
+            throw new BadRequestException("Busca por relevância não é suportada na paginação por cursor");
+        }
+
+        int tamanho = dto.getTamanho() != null ? dto.getTamanho() : 10;
+        Long ultimoId = decodificarCursor(cursor);
+
+        // Em sql: WHERE id > ultimoId ORDER BY id LIMIT tamanho + 1 (custo igual em qualquer página)
+        Specification<Produto> spec = filtros(dto).and(ProdutoSpecification.idMaiorQue(ultimoId));
+
+        // Busca um a mais só para saber se existe próxima página
+        List<ProdutoResponseDTO> resultado =
+                produtoRepository.buscarResumos(spec, Sort.by("id"), tamanho + 1).stream()
+                        .map(this::comImagens)
+                        .toList();
+
+        boolean temProxima = resultado.size() > tamanho;
+        List<ProdutoResponseDTO> conteudo = temProxima ? resultado.subList(0, tamanho) : resultado;
 
-        Page<Produto> pagina = produtoRepository.findAll(spec, pageable);
+        String proximoCursor = temProxima
+                ? codificarCursor(conteudo.get(conteudo.size() - 1).id())
+                : null;
 
-        return mapper.toResponsePage(pagina);
+        return new CursorPageResponseDTO<>(conteudo, tamanho, proximoCursor, temProxima);
     }
 
+    // Vários produtos de uma vez (carrinho, lista de desejos): ids fora do cache saem em um único SELECT ... IN
+    @Transactional(readOnly = true)
+    public ProdutosPorIdsResponseDTO buscarPorIds(List<Long> ids) {
+        // Sem repetidos, mantendo a ordem pedida
+        Set<Long> unicos = ids == null ? Set.of() : ids.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        if (unicos.isEmpty()) {
+            throw new BadRequestException("Informe ao menos um id");
+        }
+
+        if (unicos.size() > MAXIMO_IDS) {
+            throw new BadRequestException("Máximo de " + MAXIMO_IDS + " ids por requisição");
+        }
+
+        log.info("Busca de produtos por ids: quantidade={}", unicos.size());
+
+        Map<Long, ProdutoResponseDTO> encontrados =
+                buscaCache.detalhes(unicos, faltantes -> produtoRepository.buscarResumosPorIds(faltantes).stream()
+                        .map(this::comImagens)
+                        .toList());
+
+        List<ProdutoResponseDTO> produtos = new ArrayList<>();
+        List<Long> naoEncontrados = new ArrayList<>();
+
+        for (Long id : unicos) {
+            ProdutoResponseDTO produto = encontrados.get(id);
+
+            if (produto != null) {
+                produtos.add(produto);
+            } else {
+                naoEncontrados.add(id);
+            }
+        }
+
+        return new ProdutosPorIdsResponseDTO(produtos, naoEncontrados);
+    }
+
+    // Mesmas regras da listagem, conferidas pelo controller antes de a exportação começar a ser enviada
+    public void validarExportacao(ProdutoFiltrosDTO dto) {
+        validarFiltros(dto);
+    }
+
+    // Exportação do catálogo: entrega os produtos um a um enquanto o cursor do banco avança
+    @Transactional(readOnly = true)
+    public long exportar(ProdutoFiltrosDTO dto, Consumer<ProdutoResponseDTO> destino) {
+        log.info("Exportando produtos com filtros: {}", dto);
+
+        validarFiltros(dto);
+
+        // Ordem por id: exportação estável, sem OFFSET e sem COUNT
+        try (Stream<ProdutoResponseDTO> produtos = produtoRepository.percorrerResumos(filtros(dto), Sort.by("id"))) {
+            AtomicLong total = new AtomicLong();
+
+            produtos.forEach(produto -> {
+                destino.accept(comImagens(produto));
+                total.incrementAndGet();
+            });
+
+            log.info("Exportação de produtos concluída: total={}", total.get());
+
+            return total.get();
+        }
+    }
+
+    // sync = true: com o cache frio, só uma thread vai ao banco por id e as outras esperam o resultado
+    @Cacheable(cacheNames = CacheConfig.PRODUTO, key = "#id", sync = true)
+    @Transactional(readOnly = true)
     public ProdutoResponseDTO buscarPorId(Long id) {
         log.info("Busca de produto por id={}", id);
 
-        Produto produto = produtoRepository.findById(id)
+        // Projeção com JOIN: não inicializa o proxy LAZY da categoria
+        return produtoRepository.buscarResumo(id)
+                .map(this::comImagens)
                 .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado"));
-
-        return mapper.toResponse(produto);
     }
 
 
+    @CacheEvict(cacheNames = CacheConfig.PRODUTO, key = "#id")
+    @Transactional //Exclusão e liberação da imagem confirmadas juntas
     public String deletar(Long id) {
 
         Produto produto = produtoRepository.findById(id)
@@ -141,10 +303,12 @@ public class ProdutoService {
         String imagemURL = produto.getImagemPath();
 
         produtoRepository.delete(produto);
+        buscaCache.invalidarCategorias(produto.getCategoria().getId());
 
+        // O arquivo não é apagado aqui: se ficar sem produtos, sai depois do commit em segundo plano
         if (imagemURL != null) {
-            imagemStorage.deletar(produto.getImagemPath());
-            log.warn("Imagem deletada com sucesso: imagemURL={}, do produto={}",
+            imagemStorage.liberar(imagemURL);
+            log.warn("Imagem liberada: imagemURL={}, do produto={}",
                     imagemURL, produto.getNome());
         }
 
@@ -153,7 +317,10 @@ public class ProdutoService {
         return "Produto excluído com sucesso";
     }
 
-    public String salvarImagem(Long idProduto, MultipartFile arquivo) {
+    // Última etapa do upload (já fora da requisição): move o arquivo recebido e grava o caminho no produto
+    @CacheEvict(cacheNames = CacheConfig.PRODUTO, key = "#idProduto")
+    @Transactional //Troca da imagem e liberação da antiga confirmadas juntas
+    public String salvarImagem(Long idProduto, Path arquivoRecebido) {
         Produto produto = produtoRepository.findById(idProduto)
                 .orElseThrow(() -> new ResourceNotFoundException("Produto não encontrado"));
 
@@ -162,23 +329,71 @@ public class ProdutoService {
             throw new BadRequestException("Produto inativo");
         }
 
-        String imagemURl = imagemStorage.salvar(arquivo, produto.getImagemPath());
+        String imagemAntiga = produto.getImagemPath();
 
-        try {
-            produto.setImagemPath(imagemURl);
-            produtoRepository.save(produto);
+        // Se esta transação voltar, o storage devolve a referência da nova (sem imagem órfã)
+        String imagemURl = imagemStorage.salvar(arquivoRecebido);
 
-            log.info("Imagem salva para produto id={}", idProduto);
+        produto.setImagemPath(imagemURl);
+        produtoRepository.save(produto);
+        buscaCache.invalidarCategorias(produto.getCategoria().getId());
 
-            return "Imagem salva com sucesso";
+        log.info("Imagem salva para produto id={}", idProduto);
 
-        } catch (Exception e) {
-            // Evita ter uma imagem sem um produto associado a ela caso não salve o caminho no banco
-            imagemStorage.deletar(imagemURl);
+        // A antiga só sai do disco depois do commit, quando o produto já aponta para a nova
+        if (imagemAntiga != null) {
+            imagemStorage.liberar(imagemAntiga);
+            log.warn("Imagem antiga liberada: {}", imagemAntiga);
+        }
+
+        return imagemURl;
+    }
+
+    // Só o nome do arquivo vem do banco: as URLs das miniaturas seguem a convenção de nomes das derivadas
+    private ProdutoResponseDTO comImagens(ProdutoResponseDTO produto) {
+        if (produto.imagemUrl() == null) {
+            return produto;
+        }
+
+        return produto.comImagens(imagemDerivadas.urls(produto.imagemUrl()));
+    }
 
-            log.error("Erro ao salvar imagem do produto {}", idProduto, e);
+    //Aplicando os filtros de busca
+    private Specification<Produto> filtros(ProdutoFiltrosDTO dto) {
+        // Relevância: busca sem acento pelos índices de texto e ordena pelos mais parecidos
+        Specification<Produto> nome = Boolean.TRUE.equals(dto.getRelevancia())
+                ? ProdutoSpecification.nomeCorresponde(dto.getNome())
+                        .and(ProdutoSpecification.ordenarPorRelevancia(dto.getNome()))
+                : ProdutoSpecification.nomeContem(dto.getNome());
+
+        return ProdutoSpecification.ativo()
+                .and(nome)
+                .and(ProdutoSpecification.precoMin(dto.getPrecoMin()))
+                .and(ProdutoSpecification.precoMax(dto.getPrecoMax()))
+                .and(ProdutoSpecification.categoriaId(dto.getCategoriaId()));
+    }
 
-            throw e;
+    // A categoria já foi validada pelo cache: para a FK basta a referência, sem SELECT
+    private Categoria referenciaCategoria(Long categoriaId) {
+        return categoriaRepository.getReferenceById(categoriaId);
+    }
+
+    // Cursor opaco para o cliente: Base64 do último id retornado
+    private String codificarCursor(Long ultimoId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(ultimoId.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Long decodificarCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null; // primeira página
+        }
+
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return Long.parseLong(valor);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Cursor inválido");
         }
     }
 
@@ -0,0 +1,64 @@
+package com.loja.e_commerce.services;
+
+import com.loja.e_commerce.dtos.CursorPageResponseDTO;
+import com.loja.e_commerce.dtos.produto.ProdutoFiltrosDTO;
+import com.loja.e_commerce.dtos.produto.ProdutoResponseDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+// GET /produtos em NDJSON: percorre o resultado por cursor (WHERE id > último) em lotes, cada lote em uma
+// transação curta do ProdutoService. Nenhuma conexão fica presa enquanto a resposta é escrita: um cliente
+// lento ocupa só a thread da resposta (virtual, com spring.threads.virtual.enabled), não o pool do banco
+@Slf4j
+@Service
+public class ProdutoStreamService {
+
+    private final ProdutoService produtoService;
+    private final int tamanhoLote;
+
+    public ProdutoStreamService(
+            ProdutoService produtoService,
+            @Value("${produtos.stream.tamanho-lote:500}") int tamanhoLote) {
+
+        this.produtoService = produtoService;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    // Envio dos lotes, um de cada vez; devolve o total enviado
+    @FunctionalInterface
+    public interface Transmissao {
+        long enviar(Consumer<List<ProdutoResponseDTO>> destino);
+    }
+
+    // O primeiro lote é lido já na requisição: filtro inválido ainda vira 400 antes do primeiro byte da resposta
+    public Transmissao abrir(ProdutoFiltrosDTO filtros) {
+        ProdutoFiltrosDTO dto = new ProdutoFiltrosDTO(
+                filtros.getNome(), filtros.getPrecoMin(), filtros.getPrecoMax(), filtros.getCategoriaId(),
+                null, tamanhoLote, null, false
+        );
+
+        CursorPageResponseDTO<ProdutoResponseDTO> primeiro = produtoService.buscarPorCursor(dto, "");
+
+        return destino -> {
+            CursorPageResponseDTO<ProdutoResponseDTO> lote = primeiro;
+            long total = lote.content().size();
+
+            destino.accept(lote.content());
+
+            while (lote.hasNext()) {
+                lote = produtoService.buscarPorCursor(dto, lote.nextCursor());
+                total += lote.content().size();
+
+                destino.accept(lote.content());
+            }
+
+            log.info("Stream de produtos concluído: total={}", total);
+
+            return total;
+        };
+    }
+}
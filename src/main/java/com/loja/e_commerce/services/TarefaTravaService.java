@@ -0,0 +1,52 @@
+package com.loja.e_commerce.services;
+
+import com.loja.e_commerce.repositories.TarefaTravaRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+// Faz uma tarefa agendada rodar em uma instância por vez (o @Scheduled dispara em todas).
+// A trava vence sozinha depois da duração pedida: uma instância que cair no meio não segura a tarefa para sempre
+@Slf4j
+@Service
+public class TarefaTravaService {
+
+    private final TarefaTravaRepository repository;
+
+    // Identifica esta instância da aplicação na tabela tarefas_travas
+    private final String instancia = UUID.randomUUID().toString();
+
+    public TarefaTravaService(TarefaTravaRepository repository) {
+        this.repository = repository;
+    }
+
+    // Transação própria e curta: a trava fica gravada enquanto a tarefa roda, sem segurar conexão
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean adquirir(String tarefa, Duration duracao) {
+        LocalDateTime agora = agora();
+
+        boolean adquirida = repository.adquirir(tarefa, instancia, agora, agora.plus(duracao)) == 1;
+
+        if (!adquirida) {
+            log.debug("Tarefa {} rodando em outra instância", tarefa);
+        }
+
+        return adquirida;
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void liberar(String tarefa) {
+        repository.liberar(tarefa, instancia, agora());
+    }
+
+    // Na precisão da coluna: sem arredondamento no banco, liberar e adquirir de novo comparam valores iguais
+    private static LocalDateTime agora() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+}
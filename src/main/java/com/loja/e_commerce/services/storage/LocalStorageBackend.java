@@ -0,0 +1,68 @@
+package com.loja.e_commerce.services.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Arquivos em storage.upload-dir: funciona com uma instância só (ou com o diretório compartilhado)
+public class LocalStorageBackend implements StorageBackend {
+
+    private final Path diretorio;
+
+    public LocalStorageBackend(Path diretorio) {
+        this.diretorio = diretorio;
+    }
+
+    @Override
+    public boolean existe(String nome) {
+        return Files.isRegularFile(diretorio.resolve(nome));
+    }
+
+    // Temporários ficam dentro do diretório de uploads: o move é só um rename
+    @Override
+    public void gravar(String nome, Path arquivo) throws IOException {
+        Path destino = diretorio.resolve(nome);
+
+        try {
+            Files.move(arquivo, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(arquivo, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public InputStream abrir(String nome) throws IOException {
+        return Files.newInputStream(diretorio.resolve(nome));
+    }
+
+    @Override
+    public void remover(String nome) throws IOException {
+        Files.deleteIfExists(diretorio.resolve(nome));
+    }
+
+    // Só arquivos: a pasta .tmp dos uploads em andamento fica de fora
+    @Override
+    public Stream<String> listar() throws IOException {
+        return Files.list(diretorio)
+                .filter(Files::isRegularFile)
+                .map(arquivo -> arquivo.getFileName().toString());
+    }
+
+    @Override
+    public Optional<Path> caminhoLocal(String nome) {
+        Path arquivo = diretorio.resolve(nome);
+
+        return Files.isRegularFile(arquivo) ? Optional.of(arquivo) : Optional.empty();
+    }
+
+    @Override
+    public Optional<URI> urlDireta(String nome) {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,175 @@
+package com.loja.e_commerce.services.storage;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// Bucket S3 ou compatível (MinIO, R2...): qualquer instância da API enxerga as mesmas imagens
+// e o download vai direto do bucket para o cliente por URL assinada
+public class S3StorageBackend implements StorageBackend, AutoCloseable {
+
+    // Nome = hash do conteúdo: o objeto nunca muda, CDN e navegador podem guardar para sempre
+    private static final String CACHE_CONTROL = "public, max-age=31536000, immutable";
+
+    private final S3Client s3;
+    private final S3Presigner presigner;
+    private final String bucket;
+    private final Duration validadeUrl;
+
+    // A mesma URL assinada é reaproveitada por metade da validade: o navegador encontra a imagem no cache dele
+    // em vez de ver uma URL nova (assinatura nova) a cada acesso
+    private final Cache<String, URI> urlsAssinadas;
+
+    public S3StorageBackend(S3Client s3, S3Presigner presigner, String bucket, Duration validadeUrl) {
+        this.s3 = s3;
+        this.presigner = presigner;
+        this.bucket = bucket;
+        this.validadeUrl = validadeUrl;
+        this.urlsAssinadas = Caffeine.newBuilder()
+                .expireAfterWrite(validadeUrl.dividedBy(2))
+                .maximumSize(10_000)
+                .build();
+    }
+
+    @Override
+    public boolean existe(String nome) throws IOException {
+        try {
+            s3.headObject(r -> r.bucket(bucket).key(nome));
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        } catch (S3Exception e) {
+            // HEAD não tem corpo: o "não encontrado" chega só como 404
+            if (e.statusCode() == 404) {
+                return false;
+            }
+            throw new IOException("Erro ao consultar o objeto " + nome, e);
+        } catch (SdkException e) {
+            throw new IOException("Erro ao consultar o objeto " + nome, e);
+        }
+    }
+
+    // Envia lendo do arquivo (sem carregar na memória); o tamanho máximo do upload (2MB) dispensa multipart
+    @Override
+    public void gravar(String nome, Path arquivo) throws IOException {
+        try {
+            s3.putObject(r -> r.bucket(bucket)
+                            .key(nome)
+                            .contentType(MediaTypeFactory.getMediaType(nome)
+                                    .orElse(MediaType.APPLICATION_OCTET_STREAM).toString())
+                            .cacheControl(CACHE_CONTROL),
+                    RequestBody.fromFile(arquivo));
+        } catch (SdkException e) {
+            throw new IOException("Erro ao enviar o objeto " + nome, e);
+        }
+
+        Files.deleteIfExists(arquivo);
+    }
+
+    @Override
+    public InputStream abrir(String nome) throws IOException {
+        try {
+            return s3.getObject(r -> r.bucket(bucket).key(nome));
+        } catch (NoSuchKeyException e) {
+            throw new NoSuchFileException(nome);
+        } catch (SdkException e) {
+            throw new IOException("Erro ao ler o objeto " + nome, e);
+        }
+    }
+
+    @Override
+    public void remover(String nome) throws IOException {
+        try {
+            s3.deleteObject(r -> r.bucket(bucket).key(nome));
+        } catch (SdkException e) {
+            throw new IOException("Erro ao remover o objeto " + nome, e);
+        }
+    }
+
+    // Paginado pelo SDK (1000 chaves por chamada), sob demanda conforme o stream é consumido
+    @Override
+    public Stream<String> listar() throws IOException {
+        Iterator<S3Object> objetos;
+
+        try {
+            objetos = s3.listObjectsV2Paginator(r -> r.bucket(bucket)).contents().iterator();
+        } catch (SdkException e) {
+            throw new IOException("Erro ao listar o bucket " + bucket, e);
+        }
+
+        // As páginas seguintes são pedidas durante a leitura: erro nelas sai como UncheckedIOException, igual ao Files.list
+        Iterator<String> chaves = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                try {
+                    return objetos.hasNext();
+                } catch (SdkException e) {
+                    throw new UncheckedIOException(new IOException("Erro ao listar o bucket " + bucket, e));
+                }
+            }
+
+            @Override
+            public String next() {
+                try {
+                    return objetos.next().key();
+                } catch (SdkException e) {
+                    throw new UncheckedIOException(new IOException("Erro ao listar o bucket " + bucket, e));
+                }
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(chaves, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public Optional<Path> caminhoLocal(String nome) {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<URI> urlDireta(String nome) {
+        return Optional.of(urlsAssinadas.get(nome, this::assinar));
+    }
+
+    // Assinada localmente (sem chamada ao S3)
+    private URI assinar(String nome) {
+        try {
+            return presigner.presignGetObject(r -> r
+                            .signatureDuration(validadeUrl)
+                            .getObjectRequest(g -> g.bucket(bucket).key(nome)))
+                    .url().toURI();
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("URL assinada inválida para " + nome, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        presigner.close();
+        s3.close();
+    }
+}
@@ -0,0 +1,30 @@
+package com.loja.e_commerce.services.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Onde ficam os arquivos de imagem: disco local (padrão) ou bucket S3 (storage.tipo)
+public interface StorageBackend {
+
+    boolean existe(String nome) throws IOException;
+
+    // Grava o conteúdo do arquivo local com esse nome; o arquivo é consumido (movido ou apagado)
+    void gravar(String nome, Path arquivo) throws IOException;
+
+    InputStream abrir(String nome) throws IOException;
+
+    void remover(String nome) throws IOException;
+
+    // Nomes de todos os arquivos guardados (usado pela reconciliação); o stream precisa ser fechado
+    Stream<String> listar() throws IOException;
+
+    // Arquivo no disco desta instância (envio com sendfile); vazio quando o storage é remoto
+    Optional<Path> caminhoLocal(String nome);
+
+    // URL assinada para o cliente baixar direto do storage, sem passar pela API; vazio no disco local
+    Optional<URI> urlDireta(String nome);
+}
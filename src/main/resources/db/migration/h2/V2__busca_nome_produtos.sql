@@ -0,0 +1,8 @@
+-- H2 não tem pg_trgm nem full-text em português: as mesmas funções da migração do
+-- PostgreSQL são implementadas em Java (BuscaNomeH2), sem índice.
+
+CREATE ALIAS IF NOT EXISTS produto_nome_corresponde DETERMINISTIC
+    FOR 'com.loja.e_commerce.repositories.specification.BuscaNomeH2.corresponde';
+
+CREATE ALIAS IF NOT EXISTS produto_nome_relevancia DETERMINISTIC
+    FOR 'com.loja.e_commerce.repositories.specification.BuscaNomeH2.relevancia';
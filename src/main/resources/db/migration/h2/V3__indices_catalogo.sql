@@ -0,0 +1,11 @@
+-- H2 não tem índice parcial nem por expressão: mesmas colunas, com "ativo" na frente
+-- no lugar do WHERE ativo e nome puro no lugar de upper(nome).
+
+CREATE INDEX idx_produtos_categoria_nome
+    ON produtos (categoria_id, nome);
+
+CREATE INDEX idx_produtos_ativo_preco
+    ON produtos (ativo, preco);
+
+CREATE INDEX idx_produtos_ativo_categoria_preco
+    ON produtos (ativo, categoria_id, preco);
@@ -0,0 +1,17 @@
+-- Reservas de estoque (checkout): o estoque já sai do produto na reserva e volta se ela for liberada
+
+CREATE TABLE reservas_estoque (
+    id        BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    status    VARCHAR(20) NOT NULL,
+    criada_em TIMESTAMP   NOT NULL
+);
+
+-- Sem FK para produtos: o histórico de reservas não impede excluir o produto
+CREATE TABLE reservas_estoque_itens (
+    reserva_id BIGINT  NOT NULL,
+    produto_id BIGINT  NOT NULL,
+    quantidade INTEGER NOT NULL,
+    CONSTRAINT fk_reservas_itens_reserva FOREIGN KEY (reserva_id) REFERENCES reservas_estoque (id)
+);
+
+CREATE INDEX idx_reservas_itens_reserva ON reservas_estoque_itens (reserva_id);
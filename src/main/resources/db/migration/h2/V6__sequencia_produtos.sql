@@ -0,0 +1,6 @@
+-- Id de produto por sequência (blocos de 50), como na migração do PostgreSQL.
+-- O banco H2 dos testes sempre começa vazio, então a sequência parte do 1
+CREATE SEQUENCE produtos_seq START WITH 1 INCREMENT BY 50;
+
+ALTER TABLE produtos ALTER COLUMN id DROP IDENTITY;
+ALTER TABLE produtos ALTER COLUMN id SET DEFAULT NEXT VALUE FOR produtos_seq;
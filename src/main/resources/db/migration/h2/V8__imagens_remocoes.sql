@@ -0,0 +1,12 @@
+-- Outbox da remoção de arquivos de imagem: gravada na mesma transação que tirou a última referência
+-- e processada em segundo plano (ImagemLimpezaService). Se a transação voltar, nenhum arquivo é apagado
+CREATE TABLE imagens_remocoes (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nome       VARCHAR(255) NOT NULL,
+    tentativas INTEGER      NOT NULL,
+    criada_em  TIMESTAMP    NOT NULL
+);
+
+-- H2 não tem índice parcial
+CREATE INDEX idx_produtos_imagem_path
+    ON produtos (imagem_path);
@@ -0,0 +1,8 @@
+-- Travas das imagens entre instâncias da aplicação: o arquivo de nome N usa a linha hash(N) módulo 1024,
+-- travada com SELECT ... FOR UPDATE enquanto a referência e o arquivo mudam (ImagemStorageService)
+CREATE TABLE imagens_travas (
+    id INTEGER PRIMARY KEY
+);
+
+INSERT INTO imagens_travas (id)
+SELECT X FROM SYSTEM_RANGE(0, 1023);
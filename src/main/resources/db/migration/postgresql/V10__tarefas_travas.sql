@@ -0,0 +1,11 @@
+-- Tarefas agendadas que rodam em uma instância por vez (limpeza e reconciliação de imagens):
+-- quem roda grava o próprio id em "dono" até "travada_ate"; depois disso (ou ao terminar) outra pode assumir
+CREATE TABLE tarefas_travas (
+    nome        VARCHAR(100) PRIMARY KEY,
+    dono        VARCHAR(100),
+    travada_ate TIMESTAMP    NOT NULL
+);
+
+INSERT INTO tarefas_travas (nome, dono, travada_ate)
+VALUES ('imagens-limpeza', NULL, TIMESTAMP '2000-01-01 00:00:00'),
+       ('imagens-reconciliacao', NULL, TIMESTAMP '2000-01-01 00:00:00');
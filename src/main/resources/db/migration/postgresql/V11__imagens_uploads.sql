@@ -0,0 +1,15 @@
+-- Status dos uploads de imagem assíncronos (GET /produtos/{id}/imagem/uploads/{uploadId}): no banco para
+-- qualquer instância responder (o cliente pode cair em outra atrás do balanceador) e para sobreviver a um restart
+CREATE TABLE imagens_uploads (
+    id            VARCHAR(36)  PRIMARY KEY,
+    produto_id    BIGINT       NOT NULL,
+    status        VARCHAR(20)  NOT NULL,
+    imagem_url    VARCHAR(255),
+    mensagem      VARCHAR(500),
+    criado_em     TIMESTAMP    NOT NULL,
+    atualizado_em TIMESTAMP    NOT NULL
+);
+
+-- Remoção dos status vencidos: WHERE criado_em < ?
+CREATE INDEX idx_imagens_uploads_criado_em
+    ON imagens_uploads (criado_em);
@@ -0,0 +1,21 @@
+-- Esquema inicial, igual ao que o Hibernate (ddl-auto=update) gerava a partir de Categoria/Produto.
+-- Bancos já existentes entram com baseline na versão 1 (spring.flyway.baseline-on-migrate=true).
+
+CREATE TABLE categorias (
+    id    BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nome  VARCHAR(255) NOT NULL,
+    ativo BOOLEAN      NOT NULL,
+    CONSTRAINT uk_categorias_nome UNIQUE (nome)
+);
+
+CREATE TABLE produtos (
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    nome         VARCHAR(255)   NOT NULL,
+    descricao    VARCHAR(255),
+    preco        NUMERIC(10, 2) NOT NULL,
+    ativo        BOOLEAN        NOT NULL,
+    estoque      INTEGER        NOT NULL,
+    imagem_path  VARCHAR(255),
+    categoria_id BIGINT         NOT NULL,
+    CONSTRAINT fk_produtos_categoria FOREIGN KEY (categoria_id) REFERENCES categorias (id)
+);
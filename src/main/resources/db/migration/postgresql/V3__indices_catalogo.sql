@@ -0,0 +1,19 @@
+-- Índices para os filtros da listagem e para as checagens de duplicidade.
+
+-- existsByNomeIgnoreCaseAndCategoria_Id(AndIdNot): WHERE upper(nome) = upper(?) AND categoria_id = ?
+-- (IgnoreCase do Spring Data gera upper(), não lower()). Também cobre a FK categoria_id.
+CREATE INDEX idx_produtos_categoria_nome
+    ON produtos (categoria_id, upper(nome));
+
+-- Listagem só enxerga produtos ativos: índices parciais ficam menores e não guardam os inativos
+-- Faixa de preço sem categoria: WHERE ativo AND preco BETWEEN ? AND ?
+CREATE INDEX idx_produtos_ativo_preco
+    ON produtos (preco) WHERE ativo;
+
+-- Página de categoria com ou sem faixa de preço: WHERE ativo AND categoria_id = ? AND preco ...
+CREATE INDEX idx_produtos_ativo_categoria_preco
+    ON produtos (categoria_id, preco) WHERE ativo;
+
+-- existsByNomeIgnoreCase(AndIdNot) de categorias
+CREATE INDEX idx_categorias_nome_upper
+    ON categorias (upper(nome));
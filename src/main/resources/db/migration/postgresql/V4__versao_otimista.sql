@@ -0,0 +1,3 @@
+-- Controle de concorrência otimista (@Version): cada UPDATE confere e incrementa a versão
+ALTER TABLE produtos ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE categorias ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
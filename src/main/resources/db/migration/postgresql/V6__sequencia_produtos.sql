@@ -0,0 +1,10 @@
+-- Id de produto por sequência (blocos de 50): o Hibernate reserva os ids em memória e
+-- consegue agrupar os INSERTs em batch (com IDENTITY cada INSERT precisa voltar ao banco)
+CREATE SEQUENCE produtos_seq START WITH 1 INCREMENT BY 50;
+
+-- Bancos com produtos: o próximo bloco começa logo depois do maior id
+SELECT setval('produtos_seq', MAX(id)) FROM produtos HAVING MAX(id) IS NOT NULL;
+
+-- INSERT manual sem id também usa a sequência (não colide com os ids do Hibernate)
+ALTER TABLE produtos ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE produtos ALTER COLUMN id SET DEFAULT nextval('produtos_seq');
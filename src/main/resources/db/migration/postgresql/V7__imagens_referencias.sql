@@ -0,0 +1,14 @@
+-- Imagens endereçadas pelo conteúdo (sha-256 + extensão): a mesma foto enviada para vários
+-- produtos é gravada uma vez só e o arquivo só é apagado quando o último produto deixa de usá-la
+CREATE TABLE imagens (
+    nome        VARCHAR(255) PRIMARY KEY,
+    referencias INTEGER      NOT NULL,
+    criada_em   TIMESTAMP    NOT NULL
+);
+
+-- Imagens enviadas antes (nome UUID) entram com a quantidade de produtos que já apontam para elas
+INSERT INTO imagens (nome, referencias, criada_em)
+SELECT imagem_path, COUNT(*), CURRENT_TIMESTAMP
+FROM produtos
+WHERE imagem_path IS NOT NULL
+GROUP BY imagem_path;
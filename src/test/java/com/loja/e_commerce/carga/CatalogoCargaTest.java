@@ -0,0 +1,249 @@
+package com.loja.e_commerce.carga;
+
+import com.loja.e_commerce.ECommerceApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.FileSystemUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Carga de ponta a ponta com o catálogo no tamanho de produção (1 milhão de produtos por padrão):
+// listagem com filtros, busca por nome, detalhe, cadastro e upload de imagem, com vazão e percentis por operação.
+// Fora do build normal: mvn test -Pcarga -Dtest=CatalogoCargaTest [-Dcarga.produtos=1000000 -Dcarga.duracao=60s].
+// Sem spring.datasource.url usa um H2 em arquivo (temporário, recriado a cada execução), sem rede nem serviço externo.
+// Com -Dspring.datasource.url=... roda contra o PostgreSQL; a massa só é gerada se a tabela de produtos estiver vazia
+@Tag("carga")
+public class CatalogoCargaTest {
+
+    private static final int PRODUTOS = Integer.getInteger("carga.produtos", 1_000_000);
+    private static final int CATEGORIAS = Integer.getInteger("carga.categorias", 200);
+    private static final int CONCORRENCIA = Integer.getInteger("carga.concorrencia", 64);
+    private static final Duration DURACAO = GeradorCarga.duracao("carga.duracao", "30s");
+    private static final Duration AQUECIMENTO = GeradorCarga.duracao("carga.aquecimento", "10s");
+    private static final Path RELATORIO = Path.of(System.getProperty("carga.relatorio", "target/carga/catalogo.csv"));
+
+    private static final int TAMANHO_LOTE = 5_000;
+
+    // Semente fixa: a mesma massa (nomes, preços, categorias) em toda execução
+    private static final long SEMENTE = 42;
+
+    private static final String[] TIPOS = {
+            "Mouse", "Teclado", "Monitor", "Notebook", "Cadeira", "Mesa", "Fone", "Câmera",
+            "Caixa de som", "Cabo", "Carregador", "Luminária", "Mochila", "Garrafa", "Relógio"
+    };
+    private static final String[] VARIANTES = {
+            "Gamer", "Sem fio", "Ergonômico", "Compacto", "Profissional", "Básico", "Premium", "Portátil", "Slim", "Pro"
+    };
+
+    // Palavras inteiras, prefixos e sem acento, como um cliente digitaria
+    private static final String[] TERMOS = {"mouse", "tecl", "monitor gamer", "camera", "sem fio", "cadeira ergonomica"};
+
+    private static final String FRONTEIRA = "----carga-" + SEMENTE;
+
+    private static final AtomicLong CADASTROS = new AtomicLong();
+
+    @Test
+    void cargaNoCatalogo() throws Exception {
+        Path trabalho = Files.createTempDirectory("carga-catalogo");
+
+        List<String> argumentos = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--storage.upload-dir=" + trabalho.resolve("uploads"),
+                "--spring.datasource.hikari.connection-timeout=" + System.getProperty("carga.espera-conexao", "2000"),
+                "--logging.level.root=WARN"));
+
+        // Como argumento de linha de comando valeria por cima de um -Dspring.datasource.url
+        if (System.getProperty("spring.datasource.url") == null) {
+            argumentos.add("--spring.datasource.url=jdbc:h2:file:" + trabalho.resolve("banco") + ";DB_CLOSE_ON_EXIT=FALSE");
+        }
+
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(ECommerceApplication.class)
+                .run(argumentos.toArray(String[]::new))) {
+
+            JdbcTemplate jdbc = app.getBean(JdbcTemplate.class);
+
+            long inicio = System.nanoTime();
+            popular(jdbc, app.getBean(TransactionTemplate.class));
+
+            long[] produtos = ids(jdbc, "SELECT id FROM produtos WHERE ativo = TRUE");
+            long[] categorias = ids(jdbc, "SELECT id FROM categorias WHERE ativo = TRUE");
+
+            System.out.printf("%nMassa: %,d produtos ativos em %,d categorias (%ds)%n",
+                    produtos.length, categorias.length, Duration.ofNanos(System.nanoTime() - inicio).toSeconds());
+
+            String base = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+            byte[][] imagens = multipartDeImagens(16);
+
+            GeradorCarga.Relatorio relatorio = GeradorCarga.executar(
+                    () -> sortear(base, produtos, categorias, imagens), CONCORRENCIA, AQUECIMENTO, DURACAO);
+
+            System.out.printf("%nCarga: %d clientes, %s (aquecimento %s)%n%s",
+                    CONCORRENCIA, DURACAO, AQUECIMENTO, relatorio.tabela());
+
+            relatorio.salvarCsv(RELATORIO);
+            System.out.println("Relatório: " + RELATORIO.toAbsolutePath());
+
+            // Os números são para comparar entre versões; 503 é a API se protegendo (pool de conexões
+            // ou fila de uploads cheios), qualquer outra falha indica problema na aplicação
+            assertEquals(0, relatorio.erros());
+
+        } finally {
+            FileSystemUtils.deleteRecursively(trabalho);
+        }
+    }
+
+    // 40% detalhe, 30% listagem com filtros, 10% busca por nome, 15% cadastro, 5% upload de imagem
+    private static GeradorCarga.Operacao sortear(String base, long[] produtos, long[] categorias, byte[][] imagens) {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        int sorteio = aleatorio.nextInt(100);
+
+        long produto = produtos[aleatorio.nextInt(produtos.length)];
+        long categoria = categorias[aleatorio.nextInt(categorias.length)];
+
+        if (sorteio < 40) {
+            return GeradorCarga.Operacao.get("GET /produtos/{id}", URI.create(base + "/produtos/" + produto));
+        }
+
+        if (sorteio < 70) {
+            int precoMin = aleatorio.nextInt(4_000);
+            return GeradorCarga.Operacao.get("GET /produtos?categoria&preço", URI.create(base + "/produtos?categoriaId=" + categoria
+                    + "&precoMin=" + precoMin + "&precoMax=" + (precoMin + 1_000)
+                    + "&pagina=" + aleatorio.nextInt(5) + "&tamanho=20"));
+        }
+
+        if (sorteio < 80) {
+            return GeradorCarga.Operacao.get("GET /produtos?nome&categoria", URI.create(base + "/produtos?nome="
+                    + URLEncoder.encode(TERMOS[aleatorio.nextInt(TERMOS.length)], StandardCharsets.UTF_8)
+                    + "&categoriaId=" + categoria + "&tamanho=20"));
+        }
+
+        if (sorteio < 95) {
+            // Nome sequencial: repetido na mesma categoria seria 409 (duplicidade), contado como erro
+            String json = String.format("{\"nome\":\"Carga %d\",\"preco\":%d.90,\"estoque\":10,\"ativo\":true,\"categoriaId\":%d}",
+                    CADASTROS.incrementAndGet(), 1 + aleatorio.nextInt(5_000), categoria);
+
+            return new GeradorCarga.Operacao("POST /produtos", HttpRequest.newBuilder(URI.create(base + "/produtos"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(json))
+                    .build());
+        }
+
+        return new GeradorCarga.Operacao("POST /produtos/{id}/imagem",
+                HttpRequest.newBuilder(URI.create(base + "/produtos/" + produto + "/imagem"))
+                        .header("Content-Type", "multipart/form-data; boundary=" + FRONTEIRA)
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(imagens[aleatorio.nextInt(imagens.length)]))
+                        .build());
+    }
+
+    // INSERT em lotes direto no banco: pelo JPA, 1 milhão de entidades levaria bem mais tempo e memória
+    private static void popular(JdbcTemplate jdbc, TransactionTemplate transacao) {
+        Long existentes = jdbc.queryForObject("SELECT COUNT(*) FROM produtos", Long.class);
+
+        if (existentes != null && existentes > 0) {
+            System.out.printf("%nBanco já tem %,d produtos, usando a massa existente%n", existentes);
+            return;
+        }
+
+        List<Object[]> novasCategorias = new ArrayList<>(CATEGORIAS);
+        for (int c = 0; c < CATEGORIAS; c++) {
+            novasCategorias.add(new Object[]{"Carga " + c});
+        }
+        transacao.executeWithoutResult(s ->
+                jdbc.batchUpdate("INSERT INTO categorias (nome, ativo) VALUES (?, TRUE)", novasCategorias));
+
+        long[] categorias = ids(jdbc, "SELECT id FROM categorias ORDER BY id");
+
+        Random aleatorio = new Random(SEMENTE);
+        List<Object[]> lote = new ArrayList<>(TAMANHO_LOTE);
+
+        for (int p = 0; p < PRODUTOS; p++) {
+            String nome = TIPOS[aleatorio.nextInt(TIPOS.length)] + " " + VARIANTES[aleatorio.nextInt(VARIANTES.length)]
+                    + " " + (p % 1_000);
+
+            lote.add(new Object[]{
+                    nome,
+                    "Modelo " + (p % 97),
+                    BigDecimal.valueOf(500 + aleatorio.nextInt(500_000), 2),
+                    aleatorio.nextInt(10) != 0, // ~10% inativos
+                    1 + aleatorio.nextInt(500),
+                    categorias[aleatorio.nextInt(categorias.length)]
+            });
+
+            if (lote.size() == TAMANHO_LOTE || p == PRODUTOS - 1) {
+                transacao.executeWithoutResult(s -> jdbc.batchUpdate(
+                        "INSERT INTO produtos (nome, descricao, preco, ativo, estoque, categoria_id) VALUES (?, ?, ?, ?, ?, ?)",
+                        lote));
+                lote.clear();
+
+                if ((p + 1) % 100_000 == 0) {
+                    System.out.printf("  %,d produtos inseridos%n", p + 1);
+                }
+            }
+        }
+
+        // Estatísticas atualizadas (H2 e PostgreSQL): sem elas o otimizador escolhe índice às cegas
+        jdbc.execute("ANALYZE");
+    }
+
+    private static long[] ids(JdbcTemplate jdbc, String sql) {
+        long[][] ids = {new long[1024]};
+        int[] quantidade = {0};
+
+        jdbc.query(sql, linha -> {
+            if (quantidade[0] == ids[0].length) {
+                ids[0] = Arrays.copyOf(ids[0], quantidade[0] * 2);
+            }
+            ids[0][quantidade[0]++] = linha.getLong(1);
+        });
+
+        return Arrays.copyOf(ids[0], quantidade[0]);
+    }
+
+    // Corpos multipart prontos, cada um com um PNG diferente (ruído, para não cair todos no mesmo hash)
+    private static byte[][] multipartDeImagens(int quantidade) throws Exception {
+        Random aleatorio = new Random(SEMENTE);
+        byte[][] corpos = new byte[quantidade][];
+
+        for (int i = 0; i < quantidade; i++) {
+            BufferedImage imagem = new BufferedImage(200, 200, BufferedImage.TYPE_INT_RGB);
+            for (int x = 0; x < imagem.getWidth(); x++) {
+                for (int y = 0; y < imagem.getHeight(); y++) {
+                    imagem.setRGB(x, y, aleatorio.nextInt(0x1000000));
+                }
+            }
+
+            ByteArrayOutputStream corpo = new ByteArrayOutputStream();
+            corpo.write(("--" + FRONTEIRA + "\r\n"
+                    + "Content-Disposition: form-data; name=\"imagem\"; filename=\"carga-" + i + ".png\"\r\n"
+                    + "Content-Type: image/png\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+            ImageIO.write(imagem, "png", corpo);
+            corpo.write(("\r\n--" + FRONTEIRA + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+            corpos[i] = corpo.toByteArray();
+        }
+
+        return corpos;
+    }
+}
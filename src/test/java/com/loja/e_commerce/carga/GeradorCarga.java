@@ -0,0 +1,220 @@
+package com.loja.e_commerce.carga;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+// Gerador de carga em laço fechado: "concorrencia" clientes (threads virtuais, para o cliente nunca ser o gargalo)
+// mandam uma requisição atrás da outra durante o tempo pedido. Só conta o que termina depois do aquecimento
+final class GeradorCarga {
+
+    private GeradorCarga() {
+    }
+
+    // Uma requisição do mix; o nome agrupa as medições no relatório (ex.: "GET /produtos/{id}")
+    record Operacao(String nome, HttpRequest requisicao) {
+
+        static Operacao get(String nome, URI uri) {
+            return new Operacao(nome, HttpRequest.newBuilder(uri).GET().build());
+        }
+    }
+
+    // Latências (só das respostas de sucesso) em microssegundos; recusadas = 503 (API sobrecarregada)
+    record Resultado(long requisicoes, long recusadas, long erros, double porSegundo,
+                     long p50, long p90, long p99, long p999, long maxima) {
+
+        @Override
+        public String toString() {
+            return String.format("%,d req (%,.0f/s), recusadas=%d, erros=%d, p50=%.1fms, p90=%.1fms, p99=%.1fms, p99.9=%.1fms, max=%.1fms",
+                    requisicoes, porSegundo, recusadas, erros,
+                    p50 / 1000.0, p90 / 1000.0, p99 / 1000.0, p999 / 1000.0, maxima / 1000.0);
+        }
+    }
+
+    // Resultado por operação (na ordem em que apareceram) e o consolidado de todas
+    record Relatorio(Map<String, Resultado> porOperacao, Resultado total) {
+
+        long erros() {
+            return total.erros();
+        }
+
+        String tabela() {
+            StringBuilder texto = new StringBuilder(String.format(Locale.ROOT,
+                    "%-36s %10s %9s %9s %7s %9s %9s %9s %9s %9s%n",
+                    "operação", "req", "req/s", "recusadas", "erros", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+
+            porOperacao.forEach((nome, r) -> texto.append(linha(nome, r)));
+            texto.append(linha("total", total));
+
+            return texto.toString();
+        }
+
+        // Um CSV por execução para comparar versões (ex.: antes e depois de uma release)
+        void salvarCsv(Path arquivo) throws IOException {
+            List<String> linhas = new ArrayList<>();
+            linhas.add("operacao,requisicoes,por_segundo,recusadas,erros,p50_us,p90_us,p99_us,p999_us,max_us");
+
+            porOperacao.forEach((nome, r) -> linhas.add(csv(nome, r)));
+            linhas.add(csv("total", total));
+
+            Files.createDirectories(arquivo.toAbsolutePath().getParent());
+            Files.write(arquivo, linhas);
+        }
+
+        private static String linha(String nome, Resultado r) {
+            return String.format(Locale.ROOT, "%-36s %10d %9.1f %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    nome, r.requisicoes(), r.porSegundo(), r.recusadas(), r.erros(),
+                    r.p50() / 1000.0, r.p90() / 1000.0, r.p99() / 1000.0, r.p999() / 1000.0, r.maxima() / 1000.0);
+        }
+
+        private static String csv(String nome, Resultado r) {
+            return String.format(Locale.ROOT, "\"%s\",%d,%.1f,%d,%d,%d,%d,%d,%d,%d",
+                    nome, r.requisicoes(), r.porSegundo(), r.recusadas(), r.erros(),
+                    r.p50(), r.p90(), r.p99(), r.p999(), r.maxima());
+        }
+    }
+
+    // Ex.: -Dcarga.duracao=30s, -Dcarga.duracao=2m
+    static Duration duracao(String propriedade, String padrao) {
+        return Duration.parse("PT" + System.getProperty(propriedade, padrao));
+    }
+
+    static Relatorio executar(Supplier<Operacao> proximaOperacao, int concorrencia, Duration aquecimento, Duration duracao)
+            throws Exception {
+
+        long inicioMedicao = System.nanoTime() + aquecimento.toNanos();
+        long fim = inicioMedicao + duracao.toNanos();
+
+        List<Future<Cliente>> clientes = new ArrayList<>(concorrencia);
+
+        // HTTP/1.1: sem tentativa de upgrade para h2c a cada requisição com corpo
+        try (HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+
+            for (int i = 0; i < concorrencia; i++) {
+                clientes.add(executor.submit(() -> new Cliente().rodar(http, proximaOperacao, inicioMedicao, fim)));
+            }
+
+            Map<String, Medicoes> porOperacao = new LinkedHashMap<>();
+
+            for (Future<Cliente> futuro : clientes) {
+                futuro.get().medicoes.forEach((nome, medicoes) ->
+                        porOperacao.computeIfAbsent(nome, n -> new Medicoes()).juntar(medicoes));
+            }
+
+            Medicoes todas = new Medicoes();
+            Map<String, Resultado> resultados = new LinkedHashMap<>();
+
+            porOperacao.forEach((nome, medicoes) -> {
+                todas.juntar(medicoes);
+                resultados.put(nome, medicoes.resultado(duracao));
+            });
+
+            return new Relatorio(resultados, todas.resultado(duracao));
+        }
+    }
+
+    // Valor abaixo do qual ficam p% das amostras (nearest-rank)
+    static long percentil(long[] ordenadas, double p) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+
+        int posicao = (int) Math.ceil(p / 100.0 * ordenadas.length) - 1;
+
+        return ordenadas[Math.max(0, Math.min(posicao, ordenadas.length - 1))];
+    }
+
+    private static final class Medicoes {
+
+        private long[] latencias = new long[256];
+        private int quantidade;
+        private long recusadas;
+        private long erros;
+
+        void registrar(long latencia) {
+            if (quantidade == latencias.length) {
+                latencias = Arrays.copyOf(latencias, quantidade * 2);
+            }
+            latencias[quantidade++] = latencia;
+        }
+
+        void juntar(Medicoes outras) {
+            if (quantidade + outras.quantidade > latencias.length) {
+                latencias = Arrays.copyOf(latencias, quantidade + outras.quantidade);
+            }
+            System.arraycopy(outras.latencias, 0, latencias, quantidade, outras.quantidade);
+            quantidade += outras.quantidade;
+            recusadas += outras.recusadas;
+            erros += outras.erros;
+        }
+
+        Resultado resultado(Duration duracao) {
+            long[] ordenadas = Arrays.copyOf(latencias, quantidade);
+            Arrays.sort(ordenadas);
+
+            double segundos = duracao.toNanos() / 1e9;
+
+            return new Resultado(ordenadas.length, recusadas, erros, ordenadas.length / segundos,
+                    percentil(ordenadas, 50), percentil(ordenadas, 90), percentil(ordenadas, 99), percentil(ordenadas, 99.9),
+                    ordenadas.length == 0 ? 0 : ordenadas[ordenadas.length - 1]);
+        }
+    }
+
+    private static final class Cliente {
+
+        private final Map<String, Medicoes> medicoes = new LinkedHashMap<>();
+
+        Cliente rodar(HttpClient http, Supplier<Operacao> proximaOperacao, long inicioMedicao, long fim) {
+            long agora;
+
+            while ((agora = System.nanoTime()) < fim) {
+                Operacao operacao = proximaOperacao.get();
+                int status;
+
+                try {
+                    status = http.send(operacao.requisicao(), HttpResponse.BodyHandlers.discarding()).statusCode();
+                } catch (Exception e) {
+                    status = -1;
+                }
+
+                if (agora < inicioMedicao) {
+                    continue;
+                }
+
+                Medicoes daOperacao = medicoes.computeIfAbsent(operacao.nome(), n -> new Medicoes());
+
+                if (status == 503) {
+                    daOperacao.recusadas++;
+                    continue;
+                }
+                if (status < 200 || status >= 400) {
+                    daOperacao.erros++;
+                    continue;
+                }
+
+                daOperacao.registrar((System.nanoTime() - agora) / 1000);
+            }
+
+            return this;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package com.loja.e_commerce.carga;
+
+import com.loja.e_commerce.ECommerceApplication;
+import com.loja.e_commerce.models.Categoria;
+import com.loja.e_commerce.models.Produto;
+import com.loja.e_commerce.repositories.CategoriaRepository;
+import com.loja.e_commerce.repositories.ProdutoRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Mesma carga contra a aplicação com threads de plataforma (padrão) e com spring.threads.virtual.enabled=true.
+// Fora do build normal: mvn test -Pcarga [-Dcarga.concorrencia=800 -Dcarga.duracao=30s].
+// Sem spring.datasource.url roda no H2 em memória; para medir contra o PostgreSQL basta passar
+// -Dspring.datasource.url=... (e usuário/senha), como em produção
+@Tag("carga")
+public class ModoThreadsCargaTest {
+
+    private static final int CONCORRENCIA = Integer.getInteger("carga.concorrencia", 400);
+    private static final Duration DURACAO = GeradorCarga.duracao("carga.duracao", "15s");
+    private static final Duration AQUECIMENTO = GeradorCarga.duracao("carga.aquecimento", "5s");
+
+    private static final int PRODUTOS = 2_000;
+    private static final int CATEGORIAS = 20;
+
+    @Test
+    void compararThreadsDePlataformaEVirtuais() throws Exception {
+        GeradorCarga.Resultado plataforma = medir(false).total();
+        GeradorCarga.Resultado virtuais = medir(true).total();
+
+        System.out.printf("%nCarga: %d clientes, %s (aquecimento %s)%n", CONCORRENCIA, DURACAO, AQUECIMENTO);
+        System.out.println("  plataforma: " + plataforma);
+        System.out.println("  virtuais:   " + virtuais);
+
+        // Os números são para comparar, não para reprovar o build. 503 é a API se protegendo (pool de conexões
+        // esgotado), não erro; qualquer outra falha indica problema na aplicação
+        assertEquals(0, plataforma.erros());
+        assertEquals(0, virtuais.erros());
+    }
+
+    private GeradorCarga.Relatorio medir(boolean threadsVirtuais) throws Exception {
+        Path uploads = Files.createTempDirectory("carga-uploads");
+        Files.write(uploads.resolve("carga.png"), new byte[64 * 1024]);
+
+        // Como argumentos de linha de comando: valem por cima do application.properties
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(ECommerceApplication.class).run(
+                "--server.port=0",
+                "--spring.threads.virtual.enabled=" + threadsVirtuais,
+                "--storage.upload-dir=" + uploads,
+                // Sem cache de produto e de busca: toda requisição vai ao banco
+                "--cache.produto.tamanho-maximo=0",
+                "--cache.produtos-busca.tamanho-maximo=0",
+                // Espera por conexão curta: na sobrecarga a API responde 503 em vez de segurar o cliente
+                "--spring.datasource.hikari.connection-timeout=" + System.getProperty("carga.espera-conexao", "2000"),
+                "--logging.level.root=WARN")) {
+
+            List<Long> ids = popular(app);
+            List<Long> categorias = app.getBean(CategoriaRepository.class).findAll().stream()
+                    .map(Categoria::getId).toList();
+
+            String base = "http://localhost:" + app.getEnvironment().getProperty("local.server.port");
+
+            // 70% detalhe, 20% listagem por categoria, 10% imagem (arquivo do disco)
+            return GeradorCarga.executar(() -> {
+                ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+                int sorteio = aleatorio.nextInt(10);
+
+                if (sorteio < 7) {
+                    return GeradorCarga.Operacao.get("detalhe", URI.create(base + "/produtos/" + ids.get(aleatorio.nextInt(ids.size()))));
+                }
+                if (sorteio < 9) {
+                    return GeradorCarga.Operacao.get("listagem", URI.create(base + "/produtos?categoriaId="
+                            + categorias.get(aleatorio.nextInt(categorias.size()))
+                            + "&pagina=" + aleatorio.nextInt(5) + "&tamanho=20"));
+                }
+                return GeradorCarga.Operacao.get("imagem", URI.create(base + "/imagens/carga.png"));
+            }, CONCORRENCIA, AQUECIMENTO, DURACAO);
+        }
+    }
+
+    private static List<Long> popular(ConfigurableApplicationContext app) {
+        CategoriaRepository categoriaRepository = app.getBean(CategoriaRepository.class);
+        ProdutoRepository produtoRepository = app.getBean(ProdutoRepository.class);
+
+        List<Categoria> categorias = new ArrayList<>();
+        for (int c = 0; c < CATEGORIAS; c++) {
+            Categoria categoria = new Categoria();
+            categoria.setNome("Categoria " + c);
+            categoria.setAtivo(true);
+            categorias.add(categoria);
+        }
+        categoriaRepository.saveAll(categorias);
+
+        List<Produto> produtos = new ArrayList<>();
+        for (int p = 0; p < PRODUTOS; p++) {
+            Produto produto = new Produto();
+            produto.setNome("Produto " + p);
+            produto.setPreco(BigDecimal.valueOf(10 + p % 500));
+            produto.setEstoque(100);
+            produto.setAtivo(true);
+            produto.setCategoria(categorias.get(p % CATEGORIAS));
+            produtos.add(produto);
+        }
+
+        return produtoRepository.saveAll(produtos).stream().map(Produto::getId).toList();
+    }
+}
@@ -1,6 +1,7 @@
 package com.loja.e_commerce.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loja.e_commerce.configs.WebConfig;
 import com.loja.e_commerce.dtos.categoria.CategoriaRequestDTO;
 import com.loja.e_commerce.dtos.categoria.CategoriaResponseDTO;
 import com.loja.e_commerce.exceptions.ResourceNotFoundException;
@@ -8,21 +9,25 @@ import com.loja.e_commerce.services.CategoriaService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.util.Collections;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-// Sobe somente a camada controller
+// Sobe somente a camada controller + filtro de ETag
 @WebMvcTest(CategoriaController.class)
+@Import(WebConfig.class)
 public class CategoriaControllerTest {
 
     // Simula requisições HTTP (POST, GET, DELETE, JSON, ETC.)
@@ -126,6 +131,54 @@ public class CategoriaControllerTest {
         verify(service).buscar();
     }
 
+    @Test
+    void buscarTodasAsCategoriasComEtag() throws Exception {
+        when(service.buscar())
+                .thenReturn(Collections.singletonList(criarResponse()));
+
+        String etag = mockMvc.perform(get("/categorias"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=300, public"))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/categorias").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void buscarTodasAsCategoriasEmNdjson() throws Exception {
+        when(service.buscar())
+                .thenReturn(List.of(criarResponse(), new CategoriaResponseDTO(11L, "Outra", false)));
+
+        MvcResult resultado = mockMvc.perform(get("/categorias").accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson;charset=UTF-8"))
+                .andExpect(content().string(
+                        "{\"idCategoria\":10,\"nome\":\"Categoria Teste\",\"ativo\":true}\n"
+                                + "{\"idCategoria\":11,\"nome\":\"Outra\",\"ativo\":false}\n"));
+    }
+
+    @Test
+    void escritaNaoRecebeCacheControl() throws Exception {
+        CategoriaRequestDTO request = criarRequest();
+
+        when(service.criar(any())).thenReturn(criarResponse());
+
+        mockMvc.perform(post("/categorias")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(HttpHeaders.CACHE_CONTROL))
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
     @Test
     void atualizarCategoria() throws Exception {
         CategoriaRequestDTO request = criarRequest();
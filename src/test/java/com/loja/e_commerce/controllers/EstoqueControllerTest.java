@@ -0,0 +1,115 @@
+package com.loja.e_commerce.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loja.e_commerce.dtos.estoque.ItemReservaResponseDTO;
+import com.loja.e_commerce.dtos.estoque.QuantidadeReservaDTO;
+import com.loja.e_commerce.dtos.estoque.ReservaRequestDTO;
+import com.loja.e_commerce.dtos.estoque.ReservaResponseDTO;
+import com.loja.e_commerce.exceptions.ConflictException;
+import com.loja.e_commerce.models.StatusReserva;
+import com.loja.e_commerce.services.EstoqueService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Sobe somente a camada web (sem banco, sem service real)
+@WebMvcTest(EstoqueController.class)
+public class EstoqueControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private EstoqueService service;
+
+    private final Long produtoId = 90L;
+    private final Long reservaId = 7L;
+
+    private ReservaResponseDTO criarResponse(StatusReserva status) {
+        return new ReservaResponseDTO(
+                reservaId,
+                status,
+                LocalDateTime.now(),
+                List.of(new ItemReservaResponseDTO(produtoId, 2))
+        );
+    }
+
+    @Test
+    void reservarProduto() throws Exception {
+        when(service.reservar(any())).thenReturn(criarResponse(StatusReserva.PENDENTE));
+
+        mockMvc.perform(post("/produtos/{id}/estoque/reservas", produtoId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new QuantidadeReservaDTO(2))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(reservaId))
+                .andExpect(jsonPath("$.status").value("PENDENTE"))
+                .andExpect(jsonPath("$.itens[0].produtoId").value(produtoId));
+
+        verify(service).reservar(argThat(itens ->
+                itens.size() == 1
+                        && itens.get(0).getProdutoId().equals(produtoId)
+                        && itens.get(0).getQuantidade() == 2));
+    }
+
+    @Test
+    void reservarQuantidadeInvalida() throws Exception {
+        mockMvc.perform(post("/produtos/{id}/estoque/reservas", produtoId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new QuantidadeReservaDTO(0))))
+                .andExpect(status().isBadRequest());
+
+        verify(service, never()).reservar(any());
+    }
+
+    @Test
+    void reservarItensSemItens() throws Exception {
+        mockMvc.perform(post("/produtos/estoque/reservas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new ReservaRequestDTO(List.of()))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void reservarItensSemEstoque() throws Exception {
+        when(service.reservar(any()))
+                .thenThrow(new ConflictException("Estoque insuficiente ou produto inativo: id=" + produtoId));
+
+        mockMvc.perform(post("/produtos/estoque/reservas")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"itens\":[{\"produtoId\":90,\"quantidade\":5}]}"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void confirmarReserva() throws Exception {
+        when(service.confirmar(reservaId)).thenReturn(criarResponse(StatusReserva.CONFIRMADA));
+
+        mockMvc.perform(post("/produtos/estoque/reservas/{reservaId}/confirmacao", reservaId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("CONFIRMADA"));
+    }
+
+    @Test
+    void liberarReserva() throws Exception {
+        when(service.liberar(reservaId)).thenReturn(criarResponse(StatusReserva.LIBERADA));
+
+        mockMvc.perform(delete("/produtos/estoque/reservas/{reservaId}", reservaId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("LIBERADA"));
+    }
+}
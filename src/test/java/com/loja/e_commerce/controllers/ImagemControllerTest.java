@@ -0,0 +1,183 @@
+package com.loja.e_commerce.controllers;
+
+import com.loja.e_commerce.services.ImagemDerivadaService;
+import com.loja.e_commerce.services.storage.StorageBackend;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Sobe somente a camada web (sem banco, sem service real)
+@WebMvcTest(ImagemController.class)
+public class ImagemControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ImagemDerivadaService derivadas;
+
+    @MockitoBean
+    private StorageBackend storage;
+
+    @TempDir
+    private Path diretorio;
+
+    private Path criarArquivo() throws Exception {
+        Path arquivo = Files.write(diretorio.resolve("abc.png"), new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9});
+        when(derivadas.garantir("abc.png")).thenReturn(true);
+        when(storage.caminhoLocal("abc.png")).thenReturn(Optional.of(arquivo));
+        return arquivo;
+    }
+
+    @Test
+    void baixarImagem() throws Exception {
+        Path arquivo = Files.write(diretorio.resolve("abc-150.png"), new byte[]{1, 2, 3});
+        when(derivadas.garantir("abc-150.png")).thenReturn(true);
+        when(storage.caminhoLocal("abc-150.png")).thenReturn(Optional.of(arquivo));
+
+        mockMvc.perform(get("/imagens/abc-150.png"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(content().bytes(new byte[]{1, 2, 3}));
+    }
+
+    @Test
+    void baixarComCacheImutavelEValidadores() throws Exception {
+        Path arquivo = criarArquivo();
+
+        mockMvc.perform(get("/imagens/abc.png"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=31536000, public, immutable"))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, Files.size(arquivo)));
+    }
+
+    @Test
+    void etagIgualResponde304SemCorpo() throws Exception {
+        criarArquivo();
+
+        String etag = mockMvc.perform(get("/imagens/abc.png"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/imagens/abc.png").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void rangeDevolveSoOTrecho() throws Exception {
+        criarArquivo();
+
+        mockMvc.perform(get("/imagens/abc.png").header(HttpHeaders.RANGE, "bytes=2-4"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-4/10"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 3))
+                .andExpect(content().bytes(new byte[]{2, 3, 4}));
+
+        // Sufixo: últimos 3 bytes
+        mockMvc.perform(get("/imagens/abc.png").header(HttpHeaders.RANGE, "bytes=-3"))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes(new byte[]{7, 8, 9}));
+    }
+
+    @Test
+    void rangeForaDoArquivoResponde416() throws Exception {
+        criarArquivo();
+
+        mockMvc.perform(get("/imagens/abc.png").header(HttpHeaders.RANGE, "bytes=20-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+    }
+
+    @Test
+    void ifRangeDesatualizadoIgnoraORange() throws Exception {
+        criarArquivo();
+
+        mockMvc.perform(get("/imagens/abc.png")
+                        .header(HttpHeaders.RANGE, "bytes=2-4")
+                        .header(HttpHeaders.IF_RANGE, "\"outra-versao\""))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9}));
+    }
+
+    @Test
+    void comSendfileOCorpoFicaParaOTomcat() throws Exception {
+        Path arquivo = criarArquivo();
+
+        mockMvc.perform(get("/imagens/abc.png")
+                        .header(HttpHeaders.RANGE, "bytes=2-4")
+                        .requestAttr(ImagemController.SENDFILE_SUPORTE, true))
+                .andExpect(status().isPartialContent())
+                .andExpect(content().bytes(new byte[0]))
+                .andExpect(request().attribute(ImagemController.SENDFILE_ARQUIVO, arquivo.toRealPath().toString()))
+                .andExpect(request().attribute(ImagemController.SENDFILE_INICIO, 2L))
+                .andExpect(request().attribute(ImagemController.SENDFILE_FIM, 5L));
+    }
+
+    @Test
+    void storageRemotoRedirecionaParaAUrlAssinada() throws Exception {
+        URI assinada = URI.create("https://bucket.s3.amazonaws.com/abc.png?X-Amz-Signature=abc");
+        when(storage.urlDireta("abc.png")).thenReturn(Optional.of(assinada));
+
+        mockMvc.perform(get("/imagens/abc.png"))
+                .andExpect(status().isFound())
+                .andExpect(header().string(HttpHeaders.LOCATION, assinada.toString()))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=1800, private"));
+
+        // Original: nenhuma consulta ao bucket antes do redirecionamento
+        verify(derivadas, never()).garantir(anyString());
+        verify(storage, never()).caminhoLocal(anyString());
+    }
+
+    @Test
+    void storageRemotoConfereAMiniaturaUmaVezSo() throws Exception {
+        URI assinada = URI.create("https://bucket.s3.amazonaws.com/abc-150.png?X-Amz-Signature=abc");
+        when(derivadas.original("abc-150.png")).thenReturn(Optional.of("abc.png"));
+        when(derivadas.garantir("abc-150.png")).thenReturn(true);
+        when(storage.urlDireta("abc-150.png")).thenReturn(Optional.of(assinada));
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/imagens/abc-150.png"))
+                    .andExpect(status().isFound())
+                    .andExpect(header().string(HttpHeaders.LOCATION, assinada.toString()));
+        }
+
+        verify(derivadas, times(1)).garantir("abc-150.png");
+    }
+
+    @Test
+    void imagemInexistente() throws Exception {
+        when(derivadas.garantir("abc.jpg")).thenReturn(false);
+
+        mockMvc.perform(get("/imagens/abc.jpg"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void nomeForaDoPadraoNemChegaAoDisco() throws Exception {
+        mockMvc.perform(get("/imagens/abc.txt"))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/imagens/..%2Fapplication.properties"))
+                .andExpect(status().isNotFound());
+
+        verify(derivadas, never()).garantir(anyString());
+    }
+}
@@ -1,29 +1,45 @@
 package com.loja.e_commerce.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.loja.e_commerce.configs.WebConfig;
+import com.loja.e_commerce.dtos.CursorPageResponseDTO;
 import com.loja.e_commerce.dtos.PageResponseDTO;
+import com.loja.e_commerce.dtos.produto.ModoContagem;
 import com.loja.e_commerce.dtos.produto.ProdutoRequestDTO;
 import com.loja.e_commerce.dtos.produto.ProdutoResponseDTO;
+import com.loja.e_commerce.dtos.produto.ProdutosPorIdsResponseDTO;
+import com.loja.e_commerce.dtos.produto.StatusUploadImagem;
+import com.loja.e_commerce.dtos.produto.UploadImagemResponseDTO;
 import com.loja.e_commerce.exceptions.ResourceNotFoundException;
+import com.loja.e_commerce.exceptions.ServiceUnavailableException;
+import com.loja.e_commerce.models.Produto;
+import com.loja.e_commerce.services.ImagemUploadService;
 import com.loja.e_commerce.services.ProdutoService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.CannotCreateTransactionException;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-// Sobe somente a camada web (sem banco, sem service real)
+// Sobe somente a camada web (sem banco, sem service real) + filtro de ETag
 @WebMvcTest(ProdutoController.class)
+@Import(WebConfig.class)
 public class ProdutoControllerTest {
 
     // Simula requisições HTTP (POST, GET, DELETE, JSON, ETC.)
@@ -38,6 +54,9 @@ public class ProdutoControllerTest {
     @MockitoBean
     private ProdutoService service;
 
+    @MockitoBean
+    private ImagemUploadService imagemUpload;
+
     //Fake produto
     private final Long produtoId = 90L;
     private final String nomeProduto = "Mouse teste";
@@ -61,6 +80,12 @@ public class ProdutoControllerTest {
         return dto;
     }
 
+    private final String uploadId = "3f2a6c1e-upload";
+
+    private UploadImagemResponseDTO criarUpload(StatusUploadImagem status, String imagemUrl) {
+        return new UploadImagemResponseDTO(uploadId, produtoId, status, imagemUrl, null, LocalDateTime.now());
+    }
+
     private ProdutoResponseDTO criarResponse() {
         return new ProdutoResponseDTO(
                 produtoId,
@@ -70,7 +95,8 @@ public class ProdutoControllerTest {
                 estoqueProduto,
                 statusProduto,
                 null,
-                nomeCategoria
+                nomeCategoria,
+                0L
         );
     }
 
@@ -108,6 +134,21 @@ public class ProdutoControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void buscarPorIds() throws Exception {
+        when(service.buscarPorIds(List.of(produtoId, 5L)))
+                .thenReturn(new ProdutosPorIdsResponseDTO(List.of(criarResponse()), List.of(5L)));
+
+        mockMvc.perform(get("/produtos").param("ids", produtoId + ",5"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, public"))
+                .andExpect(jsonPath("$.produtos[0].id").value(produtoId))
+                .andExpect(jsonPath("$.naoEncontrados[0]").value(5));
+
+        // Não cai na listagem paginada
+        verify(service, never()).buscar(any());
+    }
+
     @Test
     void buscarPorId() throws Exception {
         ProdutoResponseDTO response = criarResponse();
@@ -127,6 +168,36 @@ public class ProdutoControllerTest {
         verify(service).buscarPorId(produtoId);
     }
 
+    @Test
+    void buscarPorIdComEtagRespondeNaoModificado() throws Exception {
+        when(service.buscarPorId(produtoId)).thenReturn(criarResponse());
+
+        String etag = mockMvc.perform(get("/produtos/{id}", produtoId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, public"))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.ETAG);
+
+        // ETag forte (sem o prefixo W/)
+        assertTrue(etag.startsWith("\""));
+
+        // Mesmo conteúdo: 304 sem corpo
+        mockMvc.perform(get("/produtos/{id}", produtoId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        // Conteúdo mudou: novo corpo com outro ETag
+        ProdutoResponseDTO alterado = new ProdutoResponseDTO(
+                produtoId, "Mouse novo", descricaoProduto, precoProduto,
+                estoqueProduto, statusProduto, null, nomeCategoria, 1L);
+        when(service.buscarPorId(produtoId)).thenReturn(alterado);
+
+        mockMvc.perform(get("/produtos/{id}", produtoId).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nome").value("Mouse novo"));
+    }
+
     @Test
     void buscarProdutoNaoEncontrado() throws Exception {
 
@@ -168,6 +239,70 @@ public class ProdutoControllerTest {
         verify(service).buscar(any());
     }
 
+    @Test
+    void buscarSemContagem() throws Exception {
+        PageResponseDTO<ProdutoResponseDTO> page =
+                new PageResponseDTO<>(List.of(criarResponse()), 0, 10, null, null, true, false);
+
+        when(service.buscar(argThat(f -> f.getContagem() == ModoContagem.NENHUMA)))
+                .thenReturn(page);
+
+        mockMvc.perform(get("/produtos")
+                        .param("contagem", "NENHUMA"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.totalElements").isEmpty())
+                .andExpect(jsonPath("$.content[0].id").value(produtoId));
+    }
+
+    @Test
+    void buscarPorRelevancia() throws Exception {
+        PageResponseDTO<ProdutoResponseDTO> page =
+                new PageResponseDTO<>(List.of(criarResponse()), 0, 10, 1, 1);
+
+        when(service.buscar(argThat(f -> Boolean.TRUE.equals(f.getRelevancia())
+                && nomeProduto.equals(f.getNome()))))
+                .thenReturn(page);
+
+        mockMvc.perform(get("/produtos")
+                        .param("nome", nomeProduto)
+                        .param("relevancia", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(produtoId));
+    }
+
+    @Test
+    void buscarPorCursor() throws Exception {
+        ProdutoResponseDTO produto = criarResponse();
+
+        CursorPageResponseDTO<ProdutoResponseDTO> page =
+                new CursorPageResponseDTO<>(List.of(produto), 1, "OTA", true);
+
+        when(service.buscarPorCursor(any(), eq(""))).thenReturn(page);
+
+        mockMvc.perform(get("/produtos")
+                        .param("cursor", "")
+                        .param("tamanho", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(1))
+                .andExpect(jsonPath("$.nextCursor").value("OTA"))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.content[0].id").value(produtoId));
+
+        verify(service).buscarPorCursor(any(), eq(""));
+        verify(service, never()).buscar(any());
+    }
+
+    @Test
+    void cursorEIdsJuntosRespondem400() throws Exception {
+        mockMvc.perform(get("/produtos")
+                        .param("cursor", "")
+                        .param("ids", "1,2"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(service);
+    }
+
     @Test
     void atualizarProduto() throws Exception {
         ProdutoRequestDTO request = criarRequest();
@@ -190,6 +325,20 @@ public class ProdutoControllerTest {
         verify(service).atualizar(any(), any());
     }
 
+    @Test
+    void atualizarProdutoAlteradoPorOutraRequisicao() throws Exception {
+        ProdutoRequestDTO request = criarRequest();
+
+        // UPDATE com versão antiga (@Version)
+        when(service.atualizar(any(), any()))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Produto.class, produtoId));
+
+        mockMvc.perform(put("/produtos/{id}", produtoId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isConflict());
+    }
+
     @Test
     void deletarProduto() throws Exception {
         when(service.deletar(produtoId)).thenReturn("Produto excluído com sucesso");
@@ -210,14 +359,53 @@ public class ProdutoControllerTest {
                 "fake".getBytes()
         );
 
-        when(service.salvarImagem(eq(produtoId), any()))
-                .thenReturn("Imagem salva com sucesso");
+        when(imagemUpload.iniciar(eq(produtoId), any()))
+                .thenReturn(criarUpload(StatusUploadImagem.PENDENTE, null));
+
+        mockMvc.perform(multipart("/produtos/{id}/imagem", produtoId)
+                        .file(file))
+                        .andExpect(status().isAccepted())
+                        .andExpect(header().string(HttpHeaders.LOCATION,
+                                "http://localhost/produtos/" + produtoId + "/imagem/uploads/" + uploadId))
+                        .andExpect(jsonPath("$.id").value(uploadId))
+                        .andExpect(jsonPath("$.status").value("PENDENTE"));
+
+        verify(imagemUpload).iniciar(eq(produtoId), any());
+    }
+
+    @Test
+    void uploadImagemComFilaCheia() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("imagem", "img.png", "image/png", "fake".getBytes());
+
+        when(imagemUpload.iniciar(eq(produtoId), any()))
+                .thenThrow(new ServiceUnavailableException("Muitos uploads em andamento, tente novamente em instantes"));
 
         mockMvc.perform(multipart("/produtos/{id}/imagem", produtoId)
                         .file(file))
-                        .andExpect(status().isCreated())
-                        .andExpect(content().string("Imagem salva com sucesso"));
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+    }
 
-        verify(service).salvarImagem(eq(produtoId), any());
+    @Test
+    void poolDeConexoesEsgotadoResponde503() throws Exception {
+        when(service.buscarPorId(produtoId))
+                .thenThrow(new CannotCreateTransactionException("Could not open JPA EntityManager for transaction"));
+
+        mockMvc.perform(get("/produtos/{id}", produtoId))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "5"))
+                .andExpect(jsonPath("$.status").value(503));
+    }
+
+    @Test
+    void statusUploadImagem() throws Exception {
+        when(imagemUpload.status(produtoId, uploadId))
+                .thenReturn(criarUpload(StatusUploadImagem.CONCLUIDO, "img.png"));
+
+        mockMvc.perform(get("/produtos/{id}/imagem/uploads/{uploadId}", produtoId, uploadId))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-store"))
+                .andExpect(jsonPath("$.status").value("CONCLUIDO"))
+                .andExpect(jsonPath("$.imagemUrl").value("img.png"));
     }
 }
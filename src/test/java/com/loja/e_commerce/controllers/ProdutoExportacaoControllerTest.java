@@ -0,0 +1,106 @@
+package com.loja.e_commerce.controllers;
+
+import com.loja.e_commerce.configs.WebConfig;
+import com.loja.e_commerce.dtos.produto.ProdutoResponseDTO;
+import com.loja.e_commerce.exceptions.BadRequestException;
+import com.loja.e_commerce.mappers.ProdutoCsvMapper;
+import com.loja.e_commerce.services.ProdutoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Camada web + escrita do CSV real; o service entrega os produtos pelo Consumer
+@WebMvcTest(ProdutoExportacaoController.class)
+@Import({ProdutoCsvMapper.class, WebConfig.class})
+public class ProdutoExportacaoControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ProdutoService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void configurarService() {
+        List<ProdutoResponseDTO> produtos = List.of(
+                new ProdutoResponseDTO(1L, "Mouse, sem fio", null, new BigDecimal("59.90"),
+                        3, true, null, "Periféricos", 0L),
+                new ProdutoResponseDTO(2L, "Teclado", "ABNT2", new BigDecimal("120.00"),
+                        5, true, "/uploads/teclado.png", "Periféricos", 1L)
+        );
+
+        when(service.exportar(any(), any())).thenAnswer(invocation -> {
+            Consumer<ProdutoResponseDTO> destino = invocation.getArgument(1);
+            produtos.forEach(destino);
+            return (long) produtos.size();
+        });
+    }
+
+    @Test
+    void exportarNdjson() throws Exception {
+        MvcResult resultado = mockMvc.perform(get("/produtos/export").param("categoriaId", "4"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson;charset=UTF-8"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"produtos.ndjson\""))
+                // Sem ETag: o corpo não fica guardado em memória pelo filtro
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(content().string(
+                        "{\"id\":1,\"nome\":\"Mouse, sem fio\",\"descricao\":null,\"preco\":59.90,\"estoque\":3,"
+                                + "\"ativo\":true,\"imagemUrl\":null,\"categoria\":\"Periféricos\",\"versao\":0,\"imagens\":null}\n"
+                                + "{\"id\":2,\"nome\":\"Teclado\",\"descricao\":\"ABNT2\",\"preco\":120.00,\"estoque\":5,"
+                                + "\"ativo\":true,\"imagemUrl\":\"/uploads/teclado.png\",\"categoria\":\"Periféricos\",\"versao\":1,\"imagens\":null}\n"));
+
+        verify(service).exportar(argThat(dto -> dto.getCategoriaId().equals(4L)), any());
+    }
+
+    @Test
+    void exportarCsv() throws Exception {
+        MvcResult resultado = mockMvc.perform(get("/produtos/export").param("formato", "CSV"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"produtos.csv\""))
+                .andExpect(content().string(
+                        "id,nome,descricao,preco,estoque,ativo,imagemUrl,categoria,versao\n"
+                                + "1,\"Mouse, sem fio\",,59.90,3,true,,Periféricos,0\n"
+                                + "2,Teclado,ABNT2,120.00,5,true,/uploads/teclado.png,Periféricos,1\n"));
+    }
+
+    @Test
+    void exportarComFaixaDePrecoInvalida() throws Exception {
+        doThrow(new BadRequestException("Preço mínimo não pode ser maior que o máximo"))
+                .when(service).validarExportacao(any());
+
+        mockMvc.perform(get("/produtos/export")
+                        .param("precoMin", "100")
+                        .param("precoMax", "10"))
+                .andExpect(status().isBadRequest());
+
+        // Recusado antes de a exportação começar
+        verify(service, never()).exportar(any(), any());
+    }
+}
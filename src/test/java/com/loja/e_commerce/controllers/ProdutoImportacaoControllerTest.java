@@ -0,0 +1,108 @@
+package com.loja.e_commerce.controllers;
+
+import com.loja.e_commerce.dtos.produto.ErroImportacaoDTO;
+import com.loja.e_commerce.dtos.produto.ImportacaoResponseDTO;
+import com.loja.e_commerce.dtos.produto.ProdutoRequestDTO;
+import com.loja.e_commerce.mappers.ProdutoCsvMapper;
+import com.loja.e_commerce.services.LinhaImportacao;
+import com.loja.e_commerce.services.ProdutoImportacaoService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Camada web + leitor de CSV real; o service é mockado
+@WebMvcTest(ProdutoImportacaoController.class)
+@Import(ProdutoCsvMapper.class)
+public class ProdutoImportacaoControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ProdutoImportacaoService service;
+
+    @Test
+    void importarJson() throws Exception {
+        when(service.importar(anyList())).thenReturn(new ImportacaoResponseDTO(2, 1,
+                List.of(new ErroImportacaoDTO(2, "", "Nome é obrigatório"))));
+
+        mockMvc.perform(post("/produtos/importacao")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [{"nome":"Mouse","preco":50,"estoque":3,"categoriaId":1},
+                                 {"nome":"","preco":10,"estoque":1,"categoriaId":1}]
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalLinhas").value(2))
+                .andExpect(jsonPath("$.importados").value(1))
+                .andExpect(jsonPath("$.erros[0].linha").value(2))
+                .andExpect(jsonPath("$.erros[0].mensagem").value("Nome é obrigatório"));
+
+        verify(service).importar(argThat((List<ProdutoRequestDTO> lista) ->
+                lista.size() == 2 && lista.get(0).getNome().equals("Mouse")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importarCsv() throws Exception {
+        List<LinhaImportacao> lidas = new ArrayList<>();
+
+        // O iterator só pode ser consumido enquanto o corpo da requisição está aberto
+        when(service.importar(any(Iterator.class))).thenAnswer(invocation -> {
+            Iterator<LinhaImportacao> linhas = invocation.getArgument(0);
+            linhas.forEachRemaining(lidas::add);
+            return new ImportacaoResponseDTO(lidas.size(), 1, List.of());
+        });
+
+        String csv = "\uFEFFnome,descricao,preco,estoque,categoriaId\n"
+                + "\"Mouse, sem fio\",\"Modelo \"\"X\"\"\",59.90,3,1\n"
+                + "\n"
+                + "Teclado,,abc,2,1\n";
+
+        mockMvc.perform(post("/produtos/importacao")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalLinhas").value(2));
+
+        assertEquals(2, lidas.size());
+
+        LinhaImportacao mouse = lidas.get(0);
+        assertEquals(2, mouse.linha());
+        assertNull(mouse.erro());
+        assertEquals("Mouse, sem fio", mouse.produto().getNome());
+        assertEquals("Modelo \"X\"", mouse.produto().getDescricao());
+        assertEquals(0, new BigDecimal("59.90").compareTo(mouse.produto().getPreco()));
+
+        // Linha em branco conta na numeração, preço inválido vira erro da linha
+        LinhaImportacao teclado = lidas.get(1);
+        assertEquals(4, teclado.linha());
+        assertNotNull(teclado.erro());
+    }
+
+    @Test
+    void importarCsvSemColunasObrigatorias() throws Exception {
+        mockMvc.perform(post("/produtos/importacao")
+                        .contentType("text/csv")
+                        .content("nome,preco\nMouse,10\n"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(service);
+    }
+}
@@ -0,0 +1,71 @@
+package com.loja.e_commerce.controllers;
+
+import com.loja.e_commerce.dtos.produto.OperacaoLoteResponseDTO;
+import com.loja.e_commerce.services.ProdutoLoteService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Sobe somente a camada web (sem banco, sem service real)
+@WebMvcTest(ProdutoLoteController.class)
+public class ProdutoLoteControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ProdutoLoteService service;
+
+    @Test
+    void atualizarEmLote() throws Exception {
+        when(service.atualizar(any())).thenReturn(new OperacaoLoteResponseDTO(12));
+
+        mockMvc.perform(patch("/produtos/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"filtros": {"categoriaId": 3}, "ativo": false, "percentualPreco": -15}
+                                """))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.afetados").value(12));
+
+        verify(service).atualizar(argThat(dto ->
+                dto.getFiltros().getCategoriaId().equals(3L)
+                        && Boolean.FALSE.equals(dto.getAtivo())
+                        && dto.getPercentualPreco().compareTo(new BigDecimal("-15")) == 0));
+    }
+
+    @Test
+    void atualizarComPercentualInvalido() throws Exception {
+        mockMvc.perform(patch("/produtos/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"filtros": {"categoriaId": 3}, "percentualPreco": -100}
+                                """))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    void deletarEmLote() throws Exception {
+        when(service.deletar(any())).thenReturn(new OperacaoLoteResponseDTO(4));
+
+        mockMvc.perform(delete("/produtos/lote").param("categoriaId", "3").param("precoMax", "50"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.afetados").value(4));
+
+        verify(service).deletar(argThat(dto ->
+                dto.getCategoriaId().equals(3L) && dto.getPrecoMax().compareTo(new BigDecimal("50")) == 0));
+    }
+}
@@ -0,0 +1,83 @@
+package com.loja.e_commerce.controllers;
+
+import com.loja.e_commerce.configs.WebConfig;
+import com.loja.e_commerce.dtos.produto.ProdutoResponseDTO;
+import com.loja.e_commerce.exceptions.BadRequestException;
+import com.loja.e_commerce.services.ProdutoStreamService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Camada web do GET /produtos em NDJSON; o service entrega os lotes pela Transmissao
+@WebMvcTest(ProdutoStreamController.class)
+@Import(WebConfig.class)
+public class ProdutoStreamControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ProdutoStreamService service;
+
+    @Test
+    void transmitirEmLotes() throws Exception {
+        ProdutoResponseDTO mouse = new ProdutoResponseDTO(1L, "Mouse", null, new BigDecimal("59.90"),
+                3, true, null, "Periféricos", 0L);
+        ProdutoResponseDTO teclado = new ProdutoResponseDTO(2L, "Teclado", null, new BigDecimal("120.00"),
+                5, true, null, "Periféricos", 1L);
+
+        when(service.abrir(any())).thenReturn(destino -> {
+            destino.accept(List.of(mouse));
+            destino.accept(List.of(teclado));
+            return 2;
+        });
+
+        MvcResult resultado = mockMvc.perform(get("/produtos")
+                        .accept("application/x-ndjson")
+                        .param("categoriaId", "4")
+                        .param("precoMin", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson;charset=UTF-8"))
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(content().string(
+                        "{\"id\":1,\"nome\":\"Mouse\",\"descricao\":null,\"preco\":59.90,\"estoque\":3,"
+                                + "\"ativo\":true,\"imagemUrl\":null,\"categoria\":\"Periféricos\",\"versao\":0,\"imagens\":null}\n"
+                                + "{\"id\":2,\"nome\":\"Teclado\",\"descricao\":null,\"preco\":120.00,\"estoque\":5,"
+                                + "\"ativo\":true,\"imagemUrl\":null,\"categoria\":\"Periféricos\",\"versao\":1,\"imagens\":null}\n"));
+
+        verify(service).abrir(argThat(dto -> dto.getCategoriaId().equals(4L)
+                && dto.getPrecoMin().compareTo(BigDecimal.TEN) == 0));
+    }
+
+    @Test
+    void filtroInvalidoRespondeAntesDeComecarOStream() throws Exception {
+        when(service.abrir(any())).thenThrow(new BadRequestException("Preço mínimo não pode ser maior que o máximo"));
+
+        mockMvc.perform(get("/produtos")
+                        .accept("application/x-ndjson")
+                        .param("precoMin", "100")
+                        .param("precoMax", "10"))
+                .andExpect(status().isBadRequest())
+                // Erro continua em JSON, mesmo com o cliente pedindo NDJSON
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+}
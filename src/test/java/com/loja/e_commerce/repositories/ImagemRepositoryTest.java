@@ -0,0 +1,61 @@
+package com.loja.e_commerce.repositories;
+
+import com.loja.e_commerce.models.Imagem;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Sobe apenas o contexto JPA (cria banco H2 em memória)
+@DataJpaTest
+public class ImagemRepositoryTest {
+
+    @Autowired
+    private ImagemRepository imagemRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private int referencias(String nome) {
+        entityManager.clear();
+        return imagemRepository.findById(nome).orElseThrow().getReferencias();
+    }
+
+    @Test
+    void contagemDeReferencias() {
+        imagemRepository.saveAndFlush(new Imagem("abc.png"));
+
+        assertEquals(1, imagemRepository.adicionarReferencia("abc.png"));
+        assertEquals(2, referencias("abc.png"));
+
+        assertEquals(1, imagemRepository.removerReferencias("abc.png", 1));
+
+        // Ainda tem uma referência: a linha (e o arquivo) ficam
+        assertEquals(0, imagemRepository.removerSemReferencias("abc.png"));
+        assertEquals(1, referencias("abc.png"));
+
+        assertEquals(1, imagemRepository.removerReferencias("abc.png", 1));
+        assertEquals(1, imagemRepository.removerSemReferencias("abc.png"));
+
+        entityManager.clear();
+        assertTrue(imagemRepository.findById("abc.png").isEmpty());
+    }
+
+    @Test
+    void variosProdutosComAMesmaImagemEmUmUpdate() {
+        Imagem imagem = new Imagem("abc.png");
+        imagem.setReferencias(3);
+        imagemRepository.saveAndFlush(imagem);
+
+        assertEquals(1, imagemRepository.removerReferencias("abc.png", 3));
+        assertEquals(1, imagemRepository.removerSemReferencias("abc.png"));
+    }
+
+    @Test
+    void imagemDesconhecidaNaoAlteraNada() {
+        assertEquals(0, imagemRepository.adicionarReferencia("nao-existe.png"));
+        assertEquals(0, imagemRepository.removerReferencias("nao-existe.png", 1));
+    }
+}
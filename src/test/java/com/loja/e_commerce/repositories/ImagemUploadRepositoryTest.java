@@ -0,0 +1,46 @@
+package com.loja.e_commerce.repositories;
+
+import com.loja.e_commerce.dtos.produto.StatusUploadImagem;
+import com.loja.e_commerce.models.ImagemUpload;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tabela imagens_uploads da migração V11
+@DataJpaTest
+public class ImagemUploadRepositoryTest {
+
+    @Autowired
+    private ImagemUploadRepository uploadRepository;
+
+    @Test
+    void statusGravadoEAtualizado() {
+        uploadRepository.saveAndFlush(new ImagemUpload("upload-1", 10L));
+
+        ImagemUpload upload = uploadRepository.findById("upload-1").orElseThrow();
+        assertEquals(StatusUploadImagem.PENDENTE, upload.getStatus());
+
+        upload.setStatus(StatusUploadImagem.CONCLUIDO);
+        upload.setImagemUrl("/imagens/abc.png");
+        uploadRepository.saveAndFlush(upload);
+
+        assertEquals(StatusUploadImagem.CONCLUIDO, uploadRepository.findById("upload-1").orElseThrow().getStatus());
+    }
+
+    @Test
+    void removerSoOsVencidos() {
+        ImagemUpload antigo = new ImagemUpload("antigo", 10L);
+        antigo.setCriadoEm(LocalDateTime.now().minusHours(2));
+        uploadRepository.save(antigo);
+        uploadRepository.saveAndFlush(new ImagemUpload("recente", 10L));
+
+        assertEquals(1, uploadRepository.removerCriadosAntesDe(LocalDateTime.now().minusHours(1)));
+
+        assertFalse(uploadRepository.existsById("antigo"));
+        assertTrue(uploadRepository.existsById("recente"));
+    }
+}
@@ -0,0 +1,100 @@
+package com.loja.e_commerce.repositories;
+
+import com.loja.e_commerce.models.Categoria;
+import com.loja.e_commerce.models.Produto;
+import com.loja.e_commerce.repositories.specification.ProdutoSpecification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Roda EXPLAIN no SQL que o Hibernate realmente gera e confere o índice escolhido
+// (índices criados pela migração V3 do H2)
+@DataJpaTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.loja.e_commerce.repositories.SqlCapturado")
+public class IndicesExplainTest {
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Categoria categoria;
+
+    @BeforeEach
+    void popularBanco() {
+        categoria = new Categoria();
+        categoria.setNome("Eletronico");
+        categoria.setAtivo(true);
+        entityManager.persist(categoria);
+
+        for (int i = 0; i < 50; i++) {
+            Produto p = new Produto();
+            p.setNome("Produto " + i);
+            p.setPreco(BigDecimal.valueOf(10 + i));
+            p.setEstoque(1);
+            p.setAtivo(i % 5 != 0);
+            p.setCategoria(categoria);
+            entityManager.persist(p);
+        }
+
+        entityManager.flush();
+        SqlCapturado.limpar();
+    }
+
+    @Test
+    void duplicidadeDeNomeUsaIndiceCategoriaNome() {
+        produtoRepository.existsByNomeIgnoreCaseAndCategoria_Id("produto 1", categoria.getId());
+
+        String plano = explain(SqlCapturado.ultimo("from produtos"));
+
+        assertTrue(plano.contains("IDX_PRODUTOS_CATEGORIA_NOME"), plano);
+    }
+
+    @Test
+    void faixaDePrecoUsaIndiceAtivoPreco() {
+        produtoRepository.buscarResumos(
+                ProdutoSpecification.ativo()
+                        .and(ProdutoSpecification.precoMin(new BigDecimal("20")))
+                        .and(ProdutoSpecification.precoMax(new BigDecimal("30"))),
+                PageRequest.of(0, 10)
+        );
+
+        String plano = explain(SqlCapturado.ultimo("from produtos"));
+
+        assertTrue(plano.contains("IDX_PRODUTOS_ATIVO_PRECO"), plano);
+    }
+
+    @Test
+    void paginaDeCategoriaUsaIndiceAtivoCategoriaPreco() {
+        produtoRepository.buscarResumos(
+                ProdutoSpecification.ativo()
+                        .and(ProdutoSpecification.categoriaId(categoria.getId()))
+                        .and(ProdutoSpecification.precoMin(new BigDecimal("20"))),
+                PageRequest.of(0, 10)
+        );
+
+        String plano = explain(SqlCapturado.ultimo("from produtos"));
+
+        assertTrue(plano.contains("IDX_PRODUTOS_ATIVO_CATEGORIA_PRECO"), plano);
+    }
+
+    // EXPLAIN aceita os parâmetros sem valor (?1, ?2...) no H2
+    private String explain(String sql) {
+        return jdbcTemplate.query(
+                con -> con.prepareStatement("EXPLAIN " + sql),
+                rs -> rs.next() ? rs.getString(1) : ""
+        );
+    }
+}
@@ -0,0 +1,164 @@
+package com.loja.e_commerce.repositories;
+
+import com.loja.e_commerce.models.Categoria;
+import com.loja.e_commerce.models.Produto;
+import com.loja.e_commerce.repositories.specification.ProdutoSpecification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Mesma ideia do IndicesExplainTest, mas no PostgreSQL (migrações V2 e V3 do PostgreSQL: busca por nome,
+// índices parciais WHERE ativo e de expressão em upper(nome)). Só roda com o banco informado, como os testes de carga:
+// ./mvnw test -Dtest=IndicesPostgresExplainTest -Dspring.datasource.url=jdbc:postgresql://... (e usuário/senha)
+// Com poucas linhas o planner prefere seq scan; desligado, ele só continua aparecendo se o índice não servir
+@EnabledIfSystemProperty(named = "spring.datasource.url", matches = "jdbc:postgresql:.*")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DataJpaTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=com.loja.e_commerce.repositories.SqlCapturado")
+public class IndicesPostgresExplainTest {
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Categoria categoria;
+
+    @BeforeEach
+    void popularBanco() {
+        categoria = new Categoria();
+        categoria.setNome("Eletronico explain");
+        categoria.setAtivo(true);
+        entityManager.persist(categoria);
+
+        for (int i = 0; i < 50; i++) {
+            Produto p = new Produto();
+            p.setNome("Produto " + i);
+            p.setPreco(BigDecimal.valueOf(10 + i));
+            p.setEstoque(1);
+            p.setAtivo(i % 5 != 0);
+            p.setCategoria(categoria);
+            entityManager.persist(p);
+        }
+
+        entityManager.flush();
+        // Tudo desfeito no rollback do teste, inclusive as estatísticas
+        jdbcTemplate.execute("ANALYZE produtos");
+        jdbcTemplate.execute("ANALYZE categorias");
+        SqlCapturado.limpar();
+    }
+
+    @Test
+    void duplicidadeDeNomeUsaIndiceCategoriaNome() {
+        produtoRepository.existsByNomeIgnoreCaseAndCategoria_Id("produto 1", categoria.getId());
+
+        String plano = explain(SqlCapturado.ultimo("from produtos"));
+
+        assertTrue(plano.contains("idx_produtos_categoria_nome"), plano);
+    }
+
+    @Test
+    void duplicidadeDeNomeDeCategoriaUsaIndiceUpper() {
+        categoriaRepository.existsByNomeIgnoreCase("eletronico explain");
+
+        String plano = explain(SqlCapturado.ultimo("from categorias"));
+
+        assertTrue(plano.contains("idx_categorias_nome_upper"), plano);
+    }
+
+    @Test
+    void faixaDePrecoUsaIndiceParcialAtivoPreco() {
+        produtoRepository.buscarResumos(
+                ProdutoSpecification.ativo()
+                        .and(ProdutoSpecification.precoMin(new BigDecimal("20")))
+                        .and(ProdutoSpecification.precoMax(new BigDecimal("30"))),
+                PageRequest.of(0, 10)
+        );
+
+        String plano = explain(SqlCapturado.ultimo("from produtos"));
+
+        assertTrue(plano.contains("idx_produtos_ativo_preco"), plano);
+    }
+
+    @Test
+    void paginaDeCategoriaUsaIndiceParcialAtivoCategoriaPreco() {
+        produtoRepository.buscarResumos(
+                ProdutoSpecification.ativo()
+                        .and(ProdutoSpecification.categoriaId(categoria.getId()))
+                        .and(ProdutoSpecification.precoMin(new BigDecimal("20"))),
+                PageRequest.of(0, 10)
+        );
+
+        String plano = explain(SqlCapturado.ultimo("from produtos"));
+
+        assertTrue(plano.contains("idx_produtos_ativo_categoria_preco"), plano);
+    }
+
+    @Test
+    void buscaPorRelevanciaUsaIndicesTrigramEFullText() {
+        produtoRepository.buscarResumos(
+                ProdutoSpecification.ativo()
+                        .and(ProdutoSpecification.nomeCorresponde("produto"))
+                        .and(ProdutoSpecification.ordenarPorRelevancia("produto")),
+                PageRequest.of(0, 10)
+        );
+
+        String plano = explain(SqlCapturado.ultimo("from produtos"));
+
+        // produto_nome_corresponde precisa ser expandida pelo planner: chamada como função, nenhum índice serve
+        assertTrue(plano.contains("idx_produtos_nome_fts"), plano);
+        assertTrue(plano.contains("idx_produtos_nome_sem_acento_trgm"), plano);
+    }
+
+    // Plano genérico (o mesmo que o pool reaproveita depois de algumas execuções): os parâmetros
+    // do Hibernate viram $1, $2... e o valor passado no EXECUTE não influencia a escolha do índice
+    private String explain(String sql) {
+        int parametros = 0;
+        StringBuilder numerado = new StringBuilder();
+
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numerado.append('$').append(++parametros);
+            } else {
+                numerado.append(c);
+            }
+        }
+
+        jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+        jdbcTemplate.execute("SET LOCAL plan_cache_mode = force_generic_plan");
+        jdbcTemplate.execute("PREPARE consulta_explain AS " + numerado);
+
+        try {
+            String argumentos = parametros == 0 ? ""
+                    : "(" + String.join(", ", Collections.nCopies(parametros, "NULL")) + ")";
+
+            String plano = String.join("\n",
+                    jdbcTemplate.queryForList("EXPLAIN EXECUTE consulta_explain" + argumentos, String.class));
+
+            assertFalse(plano.contains("Seq Scan on produtos"), plano);
+
+            return plano;
+        } finally {
+            jdbcTemplate.execute("DEALLOCATE consulta_explain");
+        }
+    }
+}
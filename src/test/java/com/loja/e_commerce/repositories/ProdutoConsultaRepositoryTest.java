@@ -0,0 +1,193 @@
+package com.loja.e_commerce.repositories;
+
+import com.loja.e_commerce.dtos.produto.ProdutoResponseDTO;
+import com.loja.e_commerce.models.Categoria;
+import com.loja.e_commerce.models.Produto;
+import com.loja.e_commerce.repositories.specification.ProdutoSpecification;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Estatísticas do Hibernate ligadas para contar os SQL executados
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+public class ProdutoConsultaRepositoryTest {
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Statistics estatisticas;
+
+    @BeforeEach
+    void popularBanco() {
+        // 10 categorias diferentes: no N+1 seriam até 10 SELECTs extras por página
+        for (int c = 0; c < 10; c++) {
+            Categoria categoria = new Categoria();
+            categoria.setNome("Categoria " + c);
+            categoria.setAtivo(true);
+            entityManager.persist(categoria);
+
+            for (int p = 0; p < 12; p++) {
+                Produto produto = new Produto();
+                produto.setNome("Produto " + c + "-" + p);
+                produto.setPreco(new BigDecimal("10.00").add(BigDecimal.valueOf(p)));
+                produto.setEstoque(5);
+                produto.setAtivo(true);
+                produto.setCategoria(categoria);
+                entityManager.persist(produto);
+            }
+        }
+
+        entityManager.flush();
+        // Limpa o contexto para nenhuma categoria ficar em cache de primeiro nível
+        entityManager.clear();
+
+        estatisticas = entityManager.getEntityManager()
+                .getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        estatisticas.clear();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 20, 100})
+    void quantidadeDeSqlFixaIndependenteDoTamanhoDaPagina(int tamanho) {
+        Page<ProdutoResponseDTO> pagina = produtoRepository.buscarResumos(
+                ProdutoSpecification.ativo(),
+                PageRequest.of(0, tamanho, Sort.by("id"))
+        );
+
+        assertEquals(tamanho, pagina.getNumberOfElements());
+        assertEquals(120, pagina.getTotalElements());
+        assertTrue(pagina.getContent().stream().allMatch(p -> p.categoria() != null));
+
+        // 1 SELECT da página (com JOIN na categoria) + 1 COUNT
+        assertEquals(2, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void buscarResumoPorIdEmUmSelect() {
+        Long id = produtoRepository.buscarResumos(ProdutoSpecification.ativo(), Sort.by("id"), 1)
+                .get(0).id();
+        estatisticas.clear();
+
+        ProdutoResponseDTO produto = produtoRepository.buscarResumo(id).orElseThrow();
+
+        assertEquals("Categoria 0", produto.categoria());
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+
+        assertTrue(produtoRepository.buscarResumo(-1L).isEmpty());
+    }
+
+    @Test
+    void buscarResumosPorIdsEmUmSelect() {
+        List<Long> ids = produtoRepository.buscarResumos(ProdutoSpecification.ativo(), Sort.by("id"), 3)
+                .stream().map(ProdutoResponseDTO::id).toList();
+        estatisticas.clear();
+
+        List<ProdutoResponseDTO> produtos = produtoRepository.buscarResumosPorIds(List.of(ids.get(2), ids.get(0), -1L));
+
+        assertEquals(2, produtos.size());
+        assertTrue(produtos.stream().allMatch(p -> "Categoria 0".equals(p.categoria())));
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void buscarFatiaSemCount() {
+        Slice<ProdutoResponseDTO> fatia = produtoRepository.buscarFatia(
+                ProdutoSpecification.ativo(),
+                PageRequest.of(3, 20, Sort.by("id"))
+        );
+
+        assertEquals(20, fatia.getNumberOfElements());
+        assertTrue(fatia.hasNext());
+
+        // Só o SELECT da página (LIMIT tamanho + 1), nenhum COUNT
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+
+        Slice<ProdutoResponseDTO> ultima = produtoRepository.buscarFatia(
+                ProdutoSpecification.ativo(),
+                PageRequest.of(5, 20, Sort.by("id"))
+        );
+
+        assertEquals(20, ultima.getNumberOfElements());
+        assertFalse(ultima.hasNext());
+    }
+
+    @Test
+    void buscarPorCursorPulaDiretoParaOUltimoId() {
+        List<ProdutoResponseDTO> primeira = produtoRepository.buscarResumos(
+                ProdutoSpecification.ativo(), Sort.by("id"), 10);
+
+        Long ultimoId = primeira.get(primeira.size() - 1).id();
+        estatisticas.clear();
+
+        List<ProdutoResponseDTO> segunda = produtoRepository.buscarResumos(
+                ProdutoSpecification.ativo().and(ProdutoSpecification.idMaiorQue(ultimoId)),
+                Sort.by("id"),
+                10
+        );
+
+        assertEquals(10, segunda.size());
+        assertTrue(segunda.stream().allMatch(p -> p.id() > ultimoId));
+
+        // Sem COUNT no modo cursor
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+    }
+
+    @Test
+    void percorrerResumosEmUmaUnicaConsulta() {
+        List<ProdutoResponseDTO> produtos;
+
+        try (Stream<ProdutoResponseDTO> stream = produtoRepository.percorrerResumos(
+                ProdutoSpecification.ativo().and(ProdutoSpecification.precoMin(new BigDecimal("20"))),
+                Sort.by("id"))) {
+            produtos = stream.toList();
+        }
+
+        // Produtos X-10 e X-11 de cada uma das 10 categorias, em ordem de id
+        assertEquals(20, produtos.size());
+        assertTrue(produtos.stream().allMatch(p -> p.categoria() != null));
+        for (int i = 1; i < produtos.size(); i++) {
+            assertTrue(produtos.get(i - 1).id() < produtos.get(i).id());
+        }
+
+        // Um único SELECT (sem COUNT, sem paginação)
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 20})
+    void aplicaOsMesmosFiltrosDaSpecification(int tamanho) {
+        Page<ProdutoResponseDTO> pagina = produtoRepository.buscarResumos(
+                ProdutoSpecification.ativo()
+                        .and(ProdutoSpecification.nomeContem("produto 3-"))
+                        .and(ProdutoSpecification.precoMin(new BigDecimal("15"))),
+                PageRequest.of(0, tamanho)
+        );
+
+        // Produto 3-5 até 3-11 => preço de 15 a 21
+        assertEquals(7, pagina.getTotalElements());
+        assertTrue(pagina.getContent().stream()
+                .allMatch(p -> p.categoria().equals("Categoria 3")
+                        && p.preco().compareTo(new BigDecimal("15")) >= 0));
+    }
+}
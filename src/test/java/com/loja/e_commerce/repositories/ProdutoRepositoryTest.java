@@ -298,6 +298,56 @@ public class ProdutoRepositoryTest {
         assertEquals(2, resultado.size());
     }
 
+    @Test
+    void buscarPorRelevanciaIgnorandoAcentos() {
+        Categoria c = new Categoria();
+        c.setNome("Bebidas");
+        c.setAtivo(true);
+        entityManager.persist(c);
+
+        Produto p1 = new Produto();
+        p1.setNome("Cafeteira Elétrica");
+        p1.setPreco(new BigDecimal("250"));
+        p1.setEstoque(5);
+        p1.setAtivo(true);
+        p1.setCategoria(c);
+        entityManager.persist(p1);
+
+        Produto p2 = new Produto();
+        p2.setNome("Café Especial");
+        p2.setPreco(new BigDecimal("40"));
+        p2.setEstoque(30);
+        p2.setAtivo(true);
+        p2.setCategoria(c);
+        entityManager.persist(p2);
+
+        Produto p3 = new Produto();
+        p3.setNome("Chá Verde");
+        p3.setPreco(new BigDecimal("15"));
+        p3.setEstoque(50);
+        p3.setAtivo(true);
+        p3.setCategoria(c);
+        entityManager.persist(p3);
+
+        entityManager.flush();
+
+        Specification<Produto> spec = ProdutoSpecification.nomeCorresponde("cafe")
+                .and(ProdutoSpecification.ordenarPorRelevancia("cafe"));
+
+        List<Produto> resultado = produtoRepository.findAll(spec);
+
+        // "cafe" sem acento encontra os dois cafés; o nome com a palavra exata vem primeiro
+        assertEquals(2, resultado.size());
+        assertEquals("Café Especial", resultado.get(0).getNome());
+        assertEquals("Cafeteira Elétrica", resultado.get(1).getNome());
+
+        // Erro de digitação ainda encontra
+        assertEquals(1, produtoRepository.findAll(ProdutoSpecification.nomeCorresponde("cafe especiaal")).size());
+
+        // COUNT com a ordenação por relevância não quebra
+        assertEquals(2, produtoRepository.count(spec));
+    }
+
     @Test
     void detectarProdutoDuplicadoNaCategoria() {
         Categoria c = new Categoria();
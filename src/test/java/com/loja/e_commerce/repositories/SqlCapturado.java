@@ -0,0 +1,32 @@
+package com.loja.e_commerce.repositories;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Guarda o SQL gerado pelo Hibernate para os testes rodarem EXPLAIN nele
+public class SqlCapturado implements StatementInspector {
+
+    private static final List<String> SQLS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        SQLS.add(sql);
+        return sql;
+    }
+
+    public static void limpar() {
+        SQLS.clear();
+    }
+
+    public static String ultimo(String trecho) {
+        for (int i = SQLS.size() - 1; i >= 0; i--) {
+            if (SQLS.get(i).toLowerCase().contains(trecho)) {
+                return SQLS.get(i);
+            }
+        }
+
+        throw new IllegalStateException("Nenhum SQL capturado contendo: " + trecho);
+    }
+}
@@ -0,0 +1,51 @@
+package com.loja.e_commerce.repositories;
+
+import com.loja.e_commerce.models.ImagemTrava;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Tabelas e linhas das travas vêm das migrações (V9 e V10)
+@DataJpaTest
+public class TarefaTravaRepositoryTest {
+
+    private static final String TAREFA = "imagens-limpeza";
+
+    @Autowired
+    private TarefaTravaRepository tarefaTravaRepository;
+
+    @Autowired
+    private ImagemTravaRepository imagemTravaRepository;
+
+    @Test
+    void umaInstanciaPorVezAteVencerOuLiberar() {
+        LocalDateTime agora = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+        assertEquals(1, tarefaTravaRepository.adquirir(TAREFA, "a", agora, agora.plusMinutes(5)));
+
+        // Outra instância não entra enquanto a trava vale; a própria dona renova
+        assertEquals(0, tarefaTravaRepository.adquirir(TAREFA, "b", agora, agora.plusMinutes(5)));
+        assertEquals(1, tarefaTravaRepository.adquirir(TAREFA, "a", agora, agora.plusMinutes(5)));
+
+        // Venceu (instância caiu no meio): outra assume
+        LocalDateTime depois = agora.plusMinutes(6);
+        assertEquals(1, tarefaTravaRepository.adquirir(TAREFA, "b", depois, depois.plusMinutes(5)));
+
+        // Só a dona libera
+        assertEquals(0, tarefaTravaRepository.liberar(TAREFA, "a", depois));
+        assertEquals(1, tarefaTravaRepository.liberar(TAREFA, "b", depois));
+        assertEquals(1, tarefaTravaRepository.adquirir(TAREFA, "a", depois, depois.plusMinutes(5)));
+    }
+
+    @Test
+    void linhasDasTravasDeImagem() {
+        assertEquals(1024, imagemTravaRepository.count());
+        assertEquals(1023, imagemTravaRepository.travar(1023).map(ImagemTrava::getId).orElseThrow());
+        assertTrue(imagemTravaRepository.travar(1024).isEmpty());
+    }
+}
@@ -0,0 +1,131 @@
+package com.loja.e_commerce.services;
+
+import com.loja.e_commerce.configs.CacheConfig;
+import com.loja.e_commerce.dtos.categoria.CategoriaRequestDTO;
+import com.loja.e_commerce.dtos.categoria.CategoriaResponseDTO;
+import com.loja.e_commerce.dtos.produto.ProdutoFiltrosDTO;
+import com.loja.e_commerce.repositories.CategoriaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// Contexto completo: o cache só funciona pelo proxy do Spring
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class CategoriaServiceCacheTest {
+
+    @Autowired
+    private CategoriaService categoriaService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Spy no repositório real para contar quantas vezes o banco foi acessado
+    @MockitoSpyBean
+    private CategoriaRepository categoriaRepository;
+
+    @BeforeEach
+    void limparCaches() {
+        cacheManager.getCache(CacheConfig.CATEGORIAS).clear();
+        cacheManager.getCache(CacheConfig.CATEGORIA).clear();
+        categoriaRepository.deleteAll();
+        clearInvocations(categoriaRepository);
+    }
+
+    private CategoriaRequestDTO criarDTO(String nome) {
+        CategoriaRequestDTO dto = new CategoriaRequestDTO();
+        dto.setNome(nome);
+        dto.setAtivo(true);
+        return dto;
+    }
+
+    @Test
+    void listaVemDoCacheAteCriarCategoria() {
+        categoriaService.criar(criarDTO("Livros"));
+
+        assertEquals(1, categoriaService.buscar().size());
+        assertEquals(1, categoriaService.buscar().size());
+
+        // Segunda chamada não foi ao banco
+        verify(categoriaRepository, times(1)).findAll();
+
+        categoriaService.criar(criarDTO("Games"));
+
+        // Criar invalida a lista
+        assertEquals(2, categoriaService.buscar().size());
+        verify(categoriaRepository, times(2)).findAll();
+    }
+
+    @Test
+    void buscarPorIdVemDoCacheAteAtualizar() {
+        Long id = categoriaService.criar(criarDTO("Livros")).idCategoria();
+        clearInvocations(categoriaRepository);
+
+        categoriaService.buscarPorId(id);
+        categoriaService.buscarPorId(id);
+
+        verify(categoriaRepository, times(1)).findById(id);
+
+        categoriaService.atualizar(id, criarDTO("Livros e HQs"));
+        clearInvocations(categoriaRepository);
+
+        // Atualizar remove o id do cache: próxima busca traz o nome novo
+        CategoriaResponseDTO atualizada = categoriaService.buscarPorId(id);
+
+        assertEquals("Livros e HQs", atualizada.nome());
+        verify(categoriaRepository, times(1)).findById(id);
+    }
+
+    @Test
+    void atualizarRemoveProdutosComONomeAntigoDoCache() {
+        Long id = categoriaService.criar(criarDTO("Livros")).idCategoria();
+
+        ProdutoFiltrosDTO daCategoria = new ProdutoFiltrosDTO();
+        daCategoria.setCategoriaId(id);
+        ProdutoFiltrosDTO deOutra = new ProdutoFiltrosDTO();
+        deOutra.setCategoriaId(id + 1);
+
+        Cache detalhe = cacheManager.getCache(CacheConfig.PRODUTO);
+        Cache busca = cacheManager.getCache(CacheConfig.PRODUTOS_BUSCA);
+        detalhe.put(1L, "produto com a categoria Livros");
+        busca.put(ProdutoPaginaChave.de(daCategoria), "página da categoria");
+        busca.put(ProdutoPaginaChave.de(deOutra), "página de outra categoria");
+
+        categoriaService.atualizar(id, criarDTO("Livros e HQs"));
+
+        assertNull(detalhe.get(1L));
+        assertNull(busca.get(ProdutoPaginaChave.de(daCategoria)));
+        assertNotNull(busca.get(ProdutoPaginaChave.de(deOutra)));
+    }
+
+    @Test
+    void registraHitsEMissesNasMetricas() {
+        Long id = categoriaService.criar(criarDTO("Livros")).idCategoria();
+
+        double hitsAntes = hits();
+
+        categoriaService.buscarPorId(id);
+        categoriaService.buscarPorId(id);
+        categoriaService.buscarPorId(id);
+
+        assertEquals(2, hits() - hitsAntes);
+    }
+
+    private double hits() {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", CacheConfig.CATEGORIA)
+                .tag("result", "hit")
+                .functionCounter()
+                .count();
+    }
+}
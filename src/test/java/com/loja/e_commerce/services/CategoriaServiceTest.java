@@ -32,6 +32,9 @@ public class CategoriaServiceTest {
     @Mock
     private CategoriaMapper mapper;
 
+    @Mock
+    private ProdutoBuscaCache buscaCache;
+
     // Injeta repository na service
     @InjectMocks
     private CategoriaService service;
@@ -139,6 +142,8 @@ public class CategoriaServiceTest {
         // Confirma que chamou o save
         verify(repository).save(categoria);
         verify(mapper).toUpdateEntity(categoria,  request);
+        // Buscas de produto com o nome antigo da categoria
+        verify(buscaCache).invalidarCategorias(categoriaId);
     }
 
     @Test
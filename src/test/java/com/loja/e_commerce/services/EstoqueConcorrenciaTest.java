@@ -0,0 +1,153 @@
+package com.loja.e_commerce.services;
+
+import com.loja.e_commerce.dtos.estoque.ItemReservaDTO;
+import com.loja.e_commerce.exceptions.ConflictException;
+import com.loja.e_commerce.models.Categoria;
+import com.loja.e_commerce.models.Produto;
+import com.loja.e_commerce.repositories.CategoriaRepository;
+import com.loja.e_commerce.repositories.ProdutoRepository;
+import com.loja.e_commerce.repositories.ReservaEstoqueRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Muitos compradores disputando o mesmo produto ao mesmo tempo (banco real, transações reais)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class EstoqueConcorrenciaTest {
+
+    @Autowired
+    private EstoqueService estoqueService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private ReservaEstoqueRepository reservaRepository;
+
+    private Categoria categoria;
+
+    @BeforeEach
+    void popularBanco() {
+        reservaRepository.deleteAll();
+        produtoRepository.deleteAll();
+        categoriaRepository.deleteAll();
+
+        categoria = new Categoria();
+        categoria.setNome("Eletrônicos");
+        categoria.setAtivo(true);
+        categoriaRepository.save(categoria);
+    }
+
+    private Long criarProduto(String nome, int estoque) {
+        Produto produto = new Produto();
+        produto.setNome(nome);
+        produto.setPreco(new BigDecimal("99.90"));
+        produto.setEstoque(estoque);
+        produto.setAtivo(true);
+        produto.setCategoria(categoria);
+        return produtoRepository.save(produto).getId();
+    }
+
+    private int estoque(Long produtoId) {
+        return produtoRepository.findById(produtoId).orElseThrow().getEstoque();
+    }
+
+    @Test
+    void vendeExatamenteOEstoqueDisponivel() throws Exception {
+        Long id = criarProduto("Console", 50);
+
+        int compradores = 200;
+        AtomicInteger vendidos = new AtomicInteger();
+        AtomicInteger recusados = new AtomicInteger();
+
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+
+        try {
+            List<Future<?>> compras = new ArrayList<>();
+            for (int i = 0; i < compradores; i++) {
+                compras.add(executor.submit(() -> {
+                    largada.await();
+                    try {
+                        estoqueService.reservar(List.of(new ItemReservaDTO(id, 1)));
+                        vendidos.incrementAndGet();
+                    } catch (ConflictException e) {
+                        recusados.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+
+            largada.countDown();
+
+            for (Future<?> compra : compras) {
+                compra.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Nem um a mais (estoque negativo), nem um a menos (venda perdida)
+        assertEquals(50, vendidos.get());
+        assertEquals(150, recusados.get());
+        assertEquals(0, estoque(id));
+        assertEquals(50, reservaRepository.count());
+    }
+
+    @Test
+    void carrinhoComUmItemSemEstoqueNaoReservaNenhum() {
+        Long mouse = criarProduto("Mouse", 10);
+        Long teclado = criarProduto("Teclado", 1);
+
+        assertThrows(ConflictException.class, () -> estoqueService.reservar(List.of(
+                new ItemReservaDTO(mouse, 3),
+                new ItemReservaDTO(teclado, 2)
+        )));
+
+        // Rollback: o mouse reservado antes do teclado volta
+        assertEquals(10, estoque(mouse));
+        assertEquals(1, estoque(teclado));
+        assertEquals(0, reservaRepository.count());
+    }
+
+    @Test
+    void liberarDevolveOEstoqueUmaUnicaVez() {
+        Long mouse = criarProduto("Mouse", 10);
+
+        Long reservaId = estoqueService.reservar(List.of(new ItemReservaDTO(mouse, 4))).id();
+        assertEquals(6, estoque(mouse));
+
+        estoqueService.liberar(reservaId);
+        assertEquals(10, estoque(mouse));
+
+        assertThrows(ConflictException.class, () -> estoqueService.liberar(reservaId));
+        assertThrows(ConflictException.class, () -> estoqueService.confirmar(reservaId));
+        assertEquals(10, estoque(mouse));
+    }
+
+    @Test
+    void reservaIncrementaAVersaoDoProduto() {
+        Long mouse = criarProduto("Mouse", 10);
+        Long versaoAntes = produtoRepository.findById(mouse).orElseThrow().getVersao();
+
+        estoqueService.reservar(List.of(new ItemReservaDTO(mouse, 1)));
+
+        // Um PUT com a versão lida antes da compra recebe 409 em vez de desfazer a reserva
+        assertEquals(versaoAntes + 1, produtoRepository.findById(mouse).orElseThrow().getVersao());
+    }
+}
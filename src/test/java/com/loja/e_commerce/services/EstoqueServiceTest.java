@@ -0,0 +1,175 @@
+package com.loja.e_commerce.services;
+
+import com.loja.e_commerce.configs.CacheConfig;
+import com.loja.e_commerce.dtos.estoque.ItemReservaDTO;
+import com.loja.e_commerce.dtos.estoque.ReservaResponseDTO;
+import com.loja.e_commerce.exceptions.ConflictException;
+import com.loja.e_commerce.exceptions.ResourceNotFoundException;
+import com.loja.e_commerce.mappers.ReservaMapper;
+import com.loja.e_commerce.models.ItemReserva;
+import com.loja.e_commerce.models.ReservaEstoque;
+import com.loja.e_commerce.models.StatusReserva;
+import com.loja.e_commerce.repositories.ProdutoRepository;
+import com.loja.e_commerce.repositories.ReservaEstoqueRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EstoqueServiceTest {
+
+    @Mock
+    private ProdutoRepository produtoRepository;
+
+    @Mock
+    private ReservaEstoqueRepository reservaRepository;
+
+    // Mapper real: só monta o DTO
+    @Spy
+    private ReservaMapper mapper;
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @InjectMocks
+    private EstoqueService estoqueService;
+
+    private final Long reservaId = 7L;
+
+    private ReservaEstoque criarReserva() {
+        ReservaEstoque reserva = new ReservaEstoque();
+        reserva.setId(reservaId);
+        reserva.getItens().add(new ItemReserva(20L, 1));
+        reserva.getItens().add(new ItemReserva(10L, 3));
+        return reserva;
+    }
+
+    @Test
+    void reservarAgrupaItensEReservaNaOrdemDosIds() {
+        when(cacheManager.getCache(CacheConfig.PRODUTO))
+                .thenReturn(new ConcurrentMapCache(CacheConfig.PRODUTO));
+
+        when(produtoRepository.reservarEstoque(anyLong(), anyInt()))
+                .thenReturn(1);
+
+        when(reservaRepository.save(any()))
+                .thenAnswer(invocacao -> invocacao.getArgument(0));
+
+        ReservaResponseDTO resultado = estoqueService.reservar(List.of(
+                new ItemReservaDTO(20L, 1),
+                new ItemReservaDTO(10L, 2),
+                new ItemReservaDTO(20L, 4)
+        ));
+
+        assertEquals(StatusReserva.PENDENTE, resultado.status());
+        assertEquals(2, resultado.itens().size());
+
+        // Um UPDATE por produto, sempre do menor id para o maior
+        InOrder ordem = inOrder(produtoRepository);
+        ordem.verify(produtoRepository).reservarEstoque(10L, 2);
+        ordem.verify(produtoRepository).reservarEstoque(20L, 5);
+
+        // Nenhum SELECT do produto antes de reservar
+        verify(produtoRepository, never()).findById(any());
+    }
+
+    @Test
+    void reservarSemEstoqueSuficiente() {
+        when(produtoRepository.reservarEstoque(10L, 2))
+                .thenReturn(1);
+
+        when(produtoRepository.reservarEstoque(20L, 5))
+                .thenReturn(0);
+
+        when(produtoRepository.existsById(20L))
+                .thenReturn(true);
+
+        assertThrows(ConflictException.class, () -> estoqueService.reservar(List.of(
+                new ItemReservaDTO(10L, 2),
+                new ItemReservaDTO(20L, 5)
+        )));
+
+        // A exceção faz o rollback do item 10; a reserva nem é gravada
+        verify(reservaRepository, never()).save(any());
+    }
+
+    @Test
+    void reservarProdutoInexistente() {
+        when(produtoRepository.reservarEstoque(99L, 1))
+                .thenReturn(0);
+
+        when(produtoRepository.existsById(99L))
+                .thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> estoqueService.reservar(List.of(new ItemReservaDTO(99L, 1))));
+    }
+
+    @Test
+    void liberarDevolveOEstoque() {
+        when(cacheManager.getCache(CacheConfig.PRODUTO))
+                .thenReturn(new ConcurrentMapCache(CacheConfig.PRODUTO));
+
+        when(reservaRepository.findById(reservaId))
+                .thenReturn(Optional.of(criarReserva()));
+
+        when(reservaRepository.alterarStatus(reservaId, StatusReserva.PENDENTE, StatusReserva.LIBERADA))
+                .thenReturn(1);
+
+        ReservaResponseDTO resultado = estoqueService.liberar(reservaId);
+
+        assertEquals(StatusReserva.LIBERADA, resultado.status());
+
+        InOrder ordem = inOrder(produtoRepository);
+        ordem.verify(produtoRepository).devolverEstoque(10L, 3);
+        ordem.verify(produtoRepository).devolverEstoque(20L, 1);
+    }
+
+    @Test
+    void liberarReservaJaConfirmada() {
+        when(reservaRepository.findById(reservaId))
+                .thenReturn(Optional.of(criarReserva()));
+
+        when(reservaRepository.alterarStatus(reservaId, StatusReserva.PENDENTE, StatusReserva.LIBERADA))
+                .thenReturn(0);
+
+        assertThrows(ConflictException.class,
+                () -> estoqueService.liberar(reservaId));
+
+        verify(produtoRepository, never()).devolverEstoque(anyLong(), anyInt());
+    }
+
+    @Test
+    void confirmarReserva() {
+        when(reservaRepository.findById(reservaId))
+                .thenReturn(Optional.of(criarReserva()));
+
+        when(reservaRepository.alterarStatus(reservaId, StatusReserva.PENDENTE, StatusReserva.CONFIRMADA))
+                .thenReturn(1);
+
+        assertEquals(StatusReserva.CONFIRMADA, estoqueService.confirmar(reservaId).status());
+
+        verify(produtoRepository, never()).devolverEstoque(anyLong(), anyInt());
+    }
+
+    @Test
+    void confirmarReservaNaoEncontrada() {
+        when(reservaRepository.findById(reservaId))
+                .thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> estoqueService.confirmar(reservaId));
+    }
+}
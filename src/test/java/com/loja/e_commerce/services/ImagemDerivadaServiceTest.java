@@ -0,0 +1,174 @@
+package com.loja.e_commerce.services;
+
+import com.loja.e_commerce.services.storage.LocalStorageBackend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImagemDerivadaServiceTest {
+
+    @TempDir
+    private Path uploadDir;
+
+    private ImagemDerivadaService derivadas;
+
+    @BeforeEach
+    void criarServico() {
+        derivadas = new ImagemDerivadaService(new LocalStorageBackend(uploadDir), uploadDir.toString(), List.of(150, 400));
+    }
+
+    private void criarImagem(String nome, int largura, int altura, String formato) throws Exception {
+        BufferedImage imagem = new BufferedImage(largura, altura, BufferedImage.TYPE_INT_RGB);
+        ImageIO.write(imagem, formato, uploadDir.resolve(nome).toFile());
+    }
+
+    @Test
+    void gerarReduzMantendoAProporcaoSemAumentar() throws Exception {
+        criarImagem("abc.png", 800, 200, "png");
+
+        derivadas.gerar("abc.png");
+
+        BufferedImage pequena = ImageIO.read(uploadDir.resolve("abc-150.png").toFile());
+        assertEquals(150, pequena.getWidth());
+        assertEquals(38, pequena.getHeight());
+
+        BufferedImage media = ImageIO.read(uploadDir.resolve("abc-400.png").toFile());
+        assertEquals(400, media.getWidth());
+        assertEquals(100, media.getHeight());
+
+        // Nenhum temporário esquecido
+        try (var arquivos = Files.list(uploadDir.resolve(".tmp"))) {
+            assertEquals(0, arquivos.count());
+        }
+    }
+
+    @Test
+    void imagemMenorQueOTamanhoNaoEAmpliada() throws Exception {
+        criarImagem("abc.jpg", 100, 80, "jpg");
+
+        derivadas.gerar("abc.jpg");
+
+        BufferedImage derivada = ImageIO.read(uploadDir.resolve("abc-400.jpg").toFile());
+        assertEquals(100, derivada.getWidth());
+        assertEquals(80, derivada.getHeight());
+    }
+
+    @Test
+    void resolverGeraADerivadaQueFaltaNoPrimeiroAcesso() throws Exception {
+        criarImagem("abc.png", 600, 600, "png");
+
+        assertTrue(derivadas.garantir("abc-150.png"));
+        assertEquals(150, ImageIO.read(uploadDir.resolve("abc-150.png").toFile()).getWidth());
+
+        assertTrue(derivadas.garantir("abc.png"));
+    }
+
+    @Test
+    void pedidosSimultaneosDaMesmaDerivadaDecodificamOOriginalUmaVez() throws Exception {
+        criarImagem("abc.png", 600, 600, "png");
+
+        AtomicInteger leituras = new AtomicInteger();
+
+        // Leitura lenta do original: todos os pedidos chegam enquanto a primeira geração ainda está em andamento
+        derivadas = new ImagemDerivadaService(new LocalStorageBackend(uploadDir) {
+            @Override
+            public InputStream abrir(String nome) throws IOException {
+                leituras.incrementAndGet();
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return super.abrir(nome);
+            }
+        }, uploadDir.toString(), List.of(150, 400));
+
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Boolean>> resultados = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            for (int i = 0; i < 8; i++) {
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    return derivadas.garantir("abc-150.png");
+                }));
+            }
+
+            largada.countDown();
+
+            for (Future<Boolean> resultado : resultados) {
+                assertTrue(resultado.get());
+            }
+        }
+
+        assertEquals(1, leituras.get());
+        assertEquals(150, ImageIO.read(uploadDir.resolve("abc-150.png").toFile()).getWidth());
+    }
+
+    @Test
+    void resolverRecusaTamanhoNaoConfiguradoOuSemOriginal() throws Exception {
+        criarImagem("abc.png", 600, 600, "png");
+
+        assertFalse(derivadas.garantir("abc-999.png"));
+        assertFalse(derivadas.garantir("xyz-150.png"));
+        assertFalse(Files.exists(uploadDir.resolve("abc-999.png")));
+    }
+
+    @Test
+    void gerarComArquivoInvalidoNaoLancaErro() throws Exception {
+        Files.writeString(uploadDir.resolve("abc.png"), "não sou imagem");
+
+        assertDoesNotThrow(() -> derivadas.gerar("abc.png"));
+        assertFalse(Files.exists(uploadDir.resolve("abc-150.png")));
+    }
+
+    @Test
+    void deletarRemoveTodasAsDerivadas() throws Exception {
+        criarImagem("abc.png", 600, 600, "png");
+        derivadas.gerar("abc.png");
+
+        derivadas.deletar("abc.png");
+
+        assertFalse(Files.exists(uploadDir.resolve("abc-150.png")));
+        assertFalse(Files.exists(uploadDir.resolve("abc-400.png")));
+        assertTrue(Files.exists(uploadDir.resolve("abc.png")));
+    }
+
+    @Test
+    void urlsDaOriginalEDeCadaTamanho() {
+        assertEquals(Map.of(
+                "original", "/imagens/abc.png",
+                "150", "/imagens/abc-150.png",
+                "400", "/imagens/abc-400.png"
+        ), derivadas.urls("abc.png"));
+    }
+
+    @Test
+    void originalSoReconheceOsTamanhosConfigurados() {
+        assertEquals(Optional.of("abc.png"), derivadas.original("abc-150.png"));
+        assertEquals(Optional.empty(), derivadas.original("abc.png"));
+        assertEquals(Optional.empty(), derivadas.original("abc-200.png"));
+
+        // Nome antigo em UUID cujo último grupo é só de dígitos: é um original, não uma derivada
+        assertEquals(Optional.empty(), derivadas.original("550e8400-e29b-41d4-a716-446655440000.png"));
+        assertEquals(Optional.empty(), derivadas.original("550e8400-e29b-41d4-a716-000000000400.png"));
+    }
+}
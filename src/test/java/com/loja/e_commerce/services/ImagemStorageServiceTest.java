@@ -0,0 +1,190 @@
+package com.loja.e_commerce.services;
+
+import com.loja.e_commerce.exceptions.BadRequestException;
+import com.loja.e_commerce.models.ImagemRemocao;
+import com.loja.e_commerce.models.ImagemTrava;
+import com.loja.e_commerce.repositories.ImagemRemocaoRepository;
+import com.loja.e_commerce.repositories.ImagemRepository;
+import com.loja.e_commerce.repositories.ImagemTravaRepository;
+import com.loja.e_commerce.repositories.ProdutoRepository;
+import com.loja.e_commerce.services.storage.LocalStorageBackend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class ImagemStorageServiceTest {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13};
+
+    private final ImagemDerivadaService derivadas = mock(ImagemDerivadaService.class);
+
+    private final ImagemRepository imagemRepository = mock(ImagemRepository.class);
+
+    private final ImagemRemocaoRepository remocaoRepository = mock(ImagemRemocaoRepository.class);
+
+    private final ProdutoRepository produtoRepository = mock(ProdutoRepository.class);
+
+    private final ImagemTravaRepository travaRepository = mock(ImagemTravaRepository.class);
+
+    @TempDir
+    private Path uploadDir;
+
+    private ImagemStorageService storage;
+
+    @BeforeEach
+    void configurarDiretorio() {
+        storage = new ImagemStorageService(new LocalStorageBackend(uploadDir), derivadas, imagemRepository,
+                remocaoRepository, produtoRepository, travaRepository, mock(PlatformTransactionManager.class));
+        when(travaRepository.travar(anyInt())).thenAnswer(chamada -> Optional.of(new ImagemTrava(chamada.getArgument(0))));
+        ReflectionTestUtils.setField(storage, "uploadDir", uploadDir.toString());
+    }
+
+    @Test
+    void receberESalvarImagem() throws Exception {
+        Path temporario = storage.receber(new MockMultipartFile("imagem", "foto.png", "image/png", PNG));
+
+        assertArrayEquals(PNG, Files.readAllBytes(temporario));
+
+        String nome = storage.salvar(temporario);
+
+        // Nome = sha-256 do conteúdo
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(PNG)) + ".png", nome);
+        assertArrayEquals(PNG, Files.readAllBytes(uploadDir.resolve(nome)));
+        assertFalse(Files.exists(temporario));
+        verify(derivadas).gerar(nome);
+        verify(imagemRepository).save(argThat(imagem -> imagem.getNome().equals(nome) && imagem.getReferencias() == 1));
+    }
+
+    @Test
+    void mesmoConteudoNaoEGravadoDeNovo() throws Exception {
+        String nome = storage.salvar(storage.receber(new MockMultipartFile("imagem", "a.png", "image/png", PNG)));
+        FileTime gravadoEm = Files.getLastModifiedTime(uploadDir.resolve(nome));
+
+        when(imagemRepository.adicionarReferencia(nome)).thenReturn(1);
+
+        Path temporario = storage.receber(new MockMultipartFile("imagem", "b.png", "image/png", PNG));
+
+        assertEquals(nome, storage.salvar(temporario));
+
+        // Só mais uma referência: arquivo intacto, temporário descartado, miniaturas não refeitas
+        assertEquals(gravadoEm, Files.getLastModifiedTime(uploadDir.resolve(nome)));
+        assertFalse(Files.exists(temporario));
+        verify(imagemRepository, times(1)).save(any());
+        verify(derivadas, times(1)).gerar(nome);
+    }
+
+    @Test
+    void conteudoConhecidoSemArquivoEGravadoDeNovo() throws Exception {
+        // Linha em imagens com referências, mas o arquivo sumiu do storage
+        when(imagemRepository.adicionarReferencia(anyString())).thenReturn(1);
+
+        String nome = storage.salvar(storage.receber(new MockMultipartFile("imagem", "a.png", "image/png", PNG)));
+
+        assertArrayEquals(PNG, Files.readAllBytes(uploadDir.resolve(nome)));
+        verify(imagemRepository, never()).save(any());
+        verify(derivadas).gerar(nome);
+    }
+
+    @Test
+    void liberarUltimaReferenciaAgendaARemocaoSemTocarNoArquivo() throws Exception {
+        Files.write(uploadDir.resolve("abc.png"), PNG);
+        when(imagemRepository.removerReferencias("abc.png", 1)).thenReturn(1);
+        when(imagemRepository.removerSemReferencias("abc.png")).thenReturn(1);
+
+        storage.liberar("abc.png");
+
+        // O arquivo só sai depois, pela limpeza em segundo plano
+        assertTrue(Files.exists(uploadDir.resolve("abc.png")));
+        verify(remocaoRepository).save(argThat(remocao -> remocao.getNome().equals("abc.png")));
+        verify(derivadas, never()).deletar(any());
+    }
+
+    @Test
+    void liberarComOutrosProdutosUsandoNaoAgenda() {
+        when(imagemRepository.removerReferencias("abc.png", 1)).thenReturn(1);
+        when(imagemRepository.removerSemReferencias("abc.png")).thenReturn(0);
+
+        storage.liberar("abc.png");
+
+        verify(remocaoRepository, never()).save(any());
+    }
+
+    @Test
+    void liberarEmLoteAgrupaPorArquivo() {
+        when(imagemRepository.removerReferencias(anyString(), anyInt())).thenReturn(1);
+        when(imagemRepository.removerSemReferencias("abc.png")).thenReturn(1);
+
+        storage.liberar(List.of("abc.png", "def.png", "abc.png"));
+
+        verify(imagemRepository).removerReferencias("abc.png", 2);
+        verify(imagemRepository).removerReferencias("def.png", 1);
+        verify(remocaoRepository, times(1)).save(any(ImagemRemocao.class));
+    }
+
+    @Test
+    void removerSemReferenciasApagaArquivoEDerivadas() throws Exception {
+        Files.write(uploadDir.resolve("abc.png"), PNG);
+
+        assertTrue(storage.removerSeSemReferencias("abc.png"));
+
+        assertFalse(Files.exists(uploadDir.resolve("abc.png")));
+        verify(derivadas).deletar("abc.png");
+    }
+
+    @Test
+    void imagemQueVoltouASerUsadaNaoEApagada() throws Exception {
+        Files.write(uploadDir.resolve("abc.png"), PNG);
+        when(imagemRepository.existsById("abc.png")).thenReturn(true);
+
+        assertFalse(storage.removerSeSemReferencias("abc.png"));
+
+        assertTrue(Files.exists(uploadDir.resolve("abc.png")));
+        verify(derivadas, never()).deletar(any());
+    }
+
+    @Test
+    void conferenciaEUploadDoMesmoArquivoUsamAMesmaTravaNoBanco() throws Exception {
+        String nome = storage.salvar(storage.receber(new MockMultipartFile("imagem", "a.png", "image/png", PNG)));
+
+        InOrder ordem = inOrder(travaRepository, imagemRepository, produtoRepository);
+        ordem.verify(travaRepository).travar(Math.floorMod(nome.hashCode(), 1024));
+        ordem.verify(imagemRepository).adicionarReferencia(nome);
+
+        storage.removerSeSemReferencias(nome);
+
+        // Trava antes de conferir as referências: um upload de outra instância espera a remoção terminar
+        ordem.verify(travaRepository).travar(Math.floorMod(nome.hashCode(), 1024));
+        ordem.verify(imagemRepository).existsById(nome);
+        ordem.verify(produtoRepository).existsByImagemPath(nome);
+    }
+
+    @Test
+    void conteudoQueNaoEImagemERecusado() {
+        // Content-Type diz PNG, mas o conteúdo é texto
+        Path temporario = storage.receber(
+                new MockMultipartFile("imagem", "foto.png", "image/png", "não sou imagem".getBytes()));
+
+        assertThrows(BadRequestException.class, () -> storage.salvar(temporario));
+    }
+
+    @Test
+    void tipoNaoPermitidoERecusadoNaHora() {
+        assertThrows(BadRequestException.class, () -> storage.receber(
+                new MockMultipartFile("imagem", "foto.gif", "image/gif", "GIF89a".getBytes())));
+    }
+}
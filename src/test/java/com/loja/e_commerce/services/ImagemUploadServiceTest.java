@@ -0,0 +1,199 @@
+package com.loja.e_commerce.services;
+
+import com.loja.e_commerce.dtos.produto.StatusUploadImagem;
+import com.loja.e_commerce.dtos.produto.UploadImagemResponseDTO;
+import com.loja.e_commerce.exceptions.BadRequestException;
+import com.loja.e_commerce.exceptions.ResourceNotFoundException;
+import com.loja.e_commerce.exceptions.ServiceUnavailableException;
+import com.loja.e_commerce.models.ImagemUpload;
+import com.loja.e_commerce.repositories.ImagemUploadRepository;
+import com.loja.e_commerce.repositories.ProdutoRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+// Pool real (1 thread, fila de 1) com o restante mockado; a tabela de status é um mapa em memória
+public class ImagemUploadServiceTest {
+
+    private final ProdutoRepository produtoRepository = mock(ProdutoRepository.class);
+    private final ImagemUploadRepository uploadRepository = mock(ImagemUploadRepository.class);
+    private final Map<String, ImagemUpload> tabela = new ConcurrentHashMap<>();
+    private final ProdutoService produtoService = mock(ProdutoService.class);
+    private final ImagemStorageService imagemStorage = mock(ImagemStorageService.class);
+
+    private ImagemUploadService uploadService;
+
+    @TempDir
+    private Path diretorio;
+
+    private final Long produtoId = 90L;
+    private final MockMultipartFile arquivo =
+            new MockMultipartFile("imagem", "img.png", "image/png", "fake".getBytes());
+
+    @BeforeEach
+    void criarService() throws Exception {
+        uploadService = new ImagemUploadService(produtoRepository, produtoService, imagemStorage, uploadRepository,
+                1, 1, Duration.ofMinutes(1), Duration.ofMinutes(15));
+
+        when(uploadRepository.save(any())).thenAnswer(invocation -> {
+            ImagemUpload upload = invocation.getArgument(0);
+            tabela.put(upload.getId(), upload);
+            return upload;
+        });
+        when(uploadRepository.findById(anyString()))
+                .thenAnswer(invocation -> Optional.ofNullable(tabela.get(invocation.<String>getArgument(0))));
+        doAnswer(invocation -> tabela.remove(invocation.<String>getArgument(0)))
+                .when(uploadRepository).deleteById(anyString());
+
+        when(produtoRepository.existsById(produtoId)).thenReturn(true);
+        // Cada upload recebe um temporário novo
+        when(imagemStorage.receber(any()))
+                .thenAnswer(invocation -> Files.createTempFile(diretorio, "upload-", ".tmp"));
+    }
+
+    @AfterEach
+    void encerrar() {
+        uploadService.encerrar();
+    }
+
+    // Espera o processamento em segundo plano chegar ao status esperado
+    private UploadImagemResponseDTO aguardar(String uploadId, StatusUploadImagem esperado) throws Exception {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        UploadImagemResponseDTO upload = uploadService.status(produtoId, uploadId);
+        while (upload.status() != esperado && System.nanoTime() < limite) {
+            Thread.sleep(10);
+            upload = uploadService.status(produtoId, uploadId);
+        }
+
+        return upload;
+    }
+
+    @Test
+    void uploadConcluidoEmSegundoPlano() throws Exception {
+        when(produtoService.salvarImagem(eq(produtoId), any())).thenReturn("img.png");
+
+        UploadImagemResponseDTO aceito = uploadService.iniciar(produtoId, arquivo);
+
+        assertEquals(StatusUploadImagem.PENDENTE, aceito.status());
+
+        UploadImagemResponseDTO concluido = aguardar(aceito.id(), StatusUploadImagem.CONCLUIDO);
+        assertEquals(StatusUploadImagem.CONCLUIDO, concluido.status());
+        assertEquals("img.png", concluido.imagemUrl());
+    }
+
+    @Test
+    void uploadComConteudoInvalidoTerminaEmErroESemTemporario() throws Exception {
+        when(produtoService.salvarImagem(eq(produtoId), any()))
+                .thenThrow(new BadRequestException("Conteúdo do arquivo não é uma imagem JPG ou PNG"));
+
+        UploadImagemResponseDTO aceito = uploadService.iniciar(produtoId, arquivo);
+
+        UploadImagemResponseDTO erro = aguardar(aceito.id(), StatusUploadImagem.ERRO);
+        assertEquals(StatusUploadImagem.ERRO, erro.status());
+        assertEquals("Conteúdo do arquivo não é uma imagem JPG ou PNG", erro.mensagem());
+
+        try (var arquivos = Files.list(diretorio)) {
+            assertEquals(0, arquivos.count());
+        }
+    }
+
+    @Test
+    void filaCheiaRecusaComServicoIndisponivel() throws Exception {
+        CountDownLatch liberar = new CountDownLatch(1);
+        CountDownLatch ocupado = new CountDownLatch(1);
+
+        when(produtoService.salvarImagem(eq(produtoId), any())).thenAnswer(invocation -> {
+            ocupado.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return "img.png";
+        });
+
+        // 1 processando + 1 na fila
+        UploadImagemResponseDTO primeiro = uploadService.iniciar(produtoId, arquivo);
+        assertTrue(ocupado.await(5, TimeUnit.SECONDS));
+        uploadService.iniciar(produtoId, arquivo);
+
+        assertThrows(ServiceUnavailableException.class, () -> uploadService.iniciar(produtoId, arquivo));
+
+        // O temporário do upload recusado não fica no disco
+        try (var arquivos = Files.list(diretorio)) {
+            assertEquals(2, arquivos.count());
+        }
+        // Nem o status dele
+        assertEquals(2, tabela.size());
+
+        liberar.countDown();
+        assertEquals(StatusUploadImagem.CONCLUIDO, aguardar(primeiro.id(), StatusUploadImagem.CONCLUIDO).status());
+    }
+
+    @Test
+    void produtoInexistenteNaoOcupaAFila() {
+        when(produtoRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> uploadService.iniciar(1L, arquivo));
+
+        verifyNoInteractions(imagemStorage);
+    }
+
+    @Test
+    void statusDeOutroProdutoNaoEEncontrado() {
+        UploadImagemResponseDTO aceito = uploadService.iniciar(produtoId, arquivo);
+
+        assertThrows(ResourceNotFoundException.class, () -> uploadService.status(1L, aceito.id()));
+        assertThrows(ResourceNotFoundException.class, () -> uploadService.status(produtoId, "inexistente"));
+    }
+
+    @Test
+    void statusGravadoPorOutraInstanciaEConsultado() {
+        ImagemUpload gravado = new ImagemUpload("outra-instancia", produtoId);
+        gravado.setStatus(StatusUploadImagem.CONCLUIDO);
+        gravado.setImagemUrl("img.png");
+        tabela.put(gravado.getId(), gravado);
+
+        UploadImagemResponseDTO upload = uploadService.status(produtoId, "outra-instancia");
+
+        assertEquals(StatusUploadImagem.CONCLUIDO, upload.status());
+        assertEquals("img.png", upload.imagemUrl());
+    }
+
+    @Test
+    void uploadParadoAlemDoTempoMaximoApareceComoInterrompido() {
+        // A instância que processava caiu: ninguém mais vai atualizar o status
+        ImagemUpload parado = new ImagemUpload("parado", produtoId);
+        parado.setStatus(StatusUploadImagem.PROCESSANDO);
+        parado.setAtualizadoEm(LocalDateTime.now().minusMinutes(20));
+        tabela.put(parado.getId(), parado);
+
+        UploadImagemResponseDTO upload = uploadService.status(produtoId, "parado");
+
+        assertEquals(StatusUploadImagem.ERRO, upload.status());
+        assertEquals("Upload interrompido, envie a imagem novamente", upload.mensagem());
+    }
+
+    @Test
+    void statusVencidoNaoEEncontrado() {
+        ImagemUpload antigo = new ImagemUpload("antigo", produtoId);
+        antigo.setCriadoEm(LocalDateTime.now().minusMinutes(2));
+        tabela.put(antigo.getId(), antigo);
+
+        assertThrows(ResourceNotFoundException.class, () -> uploadService.status(produtoId, "antigo"));
+    }
+}
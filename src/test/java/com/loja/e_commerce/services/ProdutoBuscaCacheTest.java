@@ -0,0 +1,140 @@
+package com.loja.e_commerce.services;
+
+import com.loja.e_commerce.configs.CacheConfig;
+import com.loja.e_commerce.dtos.PageResponseDTO;
+import com.loja.e_commerce.dtos.produto.ProdutoFiltrosDTO;
+import com.loja.e_commerce.dtos.produto.ProdutoResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ProdutoBuscaCacheTest {
+
+    private ProdutoBuscaCache buscaCache;
+
+    // Conta quantas vezes a busca foi de fato executada
+    private final AtomicInteger buscas = new AtomicInteger();
+
+    @BeforeEach
+    void criarCache() {
+        buscaCache = new ProdutoBuscaCache(
+                new CaffeineCacheManager(CacheConfig.PRODUTOS_BUSCA, CacheConfig.PRODUTOS_CONTAGEM, CacheConfig.PRODUTO));
+        buscas.set(0);
+    }
+
+    private ProdutoFiltrosDTO filtros(String nome, String precoMin, Long categoriaId) {
+        ProdutoFiltrosDTO dto = new ProdutoFiltrosDTO();
+        dto.setNome(nome);
+        dto.setPrecoMin(precoMin != null ? new BigDecimal(precoMin) : null);
+        dto.setCategoriaId(categoriaId);
+        dto.setPagina(0);
+        dto.setTamanho(10);
+        return dto;
+    }
+
+    private PageResponseDTO<ProdutoResponseDTO> buscar(ProdutoFiltrosDTO dto) {
+        return buscaCache.pagina(dto, () -> {
+            buscas.incrementAndGet();
+            return new PageResponseDTO<>(List.of(), 0, 10, 0L, 0);
+        });
+    }
+
+    @Test
+    void mesmosFiltrosNormalizadosUsamAMesmaPagina() {
+        buscar(filtros("Mouse", "10.00", 1L));
+        buscar(filtros("mouse", "10", 1L));
+
+        assertEquals(1, buscas.get());
+
+        // Outra página é outra chave
+        ProdutoFiltrosDTO segundaPagina = filtros("mouse", "10", 1L);
+        segundaPagina.setPagina(1);
+        buscar(segundaPagina);
+
+        assertEquals(2, buscas.get());
+    }
+
+    @Test
+    void detalhesSoBuscamOsIdsForaDoCache() {
+        List<Collection<Long>> consultas = new ArrayList<>();
+
+        Function<Collection<Long>, List<ProdutoResponseDTO>> busca = ids -> {
+            consultas.add(List.copyOf(ids));
+            return ids.stream()
+                    .filter(id -> id != 9L) // 9 não existe
+                    .map(id -> new ProdutoResponseDTO(id, "Produto " + id, null, BigDecimal.TEN,
+                            1, true, null, "Categoria", 0L))
+                    .toList();
+        };
+
+        Map<Long, ProdutoResponseDTO> primeira = buscaCache.detalhes(List.of(1L, 2L), busca);
+        Map<Long, ProdutoResponseDTO> segunda = buscaCache.detalhes(List.of(2L, 3L, 9L), busca);
+
+        assertEquals(2, primeira.size());
+        assertEquals(Set.of(2L, 3L), segunda.keySet());
+
+        // 2 veio do cache na segunda chamada
+        assertEquals(List.of(List.of(1L, 2L), List.of(3L, 9L)), consultas);
+    }
+
+    @Test
+    void contagemReaproveitaOTotal() {
+        assertEquals(42, buscaCache.contagem(filtros("Mouse", null, null), () -> 42L));
+        assertEquals(42, buscaCache.contagem(filtros("mouse", null, null), () -> 99L));
+    }
+
+    @Test
+    void invalidarRemoveSoACategoriaAfetadaEAsBuscasSemCategoria() {
+        buscar(filtros(null, null, 1L));
+        buscar(filtros(null, null, 2L));
+        buscar(filtros(null, null, null));
+        buscaCache.contagem(filtros(null, null, 1L), () -> 5L);
+
+        buscaCache.invalidarCategorias(1L);
+        buscas.set(0);
+
+        buscar(filtros(null, null, 2L));
+        assertEquals(0, buscas.get());
+
+        buscar(filtros(null, null, 1L));
+        buscar(filtros(null, null, null));
+        assertEquals(2, buscas.get());
+
+        assertEquals(7, buscaCache.contagem(filtros(null, null, 1L), () -> 7L));
+    }
+
+    @Test
+    void dentroDeTransacaoSoInvalidaDepoisDoCommit() {
+        buscar(filtros(null, null, 1L));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            buscaCache.invalidarCategorias(1L);
+
+            // Antes do commit continua em cache
+            buscar(filtros(null, null, 1L));
+            assertEquals(1, buscas.get());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        buscar(filtros(null, null, 1L));
+        assertEquals(2, buscas.get());
+    }
+}
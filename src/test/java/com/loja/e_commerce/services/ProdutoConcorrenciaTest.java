@@ -0,0 +1,106 @@
+package com.loja.e_commerce.services;
+
+import com.loja.e_commerce.dtos.produto.ProdutoRequestDTO;
+import com.loja.e_commerce.dtos.produto.ProdutoResponseDTO;
+import com.loja.e_commerce.exceptions.ConflictException;
+import com.loja.e_commerce.models.Categoria;
+import com.loja.e_commerce.repositories.CategoriaRepository;
+import com.loja.e_commerce.repositories.ProdutoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Vários clientes somando estoque ao mesmo tempo pelo PUT (lê, altera, grava com a versão lida)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class ProdutoConcorrenciaTest {
+
+    private static final int CLIENTES = 8;
+    private static final int INCREMENTOS_POR_CLIENTE = 10;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    private Long categoriaId;
+
+    @BeforeEach
+    void popularBanco() {
+        produtoRepository.deleteAll();
+        categoriaRepository.deleteAll();
+
+        Categoria categoria = new Categoria();
+        categoria.setNome("Eletrônicos");
+        categoria.setAtivo(true);
+        categoriaId = categoriaRepository.save(categoria).getId();
+    }
+
+    private ProdutoRequestDTO criarDTO(int estoque, Long versao) {
+        return new ProdutoRequestDTO("Mouse", "Descrição", new BigDecimal("99.90"),
+                estoque, true, categoriaId, versao);
+    }
+
+    @Test
+    void nenhumaAtualizacaoDeEstoqueSePerdeComEscritasConcorrentes() throws Exception {
+        Long id = produtoService.criar(criarDTO(1, null)).id();
+
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CLIENTES);
+
+        try {
+            List<Future<?>> clientes = new ArrayList<>();
+            for (int c = 0; c < CLIENTES; c++) {
+                clientes.add(executor.submit(() -> {
+                    largada.await();
+                    for (int i = 0; i < INCREMENTOS_POR_CLIENTE; i++) {
+                        incrementarComRetentativa(id);
+                    }
+                    return null;
+                }));
+            }
+
+            largada.countDown();
+
+            for (Future<?> cliente : clientes) {
+                cliente.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        int esperado = 1 + CLIENTES * INCREMENTOS_POR_CLIENTE;
+
+        assertEquals(esperado, produtoRepository.findById(id).orElseThrow().getEstoque());
+        assertEquals(CLIENTES * INCREMENTOS_POR_CLIENTE, produtoService.buscarPorId(id).versao());
+    }
+
+    // Como um cliente da API faria ao receber 409: relê o produto e tenta de novo
+    private void incrementarComRetentativa(Long id) {
+        while (true) {
+            ProdutoResponseDTO atual = produtoService.buscarPorId(id);
+
+            try {
+                produtoService.atualizar(id, criarDTO(atual.estoque() + 1, atual.versao()));
+                return;
+            } catch (ConflictException | OptimisticLockingFailureException e) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.loja.e_commerce.services;
+
+import com.loja.e_commerce.dtos.produto.ErroImportacaoDTO;
+import com.loja.e_commerce.dtos.produto.ImportacaoResponseDTO;
+import com.loja.e_commerce.dtos.produto.ProdutoRequestDTO;
+import com.loja.e_commerce.models.Categoria;
+import com.loja.e_commerce.models.Produto;
+import com.loja.e_commerce.repositories.CategoriaRepository;
+import com.loja.e_commerce.repositories.ProdutoRepository;
+import com.loja.e_commerce.repositories.ReservaEstoqueRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Banco real: conta os SQL executados pela importação (lotes de 50 linhas)
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.jpa.properties.hibernate.generate_statistics=true",
+                "importacao.produtos.tamanho-lote=50"
+        }
+)
+public class ProdutoImportacaoServiceTest {
+
+    @Autowired
+    private ProdutoImportacaoService service;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private ReservaEstoqueRepository reservaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Categoria categoria;
+    private Categoria inativa;
+    private Statistics estatisticas;
+
+    @BeforeEach
+    void popularBanco() {
+        reservaRepository.deleteAll();
+        produtoRepository.deleteAll();
+        categoriaRepository.deleteAll();
+
+        categoria = criarCategoria("Eletrônicos", true);
+        inativa = criarCategoria("Antigos", false);
+
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+    }
+
+    private Categoria criarCategoria(String nome, boolean ativo) {
+        Categoria nova = new Categoria();
+        nova.setNome(nome);
+        nova.setAtivo(ativo);
+        return categoriaRepository.save(nova);
+    }
+
+    private ProdutoRequestDTO dto(String nome, Long categoriaId) {
+        return new ProdutoRequestDTO(nome, null, new BigDecimal("10.00"), 5, null, categoriaId, null);
+    }
+
+    @Test
+    void importaEmLotesComInsertEmBatch() {
+        List<ProdutoRequestDTO> produtos = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            produtos.add(dto("Produto " + i, categoria.getId()));
+        }
+
+        ImportacaoResponseDTO resposta = service.importar(produtos);
+
+        assertEquals(120, resposta.totalLinhas());
+        assertEquals(120, resposta.importados());
+        assertTrue(resposta.erros().isEmpty());
+        assertEquals(120, produtoRepository.count());
+
+        // 120 INSERTs enviados em poucos batches, não um round-trip por produto
+        assertEquals(120, estatisticas.getEntityInsertCount());
+        assertTrue(estatisticas.getPrepareStatementCount() < 20,
+                "SQL executados: " + estatisticas.getPrepareStatementCount());
+
+        // Produto importado sem "ativo" entra ativo
+        assertTrue(produtoRepository.findAll().stream().allMatch(Produto::getAtivo));
+    }
+
+    @Test
+    void relataErrosPorLinhaEGravaAsValidas() {
+        Produto existente = new Produto();
+        existente.setNome("Mouse");
+        existente.setPreco(new BigDecimal("50.00"));
+        existente.setEstoque(3);
+        existente.setAtivo(true);
+        existente.setCategoria(categoria);
+        produtoRepository.save(existente);
+
+        ImportacaoResponseDTO resposta = service.importar(List.of(
+                dto("Teclado", categoria.getId()),
+                dto("", categoria.getId()),
+                dto("Monitor", 999L),
+                dto("Rádio", inativa.getId()),
+                dto("MOUSE", categoria.getId()),
+                dto("Headset", categoria.getId()),
+                dto("headset", categoria.getId())
+        ));
+
+        assertEquals(7, resposta.totalLinhas());
+        assertEquals(2, resposta.importados());
+
+        assertEquals(List.of(2, 3, 4, 5, 7), resposta.erros().stream().map(ErroImportacaoDTO::linha).toList());
+        assertEquals("Nome é obrigatório", resposta.erros().get(0).mensagem());
+        assertEquals("Categoria não encontrada", resposta.erros().get(1).mensagem());
+        assertEquals("Categoria inativa", resposta.erros().get(2).mensagem());
+        assertEquals("Produto já existe nessa categoria", resposta.erros().get(3).mensagem());
+        assertEquals("Produto repetido no arquivo", resposta.erros().get(4).mensagem());
+
+        assertEquals(3, produtoRepository.count());
+    }
+
+    @Test
+    void elementoNuloViraErroDaLinha() {
+        // List.of não aceita null
+        List<ProdutoRequestDTO> produtos = new ArrayList<>();
+        produtos.add(dto("Teclado", categoria.getId()));
+        produtos.add(null);
+
+        ImportacaoResponseDTO resposta = service.importar(produtos);
+
+        assertEquals(2, resposta.totalLinhas());
+        assertEquals(1, resposta.importados());
+        assertEquals(List.of(new ErroImportacaoDTO(2, null, "Linha sem produto")), resposta.erros());
+    }
+
+    @Test
+    void detectaRepetidoEmLotesDiferentes() {
+        List<ProdutoRequestDTO> produtos = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            produtos.add(dto("Produto " + i, categoria.getId()));
+        }
+        // Linha 61 repete a linha 1, que foi gravada no primeiro lote
+        produtos.add(dto("Produto 0", categoria.getId()));
+
+        ImportacaoResponseDTO resposta = service.importar(produtos);
+
+        assertEquals(60, resposta.importados());
+        assertEquals(1, resposta.erros().size());
+        assertEquals(61, resposta.erros().get(0).linha());
+    }
+}
@@ -0,0 +1,237 @@
+package com.loja.e_commerce.services;
+
+import com.loja.e_commerce.dtos.produto.AtualizacaoLoteRequestDTO;
+import com.loja.e_commerce.dtos.produto.ProdutoFiltrosDTO;
+import com.loja.e_commerce.exceptions.BadRequestException;
+import com.loja.e_commerce.models.Categoria;
+import com.loja.e_commerce.models.Produto;
+import com.loja.e_commerce.repositories.CategoriaRepository;
+import com.loja.e_commerce.repositories.ProdutoRepository;
+import com.loja.e_commerce.repositories.ReservaEstoqueRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Banco real: confere que o lote vira um único UPDATE/DELETE e que caches e imagens acompanham
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {
+                "spring.jpa.properties.hibernate.generate_statistics=true",
+                // A limpeza é disparada pelo teste, não pelo agendamento
+                "imagens.limpeza.intervalo=1h"
+        }
+)
+public class ProdutoLoteServiceTest {
+
+    @Autowired
+    private ProdutoLoteService loteService;
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private ImagemLimpezaService imagemLimpeza;
+
+    @Autowired
+    private ImagemReconciliacaoService reconciliacao;
+
+    @Autowired
+    private ProdutoRepository produtoRepository;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private ReservaEstoqueRepository reservaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${storage.upload-dir}")
+    private String uploadDir;
+
+    private Categoria perifericos;
+    private Categoria monitores;
+    private Statistics estatisticas;
+
+    @BeforeEach
+    void popularBanco() {
+        reservaRepository.deleteAll();
+        produtoRepository.deleteAll();
+        categoriaRepository.deleteAll();
+
+        perifericos = criarCategoria("Periféricos");
+        monitores = criarCategoria("Monitores");
+
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private Categoria criarCategoria(String nome) {
+        Categoria categoria = new Categoria();
+        categoria.setNome(nome);
+        categoria.setAtivo(true);
+        return categoriaRepository.save(categoria);
+    }
+
+    private Produto criarProduto(String nome, String preco, Categoria categoria, String imagem) {
+        Produto produto = new Produto();
+        produto.setNome(nome);
+        produto.setPreco(new BigDecimal(preco));
+        produto.setEstoque(5);
+        produto.setAtivo(true);
+        produto.setCategoria(categoria);
+        produto.setImagemPath(imagem);
+        return produtoRepository.save(produto);
+    }
+
+    private ProdutoFiltrosDTO porCategoria(Long categoriaId) {
+        ProdutoFiltrosDTO filtros = new ProdutoFiltrosDTO();
+        filtros.setCategoriaId(categoriaId);
+        return filtros;
+    }
+
+    @Test
+    void atualizarEmUmUnicoUpdate() {
+        Produto mouse = criarProduto("Mouse", "9.99", perifericos, null);
+        Produto teclado = criarProduto("Teclado", "120.00", perifericos, null);
+        Produto monitor = criarProduto("Monitor", "900.00", monitores, null);
+
+        // Detalhe em cache antes do lote
+        assertEquals(new BigDecimal("9.99"), produtoService.buscarPorId(mouse.getId()).preco());
+
+        estatisticas.clear();
+
+        long afetados = loteService.atualizar(new AtualizacaoLoteRequestDTO(
+                porCategoria(perifericos.getId()), false, new BigDecimal("-10"))).afetados();
+
+        assertEquals(2, afetados);
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+
+        Produto mouseAtualizado = produtoRepository.findById(mouse.getId()).orElseThrow();
+        assertEquals(new BigDecimal("8.99"), mouseAtualizado.getPreco()); // 8.991 arredondado
+        assertFalse(mouseAtualizado.getAtivo());
+        assertEquals(mouse.getVersao() + 1, mouseAtualizado.getVersao());
+
+        assertEquals(new BigDecimal("108.00"), produtoRepository.findById(teclado.getId()).orElseThrow().getPreco());
+
+        // Fora do filtro: nada muda
+        Produto monitorDepois = produtoRepository.findById(monitor.getId()).orElseThrow();
+        assertEquals(new BigDecimal("900.00"), monitorDepois.getPreco());
+        assertTrue(monitorDepois.getAtivo());
+
+        // Cache de detalhe esvaziado no commit
+        assertEquals(new BigDecimal("8.99"), produtoService.buscarPorId(mouse.getId()).preco());
+    }
+
+    @Test
+    void atualizarSemFiltroOuSemAlteracao() {
+        assertThrows(BadRequestException.class, () -> loteService.atualizar(
+                new AtualizacaoLoteRequestDTO(new ProdutoFiltrosDTO(), false, null)));
+
+        assertThrows(BadRequestException.class, () -> loteService.atualizar(
+                new AtualizacaoLoteRequestDTO(porCategoria(perifericos.getId()), null, null)));
+    }
+
+    @Test
+    void reajusteQueTirariaPrecosDaFaixaERecusadoSemAlterarNada() {
+        Produto caro = criarProduto("Servidor", "60000000.00", perifericos, null);
+        Produto barato = criarProduto("Adesivo", "1.00", perifericos, null);
+
+        // 120000000.00 não cabe em NUMERIC(10, 2)
+        assertThrows(BadRequestException.class, () -> loteService.atualizar(new AtualizacaoLoteRequestDTO(
+                porCategoria(perifericos.getId()), null, new BigDecimal("100"))));
+
+        // 1.00 * 0.001 arredonda para 0.00
+        assertThrows(BadRequestException.class, () -> loteService.atualizar(new AtualizacaoLoteRequestDTO(
+                porCategoria(perifericos.getId()), null, new BigDecimal("-99.9"))));
+
+        // Fora dos limites do percentual, nem chega ao banco
+        assertThrows(BadRequestException.class, () -> loteService.atualizar(new AtualizacaoLoteRequestDTO(
+                porCategoria(perifericos.getId()), null, new BigDecimal("1001"))));
+        assertThrows(BadRequestException.class, () -> loteService.atualizar(new AtualizacaoLoteRequestDTO(
+                porCategoria(perifericos.getId()), null, new BigDecimal("-100"))));
+
+        assertEquals(new BigDecimal("60000000.00"), produtoRepository.findById(caro.getId()).orElseThrow().getPreco());
+        assertEquals(new BigDecimal("1.00"), produtoRepository.findById(barato.getId()).orElseThrow().getPreco());
+
+        // Aumento que cabe: a conferência e o UPDATE
+        estatisticas.clear();
+
+        assertEquals(2, loteService.atualizar(new AtualizacaoLoteRequestDTO(
+                porCategoria(perifericos.getId()), null, new BigDecimal("50"))).afetados());
+        assertEquals(2, estatisticas.getPrepareStatementCount());
+        assertEquals(new BigDecimal("90000000.00"), produtoRepository.findById(caro.getId()).orElseThrow().getPreco());
+    }
+
+    @Test
+    void deletarEmLoteELimparImagensDepois() throws Exception {
+        Path diretorio = Files.createDirectories(Path.of(uploadDir));
+        Files.writeString(diretorio.resolve("mouse-lote.png"), "img");
+        Files.writeString(diretorio.resolve("monitor-lote.png"), "img");
+
+        criarProduto("Mouse", "50.00", perifericos, "mouse-lote.png");
+        criarProduto("Teclado", "120.00", perifericos, null);
+        criarProduto("Monitor", "900.00", monitores, "monitor-lote.png");
+
+        long pendentesAntes = imagemLimpeza.pendentes();
+        estatisticas.clear();
+
+        long afetados = loteService.deletar(porCategoria(perifericos.getId())).afetados();
+
+        assertEquals(2, afetados);
+        // SELECT das imagens + DELETE + UPDATE da contagem + INSERT na fila de remoção
+        assertEquals(4, estatisticas.getPrepareStatementCount());
+        assertEquals(1, produtoRepository.count());
+
+        // Arquivo só sai quando o job roda
+        assertEquals(pendentesAntes + 1, imagemLimpeza.pendentes());
+        assertTrue(Files.exists(diretorio.resolve("mouse-lote.png")));
+
+        imagemLimpeza.processar();
+
+        assertFalse(Files.exists(diretorio.resolve("mouse-lote.png")));
+        assertTrue(Files.exists(diretorio.resolve("monitor-lote.png")));
+        assertEquals(pendentesAntes, imagemLimpeza.pendentes());
+    }
+
+    @Test
+    void reconciliacaoRemoveSoArquivosSemProduto() throws Exception {
+        Path diretorio = Files.createDirectories(Path.of(uploadDir));
+        Files.writeString(diretorio.resolve("usada.png"), "img");
+        Files.writeString(diretorio.resolve("usada-150.png"), "img");
+        Files.writeString(diretorio.resolve("orfa.png"), "img");
+        Files.writeString(diretorio.resolve("orfa-150.png"), "img");
+        // Miniatura de um original que já não existe
+        Files.writeString(diretorio.resolve("sumiu-400.png"), "img");
+
+        criarProduto("Mouse", "50.00", perifericos, "usada.png");
+
+        reconciliacao.reconciliar();
+
+        assertTrue(Files.exists(diretorio.resolve("usada.png")));
+        assertTrue(Files.exists(diretorio.resolve("usada-150.png")));
+        assertFalse(Files.exists(diretorio.resolve("orfa.png")));
+        assertFalse(Files.exists(diretorio.resolve("orfa-150.png")));
+        assertFalse(Files.exists(diretorio.resolve("sumiu-400.png")));
+    }
+
+    @Test
+    void deletarSemFiltro() {
+        criarProduto("Mouse", "50.00", perifericos, null);
+
+        assertThrows(BadRequestException.class, () -> loteService.deletar(new ProdutoFiltrosDTO()));
+
+        assertEquals(1, produtoRepository.count());
+    }
+}
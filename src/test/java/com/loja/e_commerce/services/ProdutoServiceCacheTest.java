@@ -0,0 +1,126 @@
+package com.loja.e_commerce.services;
+
+import com.loja.e_commerce.configs.CacheConfig;
+import com.loja.e_commerce.dtos.produto.ProdutoRequestDTO;
+import com.loja.e_commerce.dtos.produto.ProdutoResponseDTO;
+import com.loja.e_commerce.models.Categoria;
+import com.loja.e_commerce.repositories.CategoriaRepository;
+import com.loja.e_commerce.repositories.ProdutoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// Contexto completo: o cache só funciona pelo proxy do Spring
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+public class ProdutoServiceCacheTest {
+
+    @Autowired
+    private ProdutoService produtoService;
+
+    @Autowired
+    private CategoriaRepository categoriaRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    // Spy no repositório real para contar quantas vezes o banco foi acessado
+    @MockitoSpyBean
+    private ProdutoRepository produtoRepository;
+
+    private Long categoriaId;
+
+    @BeforeEach
+    void popularBanco() {
+        cacheManager.getCache(CacheConfig.PRODUTO).clear();
+        produtoRepository.deleteAll();
+        categoriaRepository.deleteAll();
+
+        Categoria categoria = new Categoria();
+        categoria.setNome("Eletrônicos");
+        categoria.setAtivo(true);
+        categoriaId = categoriaRepository.save(categoria).getId();
+    }
+
+    private ProdutoRequestDTO criarDTO(String nome) {
+        return new ProdutoRequestDTO(nome, "Descrição", new BigDecimal("99.90"), 5, true, categoriaId, null);
+    }
+
+    @Test
+    void detalheVemDoCacheAteAtualizar() {
+        Long id = produtoService.criar(criarDTO("Mouse")).id();
+        clearInvocations(produtoRepository);
+
+        produtoService.buscarPorId(id);
+        produtoService.buscarPorId(id);
+
+        verify(produtoRepository, times(1)).buscarResumo(id);
+
+        // Atualizar já deixa a resposta nova no cache
+        produtoService.atualizar(id, criarDTO("Mouse sem fio"));
+
+        assertEquals("Mouse sem fio", produtoService.buscarPorId(id).nome());
+        verify(produtoRepository, times(1)).buscarResumo(id);
+    }
+
+    @Test
+    void deletarRemoveDoCache() {
+        Long id = produtoService.criar(criarDTO("Mouse")).id();
+
+        produtoService.buscarPorId(id);
+        produtoService.deletar(id);
+
+        assertNull(cacheManager.getCache(CacheConfig.PRODUTO).get(id));
+    }
+
+    @Test
+    void cacheFrioFazUmaUnicaConsultaComAcessosSimultaneos() throws Exception {
+        ProdutoResponseDTO produto = produtoService.criar(criarDTO("Mouse"));
+        Long id = produto.id();
+        clearInvocations(produtoRepository);
+
+        // Consulta lenta para todas as threads chegarem com o cache ainda vazio
+        doAnswer(invocacao -> {
+            Thread.sleep(200);
+            return Optional.of(produto);
+        }).when(produtoRepository).buscarResumo(id);
+
+        int threads = 20;
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            List<Future<ProdutoResponseDTO>> resultados = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                resultados.add(executor.submit(() -> {
+                    largada.await();
+                    return produtoService.buscarPorId(id);
+                }));
+            }
+
+            largada.countDown();
+
+            for (Future<ProdutoResponseDTO> resultado : resultados) {
+                assertEquals("Mouse", resultado.get().nome());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(produtoRepository, times(1)).buscarResumo(id);
+    }
+}
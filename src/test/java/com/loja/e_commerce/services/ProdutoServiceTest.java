@@ -1,9 +1,13 @@
 package com.loja.e_commerce.services;
 
+import com.loja.e_commerce.dtos.CursorPageResponseDTO;
 import com.loja.e_commerce.dtos.PageResponseDTO;
+import com.loja.e_commerce.dtos.categoria.CategoriaResponseDTO;
+import com.loja.e_commerce.dtos.produto.ModoContagem;
 import com.loja.e_commerce.dtos.produto.ProdutoFiltrosDTO;
 import com.loja.e_commerce.dtos.produto.ProdutoRequestDTO;
 import com.loja.e_commerce.dtos.produto.ProdutoResponseDTO;
+import com.loja.e_commerce.dtos.produto.ProdutosPorIdsResponseDTO;
 import com.loja.e_commerce.exceptions.BadRequestException;
 import com.loja.e_commerce.exceptions.ConflictException;
 import com.loja.e_commerce.exceptions.ResourceNotFoundException;
@@ -14,21 +18,33 @@ import com.loja.e_commerce.repositories.CategoriaRepository;
 import com.loja.e_commerce.repositories.ProdutoRepository;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Collection;
 import java.util.Optional;
-
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 // Inicializar os mocks automáticamente
@@ -42,12 +58,21 @@ public class ProdutoServiceTest {
     @Mock
     private CategoriaRepository categoriaRepository;
 
+    @Mock
+    private CategoriaService categoriaService;
+
     @Mock
     private ProdutoMapper mapper;
 
     @Mock
     private ImagemStorageService imagemStorage;
 
+    @Mock
+    private ProdutoBuscaCache buscaCache;
+
+    @Mock
+    private ImagemDerivadaService imagemDerivadas;
+
     // Injeta os mocks automáticamente (new ProdutoService(mock1, mock2, mock3, mock4);)
     @InjectMocks
     private ProdutoService produtoService;
@@ -84,6 +109,11 @@ public class ProdutoServiceTest {
         return c;
     }
 
+    // O que o CategoriaService (com cache) devolve
+    private CategoriaResponseDTO criarCategoriaResponse(Boolean ativo) {
+        return new CategoriaResponseDTO(categoriaId, nomeCategoria, ativo);
+    }
+
     private Produto criarProduto() {
         Produto p = new Produto();
         p.setId(produtoId);
@@ -93,18 +123,30 @@ public class ProdutoServiceTest {
     }
 
     private ProdutoResponseDTO criarResponse() {
+        return criarResponse(produtoId);
+    }
+
+    private ProdutoResponseDTO criarResponse(Long id) {
         return new ProdutoResponseDTO(
-                produtoId,
+                id,
                 nomeProduto,
                 descricaoProduto,
                 precoProduto,
                 estoqueProduto,
                 statusProduto,
                 null,
-                nomeCategoria
+                nomeCategoria,
+                0L
         );
     }
 
+    // Cache sempre frio: executa a busca recebida
+    @SuppressWarnings("unchecked")
+    private void buscaSemCache() {
+        when(buscaCache.pagina(any(), any()))
+                .thenAnswer(invocacao -> invocacao.getArgument(1, Supplier.class).get());
+    }
+
     @Test
     void criarProdutoComSucesso() {
 
@@ -115,8 +157,12 @@ public class ProdutoServiceTest {
         ProdutoResponseDTO response = criarResponse();
 
         // Configurando comportamento dos mocks
-        when(categoriaRepository.findById(categoriaId))
-                .thenReturn(Optional.of(categoria));
+        when(categoriaService.buscarPorId(categoriaId))
+                .thenReturn(criarCategoriaResponse(true));
+
+        // Só a referência para a FK, sem SELECT na categoria
+        when(categoriaRepository.getReferenceById(categoriaId))
+                .thenReturn(categoria);
 
         when(produtoRepository.existsByNomeIgnoreCaseAndCategoria_Id(nomeProduto, categoriaId))
                 .thenReturn(false);
@@ -127,7 +173,7 @@ public class ProdutoServiceTest {
         when(produtoRepository.save(produto))
                 .thenReturn(produto);
 
-        when(mapper.toResponse(produto))
+        when(mapper.toResponse(produto, nomeCategoria))
                 .thenReturn(response);
 
         ProdutoResponseDTO resultado = produtoService.criar(dto);
@@ -138,14 +184,17 @@ public class ProdutoServiceTest {
         // confirma se o save foi chamado
         verify(produtoRepository).save(produto);
         verify(mapper).toEntity(dto, categoria);
+
+        // Listagens da categoria saem do cache
+        verify(buscaCache).invalidarCategorias(categoriaId);
     }
 
     @Test
     void criarProdutoComCategoriaNaoEcontrada() {
         ProdutoRequestDTO dto = criarDTO();
 
-        when(categoriaRepository.findById(dto.getCategoriaId()))
-                .thenReturn(Optional.empty());
+        when(categoriaService.buscarPorId(dto.getCategoriaId()))
+                .thenThrow(new ResourceNotFoundException("Categoria não encontrada"));
 
         // Esperado que lance exceção
         assertThrows(ResourceNotFoundException.class,
@@ -160,11 +209,8 @@ public class ProdutoServiceTest {
     void criarProdutoComCategoriaInativa() {
         ProdutoRequestDTO dto = criarDTO();
 
-        Categoria categoriaInativa = criarCategoria();
-        categoriaInativa.setAtivo(false);
-
-        when(categoriaRepository.findById(dto.getCategoriaId()))
-                .thenReturn(Optional.of(categoriaInativa));
+        when(categoriaService.buscarPorId(dto.getCategoriaId()))
+                .thenReturn(criarCategoriaResponse(false));
 
         // Esperado que lance exceção
         assertThrows(BadRequestException.class,
@@ -178,10 +224,9 @@ public class ProdutoServiceTest {
     @Test
     void criarProdutoDuplicado() {
         ProdutoRequestDTO dto = criarDTO();
-        Categoria categoria = criarCategoria();
 
-        when(categoriaRepository.findById(categoriaId))
-                .thenReturn(Optional.of(categoria));
+        when(categoriaService.buscarPorId(categoriaId))
+                .thenReturn(criarCategoriaResponse(true));
 
         when(produtoRepository
                 .existsByNomeIgnoreCaseAndCategoria_Id(nomeProduto, categoriaId))
@@ -206,26 +251,49 @@ public class ProdutoServiceTest {
         when(produtoRepository.findById(produtoId))
                 .thenReturn(Optional.of(produto));
 
-        when(categoriaRepository.findById(categoriaId))
-                .thenReturn(Optional.of(categoria));
+        when(categoriaService.buscarPorId(categoriaId))
+                .thenReturn(criarCategoriaResponse(true));
+
+        when(categoriaRepository.getReferenceById(categoriaId))
+                .thenReturn(categoria);
 
         when(produtoRepository
                 .existsByNomeIgnoreCaseAndCategoria_IdAndIdNot(
                         nomeProduto, categoriaId, produtoId))
                 .thenReturn(false);
 
-        when(produtoRepository.save(produto))
+        when(produtoRepository.saveAndFlush(produto))
                 .thenReturn(produto);
 
-        when(mapper.toResponse(produto))
+        when(mapper.toResponse(produto, nomeCategoria))
                 .thenReturn(response);
 
         ProdutoResponseDTO resultado = produtoService.atualizar(produtoId, dto);
 
         assertEquals(resultado, response);
 
-        verify(produtoRepository).save(produto);
+        verify(produtoRepository).saveAndFlush(produto);
         verify(mapper).toUpdateEntity(produto, dto, categoria);
+        verify(buscaCache).invalidarCategorias(categoriaId, categoriaId);
+    }
+
+    @Test
+    void atualizarProdutoComVersaoDesatualizada() {
+        ProdutoRequestDTO dto = criarDTO();
+        dto.setVersao(3L);
+
+        Produto produto = criarProduto();
+        produto.setVersao(4L);
+
+        when(produtoRepository.findById(produtoId))
+                .thenReturn(Optional.of(produto));
+
+        // Outro cliente já gravou a versão 4: não sobrescreve o estoque dele
+        assertThrows(ConflictException.class,
+                () -> produtoService.atualizar(produtoId, dto));
+
+        verify(produtoRepository, never()).saveAndFlush(any());
+        verify(buscaCache, never()).invalidarCategorias(any());
     }
 
     @Test
@@ -236,20 +304,19 @@ public class ProdutoServiceTest {
         assertThrows(ResourceNotFoundException.class,
                 () -> produtoService.atualizar(produtoId, criarDTO()));
 
-        verify(produtoRepository, never()).save(any());
+        verify(produtoRepository, never()).saveAndFlush(any());
     }
 
     @Test
     void atualizarProdutoDuplicado() {
         ProdutoRequestDTO dto = criarDTO();
         Produto produto = criarProduto();
-        Categoria categoria = criarCategoria();
 
         when(produtoRepository.findById(produtoId))
                 .thenReturn(Optional.of(produto));
 
-        when(categoriaRepository.findById(categoriaId))
-                .thenReturn(Optional.of(categoria));
+        when(categoriaService.buscarPorId(categoriaId))
+                .thenReturn(criarCategoriaResponse(true));
 
         when(produtoRepository
                 .existsByNomeIgnoreCaseAndCategoria_IdAndIdNot(
@@ -259,7 +326,7 @@ public class ProdutoServiceTest {
         assertThrows(ConflictException.class,
                 () -> produtoService.atualizar(produtoId, dto));
 
-        verify(produtoRepository, never()).save(any());
+        verify(produtoRepository, never()).saveAndFlush(any());
     }
 
     /// ----------------------------- BUSCAR COM FILTROS --------------------------------------------------
@@ -270,29 +337,147 @@ public class ProdutoServiceTest {
         filtros.setPagina(0);
         filtros.setTamanho(10);
 
-        Page<Produto> pagina = new PageImpl<>(List.of(new Produto()));
+        ProdutoResponseDTO produto = criarResponse();
+        Page<ProdutoResponseDTO> pagina = new PageImpl<>(List.of(produto));
 
-        when(produtoRepository.findAll(
+        buscaSemCache();
+
+        when(produtoRepository.buscarResumos(
                 any(Specification.class),
                 any(Pageable.class)
         )).thenReturn(pagina);
 
+        PageResponseDTO<ProdutoResponseDTO> resultado =
+                produtoService.buscar(filtros);
 
-        PageResponseDTO<ProdutoResponseDTO> response = new PageResponseDTO<>(
-                List.of(),
-                0,
-                10,
-                0,
-                0
-        );
+        assertEquals(List.of(produto), resultado.content());
+        assertEquals(1, resultado.totalElements());
 
-        when(mapper.toResponsePage(pagina))
-                .thenReturn(response);
+        // A listagem não passa mais pela entidade (evita o N+1 da categoria)
+        verify(produtoRepository, never()).findAll(any(Specification.class), any(Pageable.class));
+        verify(mapper, never()).toResponse(any());
+    }
 
-        PageResponseDTO<ProdutoResponseDTO> resultado =
-                produtoService.buscar(filtros);
+    @Test
+    void buscarSemContagem() {
+        ProdutoFiltrosDTO filtros = new ProdutoFiltrosDTO();
+        filtros.setPagina(0);
+        filtros.setTamanho(1);
+        filtros.setContagem(ModoContagem.NENHUMA);
 
-        assertEquals(resultado, response);
+        ProdutoResponseDTO produto = criarResponse();
+
+        buscaSemCache();
+
+        when(produtoRepository.buscarFatia(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(produto), PageRequest.of(0, 1), true));
+
+        PageResponseDTO<ProdutoResponseDTO> resultado = produtoService.buscar(filtros);
+
+        assertEquals(List.of(produto), resultado.content());
+        assertTrue(resultado.hasNext());
+        assertNull(resultado.totalElements());
+
+        // Nenhum COUNT executado
+        verify(produtoRepository, never()).contar(any());
+        verify(produtoRepository, never()).buscarResumos(any(Specification.class), any(Pageable.class));
+    }
+
+    @Test
+    void buscarComContagemEstimadaUsaOTotalEmCache() {
+        ProdutoFiltrosDTO filtros = new ProdutoFiltrosDTO();
+        filtros.setNome("Mouse");
+        filtros.setPagina(0);
+        filtros.setTamanho(1);
+        filtros.setContagem(ModoContagem.ESTIMADA);
+
+        buscaSemCache();
+
+        when(buscaCache.contagem(eq(filtros), any()))
+                .thenReturn(42L);
+
+        when(produtoRepository.buscarFatia(any(Specification.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(criarResponse()), PageRequest.of(0, 1), true));
+
+        PageResponseDTO<ProdutoResponseDTO> resultado = produtoService.buscar(filtros);
+
+        assertEquals(42L, resultado.totalElements());
+        assertEquals(42, resultado.totalPages());
+        assertTrue(resultado.totalEstimado());
+
+        // O COUNT fica a cargo do cache
+        verify(produtoRepository, never()).contar(any());
+    }
+
+    @Test
+    void buscarRepetidaVemDoCache() {
+        ProdutoFiltrosDTO filtros = new ProdutoFiltrosDTO();
+        filtros.setPagina(0);
+        filtros.setTamanho(10);
+
+        PageResponseDTO<ProdutoResponseDTO> emCache =
+                new PageResponseDTO<>(List.of(criarResponse()), 0, 10, 1L, 1);
+
+        when(buscaCache.pagina(eq(filtros), any()))
+                .thenReturn(emCache);
+
+        assertSame(emCache, produtoService.buscar(filtros));
+
+        verifyNoInteractions(produtoRepository);
+    }
+
+    @Test
+    void buscarPorCursorPrimeiraPagina() {
+        ProdutoFiltrosDTO filtros = new ProdutoFiltrosDTO();
+        filtros.setTamanho(2);
+
+        ProdutoResponseDTO p1 = criarResponse(1L);
+        ProdutoResponseDTO p2 = criarResponse(2L);
+        ProdutoResponseDTO p3 = criarResponse(3L);
+
+        // Pede tamanho + 1 para descobrir se há próxima página
+        when(produtoRepository.buscarResumos(any(Specification.class), any(Sort.class), eq(3)))
+                .thenReturn(List.of(p1, p2, p3));
+
+        CursorPageResponseDTO<ProdutoResponseDTO> resultado =
+                produtoService.buscarPorCursor(filtros, "");
+
+        assertEquals(List.of(p1, p2), resultado.content());
+        assertTrue(resultado.hasNext());
+        assertNotNull(resultado.nextCursor());
+
+        // O cursor devolvido aponta para o último id da página
+        when(produtoRepository.buscarResumos(any(Specification.class), any(Sort.class), eq(3)))
+                .thenReturn(List.of(p3));
+
+        CursorPageResponseDTO<ProdutoResponseDTO> proxima =
+                produtoService.buscarPorCursor(filtros, resultado.nextCursor());
+
+        assertEquals(List.of(p3), proxima.content());
+        assertFalse(proxima.hasNext());
+        assertNull(proxima.nextCursor());
+    }
+
+    @Test
+    void buscarPorCursorInvalido() {
+        ProdutoFiltrosDTO filtros = new ProdutoFiltrosDTO();
+
+        assertThrows(BadRequestException.class,
+                () -> produtoService.buscarPorCursor(filtros, "não-é-cursor"));
+
+        verify(produtoRepository, never()).buscarResumos(any(), any(Sort.class), anyInt());
+    }
+
+    @Test
+    void buscarPorCursorComRelevanciaERecusado() {
+        ProdutoFiltrosDTO filtros = new ProdutoFiltrosDTO();
+        filtros.setNome("mouse");
+        filtros.setRelevancia(true);
+
+        assertThrows(BadRequestException.class,
+                () -> produtoService.buscarPorCursor(filtros, ""));
+
+        verify(produtoRepository, never()).buscarResumos(any(), any(Sort.class), anyInt());
     }
 
     @Test
@@ -305,6 +490,108 @@ public class ProdutoServiceTest {
                 () -> produtoService.buscar(filtros));
     }
 
+    /// ------------------------------- EXPORTAR ---------------------------------
+
+    @Test
+    void exportarEntregaTodosEFechaOCursor() {
+        ProdutoFiltrosDTO filtros = new ProdutoFiltrosDTO();
+        AtomicBoolean fechado = new AtomicBoolean();
+
+        Stream<ProdutoResponseDTO> stream = Stream.of(criarResponse(1L), criarResponse(2L))
+                .onClose(() -> fechado.set(true));
+
+        when(produtoRepository.percorrerResumos(any(Specification.class), eq(Sort.by("id"))))
+                .thenReturn(stream);
+
+        List<ProdutoResponseDTO> recebidos = new ArrayList<>();
+        long total = produtoService.exportar(filtros, recebidos::add);
+
+        assertEquals(2, total);
+        assertEquals(List.of(1L, 2L), recebidos.stream().map(ProdutoResponseDTO::id).toList());
+        assertTrue(fechado.get());
+    }
+
+    @Test
+    void validarExportacaoComPrecoInvalido() {
+        ProdutoFiltrosDTO filtros = new ProdutoFiltrosDTO();
+        filtros.setPrecoMin(BigDecimal.TEN);
+        filtros.setPrecoMax(BigDecimal.ONE);
+
+        assertThrows(BadRequestException.class,
+                () -> produtoService.validarExportacao(filtros));
+    }
+
+    /// ------------------------------- BUSCAR POR IDS ---------------------------------
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void buscarPorIdsMantemAOrdemEInformaOsFaltantes() {
+        // Cache frio: repassa todos os ids para a consulta
+        when(buscaCache.detalhes(any(), any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            Function<Collection<Long>, List<ProdutoResponseDTO>> busca = invocation.getArgument(1);
+            return busca.apply(ids).stream()
+                    .collect(Collectors.toMap(ProdutoResponseDTO::id, p -> p));
+        });
+
+        // O banco devolve em outra ordem
+        when(produtoRepository.buscarResumosPorIds(argThat(ids -> List.copyOf(ids).equals(List.of(3L, 1L, 7L)))))
+                .thenReturn(List.of(criarResponse(1L), criarResponse(3L)));
+
+        ProdutosPorIdsResponseDTO resultado = produtoService.buscarPorIds(List.of(3L, 1L, 3L, 7L));
+
+        assertEquals(List.of(3L, 1L), resultado.produtos().stream().map(ProdutoResponseDTO::id).toList());
+        assertEquals(List.of(7L), resultado.naoEncontrados());
+    }
+
+    @Test
+    void buscarPorIdsSemIdsOuAcimaDoLimite() {
+        assertThrows(BadRequestException.class, () -> produtoService.buscarPorIds(List.of()));
+
+        List<Long> muitos = LongStream.rangeClosed(1, ProdutoService.MAXIMO_IDS + 1).boxed().toList();
+        assertThrows(BadRequestException.class, () -> produtoService.buscarPorIds(muitos));
+
+        verifyNoInteractions(produtoRepository);
+    }
+
+    /// ------------------------------- BUSCAR POR ID ---------------------------------
+
+    @Test
+    void buscarPorIdComSucesso() {
+        ProdutoResponseDTO response = criarResponse();
+
+        when(produtoRepository.buscarResumo(produtoId))
+                .thenReturn(Optional.of(response));
+
+        assertEquals(response, produtoService.buscarPorId(produtoId));
+
+        // Vem da projeção, sem carregar a entidade
+        verify(produtoRepository, never()).findById(any());
+        verify(mapper, never()).toResponse(any());
+    }
+
+    @Test
+    void buscarPorIdComImagemTrazAsUrlsDasMiniaturas() {
+        ProdutoResponseDTO response = new ProdutoResponseDTO(produtoId, nomeProduto, descricaoProduto,
+                precoProduto, estoqueProduto, statusProduto, "img.png", nomeCategoria, 0L);
+        Map<String, String> urls = Map.of("original", "/imagens/img.png", "150", "/imagens/img-150.png");
+
+        when(produtoRepository.buscarResumo(produtoId))
+                .thenReturn(Optional.of(response));
+        when(imagemDerivadas.urls("img.png")).thenReturn(urls);
+
+        assertEquals(urls, produtoService.buscarPorId(produtoId).imagens());
+    }
+
+    @Test
+    void buscarPorIdNaoEncontrado() {
+        when(produtoRepository.buscarResumo(produtoId))
+                .thenReturn(Optional.empty());
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> produtoService.buscarPorId(produtoId));
+    }
+
     /// ------------------------------- DELETE ---------------------------------
 
     @Test
@@ -318,7 +605,7 @@ public class ProdutoServiceTest {
         produtoService.deletar(produtoId);
 
         verify(produtoRepository).delete(produto);
-        verify(imagemStorage).deletar("img.jpg");
+        verify(imagemStorage).liberar("img.jpg");
     }
 
     @Test
@@ -336,18 +623,23 @@ public class ProdutoServiceTest {
     @Test
     void salvarImagemComSucesso() {
         Produto produto = criarProduto();
+        produto.setAtivo(true);
+        produto.setImagemPath("antiga.png");
 
-        MultipartFile arquivo = mock(MultipartFile.class);
+        Path arquivo = Path.of("upload-1.tmp");
 
         when(produtoRepository.findById(produtoId))
                 .thenReturn(Optional.of(produto));
 
-        when(imagemStorage.salvar(any(), any()))
+        when(imagemStorage.salvar(arquivo))
                 .thenReturn("img.png");
 
-        produtoService.salvarImagem(produtoId, arquivo);
+        assertEquals("img.png", produtoService.salvarImagem(produtoId, arquivo));
 
-        verify(produtoRepository).save(produto);
+        // A imagem antiga só é liberada depois que o produto já aponta para a nova
+        InOrder ordem = inOrder(produtoRepository, imagemStorage);
+        ordem.verify(produtoRepository).save(produto);
+        ordem.verify(imagemStorage).liberar("antiga.png");
     }
 
     @Test
@@ -355,7 +647,7 @@ public class ProdutoServiceTest {
         Produto produto = criarProduto();
         produto.setAtivo(false);
 
-        MultipartFile arquivo = mock(MultipartFile.class);
+        Path arquivo = Path.of("upload-1.tmp");
 
         when(produtoRepository.findById(produtoId))
                 .thenReturn(Optional.of(produto));
@@ -363,20 +655,22 @@ public class ProdutoServiceTest {
         assertThrows(BadRequestException.class,
                 () -> produtoService.salvarImagem(produtoId, arquivo));
 
-        verify(imagemStorage, never()).salvar(any(), any());
+        verify(imagemStorage, never()).salvar(any());
         verify(produtoRepository, never()).save(any());
     }
 
     @Test
     void salvarImagemErroRollback() {
         Produto produto = criarProduto();
+        produto.setAtivo(true);
+        produto.setImagemPath("antiga.png");
 
-        MultipartFile arquivo = mock(MultipartFile.class);
+        Path arquivo = Path.of("upload-1.tmp");
 
         when(produtoRepository.findById(produtoId))
                 .thenReturn(Optional.of(produto));
 
-        when(imagemStorage.salvar(any(), any()))
+        when(imagemStorage.salvar(arquivo))
                 .thenReturn("img.png");
 
         when(produtoRepository.save(produto))
@@ -385,6 +679,7 @@ public class ProdutoServiceTest {
         assertThrows(RuntimeException.class,
                 () -> produtoService.salvarImagem(produtoId, arquivo));
 
-        verify(imagemStorage).deletar("img.png");
+        // A referência da nova é devolvida pelo próprio storage no rollback; a antiga continua valendo
+        verify(imagemStorage, never()).liberar(anyString());
     }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.loja.e_commerce.services;
+
+import com.loja.e_commerce.dtos.CursorPageResponseDTO;
+import com.loja.e_commerce.dtos.produto.ProdutoFiltrosDTO;
+import com.loja.e_commerce.dtos.produto.ProdutoResponseDTO;
+import com.loja.e_commerce.exceptions.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class ProdutoStreamServiceTest {
+
+    private final ProdutoService produtoService = mock(ProdutoService.class);
+
+    private final ProdutoStreamService streamService = new ProdutoStreamService(produtoService, 2);
+
+    private static ProdutoResponseDTO produto(long id) {
+        return new ProdutoResponseDTO(id, "Produto " + id, null, BigDecimal.TEN, 1, true, null, "Categoria", 0L);
+    }
+
+    @Test
+    void percorreTodosOsLotesPeloCursor() {
+        when(produtoService.buscarPorCursor(any(), eq("")))
+                .thenReturn(new CursorPageResponseDTO<>(List.of(produto(1), produto(2)), 2, "c2", true));
+        when(produtoService.buscarPorCursor(any(), eq("c2")))
+                .thenReturn(new CursorPageResponseDTO<>(List.of(produto(3)), 2, null, false));
+
+        ProdutoFiltrosDTO filtros = new ProdutoFiltrosDTO();
+        filtros.setCategoriaId(4L);
+
+        ProdutoStreamService.Transmissao transmissao = streamService.abrir(filtros);
+
+        // Primeiro lote lido já ao abrir
+        verify(produtoService).buscarPorCursor(argThat(dto -> dto.getTamanho() == 2 && dto.getCategoriaId() == 4L), eq(""));
+
+        List<List<ProdutoResponseDTO>> lotes = new ArrayList<>();
+        assertEquals(3, transmissao.enviar(lotes::add));
+
+        assertEquals(List.of(List.of(produto(1), produto(2)), List.of(produto(3))), lotes);
+        verify(produtoService, times(2)).buscarPorCursor(any(), any());
+    }
+
+    @Test
+    void filtroInvalidoFalhaAoAbrir() {
+        when(produtoService.buscarPorCursor(any(), any()))
+                .thenThrow(new BadRequestException("Preço mínimo não pode ser maior que o máximo"));
+
+        assertThrows(BadRequestException.class, () -> streamService.abrir(new ProdutoFiltrosDTO()));
+    }
+}
@@ -0,0 +1,258 @@
+package com.loja.e_commerce.services.storage;
+
+import com.loja.e_commerce.configs.StorageConfig;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Driver S3 contra um servidor HTTP local que imita a API de objetos (PUT/GET/HEAD/DELETE com o bucket no caminho),
+// no lugar de um MinIO: roda offline e sem container. A assinatura das requisições não é conferida
+public class S3StorageBackendTest {
+
+    private static final byte[] PNG = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0, 0, 0, 13};
+
+    private record Objeto(byte[] conteudo, String contentType, String cacheControl) {
+    }
+
+    private final Map<String, Objeto> objetos = new ConcurrentHashMap<>();
+
+    // Simula o bucket falhando no meio da listagem (ex.: credencial revogada durante a reconciliação)
+    private volatile boolean segundaPaginaFalha;
+
+    private HttpServer servidor;
+    private String endpoint;
+    private S3StorageBackend storage;
+
+    @TempDir
+    private Path temporarios;
+
+    @BeforeEach
+    void subirServidor() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        servidor.createContext("/imagens-teste", this::atender);
+        servidor.start();
+
+        endpoint = "http://127.0.0.1:" + servidor.getAddress().getPort();
+
+        // Mesma montagem do cliente usada pela aplicação com storage.tipo=s3
+        storage = (S3StorageBackend) new StorageConfig().s3StorageBackend(
+                "imagens-teste", "us-east-1", endpoint, "chave", "segredo", Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void pararServidor() {
+        storage.close();
+        servidor.stop(0);
+    }
+
+    private void atender(HttpExchange troca) throws IOException {
+        String query = troca.getRequestURI().getQuery();
+
+        // ListObjectsV2: GET no bucket, sem chave
+        if (query != null && query.contains("list-type=2")) {
+            listar(troca);
+            return;
+        }
+
+        String chave = troca.getRequestURI().getPath().substring("/imagens-teste/".length());
+        Objeto objeto = objetos.get(chave);
+
+        switch (troca.getRequestMethod()) {
+            case "PUT" -> {
+                byte[] corpo = troca.getRequestBody().readAllBytes();
+
+                // Corpo assinado por blocos (aws-chunked), usado pelo SDK em endpoints http
+                if (troca.getRequestHeaders().containsKey("x-amz-decoded-content-length")) {
+                    corpo = decodificarChunked(corpo);
+                }
+
+                objetos.put(chave, new Objeto(corpo,
+                        troca.getRequestHeaders().getFirst("Content-Type"),
+                        troca.getRequestHeaders().getFirst("Cache-Control")));
+                troca.getResponseHeaders().set("ETag", "\"1\"");
+                troca.sendResponseHeaders(200, -1);
+            }
+            case "HEAD" -> {
+                if (objeto == null) {
+                    troca.sendResponseHeaders(404, -1);
+                } else {
+                    troca.getResponseHeaders().set("Content-Type", objeto.contentType());
+                    troca.getResponseHeaders().set("Content-Length", String.valueOf(objeto.conteudo().length));
+                    troca.sendResponseHeaders(200, -1);
+                }
+            }
+            case "GET" -> {
+                if (objeto == null) {
+                    byte[] erro = "<Error><Code>NoSuchKey</Code><Message>not found</Message></Error>"
+                            .getBytes(StandardCharsets.UTF_8);
+                    troca.getResponseHeaders().set("Content-Type", "application/xml");
+                    troca.sendResponseHeaders(404, erro.length);
+                    troca.getResponseBody().write(erro);
+                } else {
+                    troca.getResponseHeaders().set("Content-Type", objeto.contentType());
+                    troca.sendResponseHeaders(200, objeto.conteudo().length);
+                    troca.getResponseBody().write(objeto.conteudo());
+                }
+            }
+            case "DELETE" -> {
+                objetos.remove(chave);
+                troca.sendResponseHeaders(204, -1);
+            }
+            default -> troca.sendResponseHeaders(405, -1);
+        }
+
+        troca.close();
+    }
+
+    // Uma página só, com todas as chaves (ou a primeira de duas, quando a segunda deve falhar)
+    private void listar(HttpExchange troca) throws IOException {
+        if (segundaPaginaFalha && troca.getRequestURI().getQuery().contains("continuation-token")) {
+            byte[] erro = "<Error><Code>AccessDenied</Code><Message>denied</Message></Error>"
+                    .getBytes(StandardCharsets.UTF_8);
+            troca.getResponseHeaders().set("Content-Type", "application/xml");
+            troca.sendResponseHeaders(403, erro.length);
+            troca.getResponseBody().write(erro);
+            troca.close();
+            return;
+        }
+
+        StringBuilder xml = new StringBuilder("<ListBucketResult><Name>imagens-teste</Name>")
+                .append(segundaPaginaFalha
+                        ? "<IsTruncated>true</IsTruncated><NextContinuationToken>pagina-2</NextContinuationToken>"
+                        : "<IsTruncated>false</IsTruncated>");
+        objetos.keySet().stream().sorted()
+                .forEach(chave -> xml.append("<Contents><Key>").append(chave).append("</Key></Contents>"));
+        xml.append("</ListBucketResult>");
+
+        byte[] corpo = xml.toString().getBytes(StandardCharsets.UTF_8);
+        troca.getResponseHeaders().set("Content-Type", "application/xml");
+        troca.sendResponseHeaders(200, corpo.length);
+        troca.getResponseBody().write(corpo);
+        troca.close();
+    }
+
+    // "<tamanho hex>;chunk-signature=...\r\n<dados>\r\n" ... até o bloco de tamanho 0
+    private static byte[] decodificarChunked(byte[] corpo) {
+        ByteArrayOutputStream dados = new ByteArrayOutputStream();
+        int posicao = 0;
+
+        while (posicao < corpo.length) {
+            int fimLinha = posicao;
+            while (corpo[fimLinha] != '\r') {
+                fimLinha++;
+            }
+
+            String cabecalho = new String(corpo, posicao, fimLinha - posicao, StandardCharsets.US_ASCII);
+            int tamanho = Integer.parseInt(cabecalho.split(";")[0], 16);
+
+            if (tamanho == 0) {
+                break;
+            }
+
+            dados.write(corpo, fimLinha + 2, tamanho);
+            posicao = fimLinha + 2 + tamanho + 2;
+        }
+
+        return dados.toByteArray();
+    }
+
+    @Test
+    void gravarLerEDeletar() throws Exception {
+        Path arquivo = Files.write(temporarios.resolve("upload.tmp"), PNG);
+
+        assertFalse(storage.existe("abc.png"));
+
+        storage.gravar("abc.png", arquivo);
+
+        // O temporário local é consumido e o objeto vai com tipo e cache de longa duração
+        assertFalse(Files.exists(arquivo));
+        assertArrayEquals(PNG, objetos.get("abc.png").conteudo());
+        assertEquals("image/png", objetos.get("abc.png").contentType());
+        assertEquals("public, max-age=31536000, immutable", objetos.get("abc.png").cacheControl());
+
+        assertTrue(storage.existe("abc.png"));
+
+        try (InputStream entrada = storage.abrir("abc.png")) {
+            assertArrayEquals(PNG, entrada.readAllBytes());
+        }
+
+        storage.remover("abc.png");
+
+        assertFalse(storage.existe("abc.png"));
+        assertTrue(storage.caminhoLocal("abc.png").isEmpty());
+    }
+
+    @Test
+    void listarTodasAsChaves() throws Exception {
+        objetos.put("abc.png", new Objeto(PNG, "image/png", null));
+        objetos.put("abc-150.png", new Objeto(PNG, "image/png", null));
+
+        try (Stream<String> nomes = storage.listar()) {
+            assertEquals(List.of("abc-150.png", "abc.png"), nomes.toList());
+        }
+    }
+
+    @Test
+    void erroNaPaginaSeguinteSaiComoUncheckedIOException() throws Exception {
+        objetos.put("abc.png", new Objeto(PNG, "image/png", null));
+        segundaPaginaFalha = true;
+
+        // A segunda página só é pedida durante a leitura do stream
+        try (Stream<String> nomes = storage.listar()) {
+            UncheckedIOException erro = assertThrows(UncheckedIOException.class, nomes::toList);
+            assertTrue(erro.getCause().getMessage().contains("imagens-teste"));
+        }
+    }
+
+    @Test
+    void abrirObjetoInexistente() {
+        assertThrows(NoSuchFileException.class, () -> storage.abrir("nao-existe.png"));
+    }
+
+    @Test
+    void urlAssinadaParaDownloadDireto() throws Exception {
+        objetos.put("abc.png", new Objeto(PNG, "image/png", null));
+
+        URI url = storage.urlDireta("abc.png").orElseThrow();
+
+        assertTrue(url.toString().startsWith(endpoint + "/imagens-teste/abc.png?"));
+        assertTrue(url.getQuery().contains("X-Amz-Expires=3600"));
+        assertTrue(url.getQuery().contains("X-Amz-Signature="));
+
+        // Mesma URL enquanto está no cache: o navegador reaproveita a imagem já baixada
+        assertEquals(url, storage.urlDireta("abc.png").orElseThrow());
+
+        // O cliente baixa direto do storage, sem passar pela API
+        try (HttpClient cliente = HttpClient.newHttpClient()) {
+            HttpResponse<byte[]> resposta = cliente.send(HttpRequest.newBuilder(url).build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+
+            assertEquals(200, resposta.statusCode());
+            assertArrayEquals(PNG, resposta.body());
+        }
+    }
+}